@@ -3,41 +3,45 @@ package org.firstinspires.ftc.teamcode;
 import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 
-import org.firstinspires.ftc.teamcode.subsystems.DriveSubsystem;
-import org.firstinspires.ftc.teamcode.subsystems.GateSubsystem;
-import org.firstinspires.ftc.teamcode.subsystems.IntakeSubsystem;
-import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem;
-import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem.SlidePreset;
+import org.firstinspires.ftc.teamcode.auto.AutoRobot;
+import org.firstinspires.ftc.teamcode.auto.LeftAutoRoutine;
+import org.firstinspires.ftc.teamcode.hardware.BatteryMonitor;
+import org.firstinspires.ftc.teamcode.hardware.FtcRobotHardware;
 import org.firstinspires.ftc.teamcode.subsystems.VisionSubsystem;
-import org.firstinspires.ftc.teamcode.subsystems.VisionSubsystem.DetectedMotif;
-import org.firstinspires.ftc.teamcode.geometry.Pose2d;
-import org.firstinspires.ftc.teamcode.trajectory.Trajectory;
-import org.firstinspires.ftc.teamcode.trajectory.TrajectoryBuilder;
-import org.firstinspires.ftc.teamcode.subsystems.VisionSubsystem.BackdropTarget;
+import org.firstinspires.ftc.teamcode.trajectory.TrajectoryCache;
+import org.firstinspires.ftc.teamcode.util.FtcProfilerOutput;
+import org.firstinspires.ftc.teamcode.util.FtcTelemetrySink;
+import org.firstinspires.ftc.teamcode.util.OpModeControl;
+import org.firstinspires.ftc.teamcode.vision.DetectedMotif;
 
 /**
  * Left-side auto that drives off the line, scores the preload, and parks based on the detected motif.
  * Uses the lightweight trajectory follower instead of manual encoder while-loops.
+ * The steps after start live in LeftAutoRoutine so the simulator runs the same code.
  */
 @Autonomous(name = "Decode Auto Left", group = "Main")
-public class DecodeAuto_Left extends LinearOpMode {
+public class DecodeAuto_Left extends LinearOpMode implements OpModeControl {
 
-    private DriveSubsystem drive;
-    private IntakeSubsystem intake;
-    private SlideSubsystem slides;
-    private GateSubsystem gate;
+    private AutoRobot robot;
     private VisionSubsystem vision;
 
     @Override
     public void runOpMode() throws InterruptedException {
-        drive = new DriveSubsystem(hardwareMap);
-        intake = new IntakeSubsystem(hardwareMap);
-        slides = new SlideSubsystem(hardwareMap);
-        gate = new GateSubsystem(hardwareMap);
+        FtcRobotHardware robotHardware = new FtcRobotHardware(hardwareMap);
         vision = new VisionSubsystem(hardwareMap, telemetry);
+        robot = new AutoRobot(robotHardware, vision);
+        BatteryMonitor battery = new BatteryMonitor(robotHardware);
+        robot.setBatteryMonitor(battery);
 
-        gate.close();
+        robot.gate.close();
         vision.start();
+        battery.start();
+
+        // build every path now so nothing gets solved or allocated once the clock is running
+        long buildStart = System.nanoTime();
+        TrajectoryCache trajectories = new TrajectoryCache();
+        LeftAutoRoutine.buildTrajectories(trajectories);
+        String pathsCached = String.format("%d in %.0f ms", trajectories.size(), (System.nanoTime() - buildStart) / 1e6);
 
         // update telemetry during init so drivers see the live motif
         DetectedMotif detectedMotif = DetectedMotif.MOTIF_A;
@@ -45,84 +49,23 @@ public class DecodeAuto_Left extends LinearOpMode {
             detectedMotif = vision.getCurrentMotif();
             vision.applyCameraControls();
             telemetry.addData("Detected Motif", detectedMotif);
+            telemetry.addData("Paths cached", pathsCached);
             telemetry.addData("Vision camera", vision.getCameraStatus());
             telemetry.update();
         }
 
         waitForStart();
         if (isStopRequested()) {
+            battery.stop();
             vision.stop();
             return;
         }
 
-        Pose2d startPose = new Pose2d(0, 0, 0);
-        drive.setPoseEstimate(startPose);
-        drive.resetHeading();
-        detectedMotif = vision.getCurrentMotif();
-        vision.useAprilTags();
-
-        // 1-3. leave the Launch Line, slide left, and settle onto the backdrop lane
-        slides.goToPreset(SlidePreset.HIGH);
-        Trajectory preloadPath = new TrajectoryBuilder(startPose)
-                .lineTo(new Pose2d(0, 20, 0), 0.55)
-                .lineTo(new Pose2d(-8, 20, 0), 0.55)
-                .lineTo(new Pose2d(-8, 28, 0), 0.4)
-                .build();
-        drive.followTrajectory(preloadPath, this);
-        while (opModeIsActive() && !slides.isAtTarget()) {
-            drive.strafeWithHeading(-8, 0.5, 0, this);
-            while (opModeIsActive() && !slides.isAtTarget() && !slides.isFaulted()) {
-                telemetry.addData("Step", "Raising slides");
-                slides.addTelemetry(telemetry);
-                telemetry.update();
-                idle();
-            }
-            if (slides.isFaulted()) {
-                telemetry.addData("Slide fault", slides.getFaultReason());
-                telemetry.update();
-                return;
-            }
-        }
-
-        // 3. bump forward to scoring position and dump
-        drive.driveStraightWithHeading(8, 0.35, 0, this);
-
-        // Correct lateral offset using the backdrop tag if visible
-        BackdropTarget target = vision.getBackdropTarget(detectedMotif);
-        if (target != null) {
-            double strafe = Math.max(-10, Math.min(10, target.getLateralInches()));
-            drive.strafeWithHeading(strafe, 0.35, 0, this);
-        }
-        gate.open();
-        sleep(600);
-        gate.close();
-
-        // 4. drop slides and back away
-        slides.goToPreset(SlidePreset.INTAKE);
-        Trajectory retreat = new TrajectoryBuilder(drive.getPoseEstimate())
-                .lineTo(new Pose2d(drive.getPoseEstimate().x, drive.getPoseEstimate().y - 8, 0), 0.5)
-                .build();
-        drive.followTrajectory(retreat, this);
-
-        // 5. park based on motif
-        if (detectedMotif == DetectedMotif.MOTIF_A) {
-            Trajectory parkLeft = new TrajectoryBuilder(drive.getPoseEstimate())
-                    .strafeTo(-16, drive.getPoseEstimate().y, 0.55)
-                    .build();
-            drive.followTrajectory(parkLeft, this);
-        } else if (detectedMotif == DetectedMotif.MOTIF_C) {
-            Trajectory parkRight = new TrajectoryBuilder(drive.getPoseEstimate())
-                    .strafeTo(16, drive.getPoseEstimate().y, 0.55)
-                    .build();
-            drive.followTrajectory(parkRight, this);
-        } // motif B stays put
-
-        // confirm parking column/tag alignment
-        target = vision.getBackdropTarget(detectedMotif);
-        telemetry.addData("Parking tag", target != null ? target.tagId : "none");
-        telemetry.update();
+        new LeftAutoRoutine(robot, trajectories, this, new FtcTelemetrySink(telemetry)).run();
 
-        drive.stop();
+        robot.drive.stop();
         vision.stop();
+        battery.stop();
+        FtcProfilerOutput.logSummary("DecodeAuto_Left", robot.drive.getPathProfiler());
     }
 }
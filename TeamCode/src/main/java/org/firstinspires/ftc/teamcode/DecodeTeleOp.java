@@ -2,288 +2,297 @@ package org.firstinspires.ftc.teamcode;
 
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
-import com.qualcomm.robotcore.util.ElapsedTime;
-import com.qualcomm.robotcore.hardware.VoltageSensor;
 
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.hardware.BatteryMonitor;
+import org.firstinspires.ftc.teamcode.hardware.FtcRobotHardware;
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.hardware.RobotHardware;
+import org.firstinspires.ftc.teamcode.record.LoopFrame;
+import org.firstinspires.ftc.teamcode.record.LoopRecorder;
+import org.firstinspires.ftc.teamcode.record.RecordingRobotHardware;
+import org.firstinspires.ftc.teamcode.subsystems.DriveControlThread;
 import org.firstinspires.ftc.teamcode.subsystems.DriveSubsystem;
 import org.firstinspires.ftc.teamcode.subsystems.GateSubsystem;
 import org.firstinspires.ftc.teamcode.subsystems.IntakeSubsystem;
 import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem;
-import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem.SlidePreset;
 import org.firstinspires.ftc.teamcode.subsystems.VisionSubsystem;
-import org.firstinspires.ftc.teamcode.subsystems.VisionSubsystem.DetectedMotif;
+import org.firstinspires.ftc.teamcode.util.FtcGamepadReader;
+import org.firstinspires.ftc.teamcode.util.FtcProfilerOutput;
+import org.firstinspires.ftc.teamcode.util.FtcTelemetrySink;
+import org.firstinspires.ftc.teamcode.util.GamepadState;
+import org.firstinspires.ftc.teamcode.util.LoopProfiler;
+import org.firstinspires.ftc.teamcode.util.OpModeControl;
+import org.firstinspires.ftc.teamcode.util.TelemetryPublisher;
+import org.firstinspires.ftc.teamcode.util.TelemetrySink;
+import org.firstinspires.ftc.teamcode.vision.BackdropTarget;
+import org.firstinspires.ftc.teamcode.vision.DetectedMotif;
+
+import java.io.File;
+import java.io.IOException;
 
 /**
  * Driver-controlled program that wires gamepad inputs into the drive, intake, slides, and gate.
  * Uses the subsystem classes so hardware setup stays in one place and the OpMode stays readable.
  * Field-centric drive math keeps controls intuitive while comments explain the flow for new teammates.
+ * Gamepad 2 is handled by OperatorControls, and each loop gets recorded for replays (RECORD_TELEOP).
  */
 @TeleOp(name = "Decode TeleOp", group = "Main")
-public class DecodeTeleOp extends LinearOpMode {
+public class DecodeTeleOp extends LinearOpMode implements OpModeControl {
+    private HardwareSnapshot hardware;
+    private BatteryMonitor battery;
     private DriveSubsystem drive;
+    private DriveControlThread driveThread; // only in drive thread mode; then the OpMode never touches drive
     private IntakeSubsystem intake;
     private SlideSubsystem slides;
     private GateSubsystem gate;
     private VisionSubsystem vision;
 
-    private enum MacroType {NONE, RAPID_CYCLE, HANG, PARK}
-    private enum MacroStage {IDLE, COLLECTING, LIFTING, SCORING, RETURNING, HANG_EXTENDING, HANG_HOLDING, PARKING}
-    private MacroType activeMacro = MacroType.NONE;
-    private MacroStage macroStage = MacroStage.IDLE;
-    private final ElapsedTime macroTimer = new ElapsedTime();
+    private OperatorControls operator;
+    private LoopRecorder recorder; // null when not recording
+
+    // one read of each gamepad per loop
+    private final GamepadState driverPad = new GamepadState();
+    private final GamepadState operatorPad = new GamepadState();
+    private final MutablePose2d pose = new MutablePose2d();
 
     private boolean headingHoldToggleLatch = false;
 
+    private final LoopProfiler profiler = new LoopProfiler();
+    private final int hardwareSection = profiler.addSection("hardware");
+    private final int inputSection = profiler.addSection("input");
+    private final int driveSection = profiler.addSection("drive");
+    private final int slidesSection = profiler.addSection("slides");
+    private final int macrosSection = profiler.addSection("macros");
+    private final int visionSection = profiler.addSection("vision");
+    private final int telemetrySection = profiler.addSection("telemetry");
+
+    // the loop fills these in every iteration; they only get formatted and sent every TELEMETRY_PERIOD_MS
+    private final TelemetryPublisher telemetryPublisher = new TelemetryPublisher(RobotConstants.TELEMETRY_PERIOD_MS);
+    private final int headingSlot = telemetryPublisher.addSlot("Heading (deg)", "%.1f");
+    private final int headingHoldSlot = telemetryPublisher.addSlot("Heading hold", "%s");
+    private final int batterySlot = telemetryPublisher.addSlot("Battery (V)", "%.2f");
+    private final int macroSlot = telemetryPublisher.addSlot("Macro", "%s / %s");
+    private final int slideAtTargetSlot = telemetryPublisher.addSlot("Slide at target?", "%s");
+    private final int drivePowersSlot = telemetryPublisher.addSlot("Drive powers", "FL %.2f FR %.2f BL %.2f BR %.2f");
+    private final int driveThreadSlot = telemetryPublisher.addSlot("Drive thread",
+            "%.0f Hz, %.1f ms/cycle, %.0f overruns in %.0f");
+    private final int driveThreadIoSlot = telemetryPublisher.addSlot("Drive thread I/O (ms)", "%.1f");
+    private final int intakePowerSlot = telemetryPublisher.addSlot("Intake power", "%.2f");
+    private final int gatePositionSlot = telemetryPublisher.addSlot("Gate position", "%.2f");
+    private final int skippedWritesSlot = telemetryPublisher.addSlot("Skipped writes", "%.0f");
+    private final int motifSlot = telemetryPublisher.addSlot("Vision motif", "%s");
+    private final int cameraSlot = telemetryPublisher.addSlot("Vision camera", "%s");
+    private final int cameraControlSlot = telemetryPublisher.addSlot("Camera ctrl (ms)", "%.1f");
+    private final int cameraErrorSlot = telemetryPublisher.addSlot("Camera ctrl error", "%s");
+    private final int recordingSlot = telemetryPublisher.addSlot("Recording", "%.0f frames, %.0f dropped");
+
+    /** true runs the drive on its own fixed-rate thread (DecodeTeleOp_DriveThread) */
+    protected boolean useDriveThread() {
+        return false;
+    }
+
     @Override
     public void runOpMode() throws InterruptedException {
         // Build each subsystem so we reuse the same hardware mapping everywhere
-        drive = new DriveSubsystem(hardwareMap);
-        intake = new IntakeSubsystem(hardwareMap);
-        slides = new SlideSubsystem(hardwareMap);
-        gate = new GateSubsystem(hardwareMap);
+        FtcRobotHardware ftcHardware = new FtcRobotHardware(hardwareMap);
+        TelemetrySink telemetrySink = new FtcTelemetrySink(telemetry);
+        // record every loop for replaying off the robot later; the drive thread would split loops in two
+        RobotHardware robotHardware = ftcHardware;
+        if (RobotConstants.RECORD_TELEOP && !useDriveThread()) {
+            recorder = new LoopRecorder(RobotConstants.RECORDER_CAPACITY_FRAMES, RobotConstants.RECORDER_FLUSH_MS);
+            File file = new File(RobotConstants.RECORDING_DIR, "teleop-" + System.currentTimeMillis() + ".bin");
+            try {
+                recorder.start(file);
+                robotHardware = new RecordingRobotHardware(ftcHardware, recorder);
+            } catch (IOException e) {
+                telemetry.addData("Recording off", e.getMessage());
+                recorder = null;
+            }
+        }
+        hardware = new HardwareSnapshot(robotHardware);
+        // the drive thread refreshes its own snapshot so the two loops never share one; once it's running it's
+        // also the only one doing bulk reads, and this loop's snapshot gets the slide numbers from it
+        HardwareSnapshot driveHardware = useDriveThread() ? new HardwareSnapshot(robotHardware) : hardware;
+        drive = new DriveSubsystem(robotHardware, driveHardware);
+        intake = new IntakeSubsystem(robotHardware);
+        slides = new SlideSubsystem(robotHardware, hardware);
+        gate = new GateSubsystem(robotHardware);
         vision = new VisionSubsystem(hardwareMap, telemetry);
+        battery = new BatteryMonitor(ftcHardware); // samples on its own thread, so it skips the recorder
+        drive.setBatteryMonitor(battery);
+        intake.setBatteryMonitor(battery);
+        slides.setBatteryMonitor(battery);
+        telemetryPublisher.addSource(slides);
+        telemetryPublisher.addSource(profiler);
+        if (!useDriveThread()) {
+            telemetryPublisher.addSource(hardware.getReadScheduler()); // the drive thread reports its own I/O
+        }
+        operator = new OperatorControls(intake, slides, gate);
 
         gate.close();
         vision.start();
+        battery.start();
         telemetry.addLine("TeleOp ready — press play when the field says go");
         telemetry.update();
 
         waitForStart();
         if (isStopRequested()) {
+            if (recorder != null) {
+                recorder.stop();
+            }
+            battery.stop();
             vision.stop();
             return;
         }
 
         // zero heading before moving so field-centric drive lines up with the real field
+        driveHardware.refresh();
         drive.resetHeading();
         drive.enableHeadingHold(false);
+        if (useDriveThread()) {
+            driveThread = new DriveControlThread(drive, driveHardware, this);
+            driveThread.start();
+        }
 
         while (opModeIsActive()) {
-            // Drive control: left stick moves the robot around the field, right stick rotates it like a car joystick
-            double y = -gamepad1.left_stick_y; // forward on the stick is negative in FTC, so flip it
-            double x = gamepad1.left_stick_x;
-            double rotation = gamepad1.right_stick_x;
-            boolean slowMode = gamepad1.right_bumper; // hold for gentle mode when lining up
-            if (gamepad1.left_bumper) {
-                drive.resetHeading(); // quick re-zero if field-centric starts to feel off
-            }
-            boolean headingHoldButton = gamepad1.x;
-            if (headingHoldButton && !headingHoldToggleLatch) {
-                drive.enableHeadingHold(!drive.isHeadingHoldEnabled());
-            }
-            headingHoldToggleLatch = headingHoldButton;
+            profiler.beginLoop();
 
-            drive.drive(x, y, rotation, slowMode);
-
-            // Slide control + macros
-            double slideInput = -gamepad2.left_stick_y; // push up to extend, pull down to retract
-            boolean rapidCycleRequested = gamepad2.y;
-            boolean hangRequested = gamepad2.dpad_up;
-            boolean parkRequested = gamepad2.dpad_down;
-            boolean cancelRequested = gamepad2.left_bumper || Math.abs(slideInput) > 0.1 || gamepad2.a || gamepad2.b;
-
-            if (slides.isFaulted() && activeMacro != MacroType.NONE) {
-                cancelMacro();
-            }
-
-            if (cancelRequested && activeMacro != MacroType.NONE) {
-                cancelMacro();
+            // one bulk read per loop; everything below reads from this snapshot
+            profiler.start(hardwareSection);
+            if (driveThread != null) {
+                driveThread.copySlideReadings(hardware); // the drive thread did this loop's bulk read
+            } else {
+                hardware.refresh();
             }
+            profiler.stop(hardwareSection);
 
-            if (activeMacro == MacroType.NONE) {
-                // Intake control: right trigger sucks game pieces in, left trigger spits them back out
-                if (gamepad2.right_trigger > 0.1) {
-                    intake.intakeIn();
-                } else if (gamepad2.left_trigger > 0.1) {
-                    intake.intakeOut();
-                } else {
-                    intake.stop();
-                }
+            // Drive control: left stick moves the robot around the field, right stick rotates it like a car joystick
+            profiler.start(inputSection);
+            FtcGamepadReader.read(gamepad1, driverPad);
+            FtcGamepadReader.read(gamepad2, operatorPad);
+            double y = -driverPad.leftStickY; // forward on the stick is negative in FTC, so flip it
+            double x = driverPad.leftStickX;
+            double rotation = driverPad.rightStickX;
+            boolean slowMode = driverPad.rightBumper; // hold for gentle mode when lining up
+            boolean resetHeading = driverPad.leftBumper; // quick re-zero if field-centric starts to feel off
+            boolean headingHoldButton = driverPad.x;
+            boolean toggleHeadingHold = headingHoldButton && !headingHoldToggleLatch;
+            headingHoldToggleLatch = headingHoldButton;
+            profiler.stop(inputSection);
 
-                // Gate control: A opens the bucket gate, B closes it
-                if (gamepad2.a) {
-                    gate.open();
-                } else if (gamepad2.b) {
-                    gate.close();
+            profiler.start(driveSection);
+            if (driveThread != null) {
+                // just hand over the goals, the drive thread does the rest at its own rate
+                if (resetHeading) {
+                    driveThread.resetHeading();
                 }
-
-                if (rapidCycleRequested) {
-                    startRapidCycle();
-                } else if (hangRequested) {
-                    startHangMacro();
-                } else if (parkRequested) {
-                    startParkMacro();
-                } else {
-                    slides.manualControl(slideInput);
+                if (toggleHeadingHold) {
+                    driveThread.enableHeadingHold(!driveThread.isHeadingHoldEnabled());
                 }
+                driveThread.drive(x, y, rotation, slowMode);
             } else {
-                runMacro();
+                if (resetHeading) {
+                    drive.resetHeading();
+                }
+                if (toggleHeadingHold) {
+                    drive.enableHeadingHold(!drive.isHeadingHoldEnabled());
+                }
+                drive.drive(x, y, rotation, slowMode);
             }
+            profiler.stop(driveSection);
+
+            // Slide control + macros
+            profiler.start(slidesSection);
+            operator.handleInputs(operatorPad);
+            profiler.stop(slidesSection);
+            profiler.start(macrosSection);
+            operator.runMacros(hardware.getTimestampNanos());
+            profiler.stop(macrosSection);
 
             // Vision heartbeat: report live motif
+            profiler.start(visionSection);
             DetectedMotif detectedMotif = vision.getCurrentMotif();
             vision.applyCameraControls();
+            profiler.stop(visionSection);
+
+            if (recorder != null) {
+                recordLoopInputs(detectedMotif);
+            }
 
-            telemetry.addData("Heading (deg)", "%.1f", drive.getHeadingDegrees());
-            telemetry.addData("Heading hold", drive.isHeadingHoldEnabled());
-            telemetry.addData("Battery (V)", "%.2f", getBatteryVoltage());
-            telemetry.addData("Macro", activeMacro + " / " + macroStage);
-            telemetry.addData("Slide at target?", slides.isAtTarget());
-            telemetry.addData("Drive powers", "FL %.2f FR %.2f BL %.2f BR %.2f",
-                    drive.getFrontLeftPower(), drive.getFrontRightPower(),
-                    drive.getBackLeftPower(), drive.getBackRightPower());
-            slides.addTelemetry(telemetry);
-            telemetry.addData("Intake power", "%.2f", intake.getPower());
-            telemetry.addData("Gate position", "%.2f", gate.getPosition());
-            telemetry.addData("Vision motif", detectedMotif);
-            telemetry.addData("Vision camera", vision.getCameraStatus());
-            telemetry.update();
+            profiler.start(telemetrySection);
+            if (driveThread != null) {
+                DriveControlThread.State driveState = driveThread.getState();
+                telemetryPublisher.set(headingSlot, driveState.headingDegrees);
+                telemetryPublisher.set(headingHoldSlot, driveState.headingHoldEnabled);
+                telemetryPublisher.set(drivePowersSlot, driveState.frontLeftPower, driveState.frontRightPower,
+                        driveState.backLeftPower, driveState.backRightPower);
+                telemetryPublisher.set(driveThreadSlot, 1000.0 / Math.max(driveState.periodMs, 1e-3),
+                        driveState.cycleMs, driveState.overrunCount, driveState.cycleCount);
+                telemetryPublisher.set(driveThreadIoSlot, driveState.sensorIoMs);
+                telemetryPublisher.set(skippedWritesSlot, driveState.skippedWrites + slides.getSkippedWriteCount()
+                        + intake.getSkippedWriteCount() + gate.getSkippedWriteCount());
+            } else {
+                telemetryPublisher.set(headingSlot, drive.getHeadingDegrees());
+                telemetryPublisher.set(headingHoldSlot, drive.isHeadingHoldEnabled());
+                telemetryPublisher.set(drivePowersSlot, drive.getFrontLeftPower(), drive.getFrontRightPower(),
+                        drive.getBackLeftPower(), drive.getBackRightPower());
+                telemetryPublisher.set(skippedWritesSlot, drive.getSkippedWriteCount() + slides.getSkippedWriteCount()
+                        + intake.getSkippedWriteCount() + gate.getSkippedWriteCount());
+            }
+            telemetryPublisher.set(batterySlot, battery.getVoltage());
+            telemetryPublisher.setText(macroSlot, operator.getMacroName(), operator.getMacroStep());
+            telemetryPublisher.set(slideAtTargetSlot, slides.isAtTarget());
+            telemetryPublisher.set(intakePowerSlot, intake.getPower());
+            telemetryPublisher.set(gatePositionSlot, gate.getPosition());
+            telemetryPublisher.setText(motifSlot, detectedMotif);
+            telemetryPublisher.setText(cameraSlot, vision.getCameraStatus());
+            telemetryPublisher.set(cameraControlSlot, vision.getCameraControlWriteMs());
+            telemetryPublisher.setText(cameraErrorSlot, vision.getCameraControlError()); // null hides the line
+            if (recorder != null) {
+                telemetryPublisher.set(recordingSlot, recorder.getFrameCount(), recorder.getDroppedFrames());
+            }
+            if (telemetryPublisher.publish(hardware.getTimestampNanos(), telemetrySink)) {
+                FtcProfilerOutput.sendToDashboard(profiler); // dashboard packets at the same capped rate
+            }
+            profiler.stop(telemetrySection);
         }
 
+        // the last frame is the last loop, not the shutdown writes below
+        if (recorder != null) {
+            recorder.stop();
+        }
         // make sure everything is stopped once the driver hits stop
+        if (driveThread != null) {
+            driveThread.stop(); // hands the drive back before we stop it ourselves
+        }
         drive.stop();
         intake.stop();
         slides.stop();
         gate.close();
         vision.stop();
+        battery.stop();
+        FtcProfilerOutput.logSummary("DecodeTeleOp", profiler);
     }
 
-    private void startRapidCycle() {
-        activeMacro = MacroType.RAPID_CYCLE;
-        macroStage = MacroStage.COLLECTING;
-        macroTimer.reset();
-        gate.close();
-        intake.intakeIn();
-        slides.goToPreset(SlidePreset.INTAKE);
-    }
-
-    private void startHangMacro() {
-        activeMacro = MacroType.HANG;
-        macroStage = MacroStage.HANG_EXTENDING;
-        macroTimer.reset();
-        intake.stop();
-        gate.close();
-        slides.goToPreset(SlidePreset.MAX);
-    }
-
-    private void startParkMacro() {
-        activeMacro = MacroType.PARK;
-        macroStage = MacroStage.PARKING;
-        macroTimer.reset();
-        intake.stop();
-        gate.close();
-        slides.goToPreset(SlidePreset.INTAKE);
-    }
-
-    private void cancelMacro() {
-        activeMacro = MacroType.NONE;
-        macroStage = MacroStage.IDLE;
-        intake.stop();
-        gate.close();
-    }
-
-    private void runMacro() {
-        if (slides.isFaulted()) {
-            activeMacro = MacroType.NONE;
-            macroStage = MacroStage.IDLE;
-            return;
-        }
-        switch (activeMacro) {
-            case RAPID_CYCLE:
-                runRapidCycle();
-                break;
-            case HANG:
-                runHangMacro();
-                break;
-            case PARK:
-                runParkMacro();
-                break;
-            case NONE:
-            default:
-                break;
-        }
-    }
-
-    private void runRapidCycle() {
-        switch (macroStage) {
-            case COLLECTING:
-                // keep pulling in until we give the slides a moment to settle at intake
-                if (macroTimer.milliseconds() > 400) {
-                    intake.stop();
-                    slides.goToPreset(SlidePreset.HIGH);
-                    macroStage = MacroStage.LIFTING;
-                }
-                break;
-            case LIFTING:
-                if (slides.isAtTarget()) {
-                    gate.open();
-                    macroTimer.reset();
-                    macroStage = MacroStage.SCORING;
-                }
-                break;
-            case SCORING:
-                if (macroTimer.milliseconds() > 600) {
-                    gate.close();
-                    slides.goToPreset(SlidePreset.INTAKE);
-                    macroTimer.reset();
-                    macroStage = MacroStage.RETURNING;
-                }
-                break;
-            case RETURNING:
-                if (slides.isAtTarget()) {
-                    intake.stop();
-                    activeMacro = MacroType.NONE;
-                    macroStage = MacroStage.IDLE;
-                }
-                break;
-            case IDLE:
-            default:
-                activeMacro = MacroType.NONE;
-                macroStage = MacroStage.IDLE;
-                break;
-        }
-    }
-
-    private void runHangMacro() {
-        switch (macroStage) {
-            case HANG_EXTENDING:
-                if (slides.isAtTarget()) {
-                    macroStage = MacroStage.HANG_HOLDING;
-                }
-                break;
-            case HANG_HOLDING:
-                // Stay extended while drivers maneuver; allow cancel to bail out
-                break;
-            default:
-                activeMacro = MacroType.NONE;
-                macroStage = MacroStage.IDLE;
-                break;
-        }
-    }
-
-    private void runParkMacro() {
-        switch (macroStage) {
-            case PARKING:
-                if (slides.isAtTarget()) {
-                    activeMacro = MacroType.NONE;
-                    macroStage = MacroStage.IDLE;
-                }
-                break;
-            default:
-                activeMacro = MacroType.NONE;
-                macroStage = MacroStage.IDLE;
-                break;
-        }
-    }
-
-    private double getBatteryVoltage() {
-        double minVoltage = Double.POSITIVE_INFINITY;
-        for (VoltageSensor sensor : hardwareMap.voltageSensor) {
-            double voltage = sensor.getVoltage();
-            if (voltage > 0) {
-                minVoltage = Math.min(minVoltage, voltage);
-            }
+    /** the parts of this loop the recording hardware can't see on its own */
+    private void recordLoopInputs(DetectedMotif detectedMotif) {
+        LoopFrame frame = recorder.getFrame();
+        frame.gamepad1.copyFrom(driverPad);
+        frame.gamepad2.copyFrom(operatorPad);
+        frame.batteryVoltage = battery.getVoltage();
+        frame.motif = detectedMotif != null ? detectedMotif.ordinal() : -1;
+        BackdropTarget tag = vision.getLatestBackdropTag();
+        frame.tagFrameSequence = tag != null ? tag.frameSequence : -1;
+        if (tag != null) {
+            frame.tagId = tag.tagId;
+            frame.tagCaptureNanos = tag.captureTimeNanos;
+            frame.tagRangeMeters = tag.rangeMeters;
+            frame.tagLateralMeters = tag.lateralMeters;
         }
-        return minVoltage == Double.POSITIVE_INFINITY ? 0.0 : minVoltage;
+        drive.getPoseEstimate(pose);
+        frame.poseX = pose.x;
+        frame.poseY = pose.y;
+        frame.poseHeading = pose.heading;
     }
 }
@@ -0,0 +1,15 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+/**
+ * Same TeleOp, but the drive (odometry, heading hold) runs on its own fixed-rate thread so slow telemetry
+ * or vision in the main loop can't drag the drive update rate down with it.
+ */
+@TeleOp(name = "Decode TeleOp (Drive Thread)", group = "Main")
+public class DecodeTeleOp_DriveThread extends DecodeTeleOp {
+    @Override
+    protected boolean useDriveThread() {
+        return true;
+    }
+}
@@ -0,0 +1,138 @@
+package org.firstinspires.ftc.teamcode;
+
+import org.firstinspires.ftc.teamcode.command.CommandScheduler;
+import org.firstinspires.ftc.teamcode.command.InstantCommand;
+import org.firstinspires.ftc.teamcode.command.RobotCommands;
+import org.firstinspires.ftc.teamcode.command.SequentialGroup;
+import org.firstinspires.ftc.teamcode.command.WaitCommand;
+import org.firstinspires.ftc.teamcode.command.WaitUntilCommand;
+import org.firstinspires.ftc.teamcode.subsystems.GateSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.IntakeSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem.SlidePreset;
+import org.firstinspires.ftc.teamcode.util.GamepadState;
+
+/**
+ * Gamepad 2: intake, gate, slides, and the rapid cycle / hang / park macros.
+ * Lives outside DecodeTeleOp with no SDK types so a recorded match can be replayed through the exact same
+ * logic off the robot. Macros are commands built once here; the scheduler runs at most one at a time.
+ */
+public class OperatorControls {
+    private final IntakeSubsystem intake;
+    private final SlideSubsystem slides;
+    private final GateSubsystem gate;
+
+    private final CommandScheduler macros = new CommandScheduler();
+    private final SequentialGroup rapidCycleMacro;
+    private final SequentialGroup hangMacro;
+    private final SequentialGroup parkMacro;
+    private SequentialGroup activeMacro; // last one started, for telemetry
+
+    public OperatorControls(IntakeSubsystem intake, SlideSubsystem slides, GateSubsystem gate) {
+        this.intake = intake;
+        this.slides = slides;
+        this.gate = gate;
+
+        rapidCycleMacro = new SequentialGroup(
+                new InstantCommand(() -> {
+                    gate.close();
+                    intake.intakeIn();
+                    slides.goToPreset(SlidePreset.INTAKE);
+                }, gate, intake, slides),
+                // keep pulling in until we give the slides a moment to settle at intake
+                new WaitCommand(400).withName("collecting"),
+                new InstantCommand(intake::stop, intake),
+                RobotCommands.slidesTo(slides, SlidePreset.HIGH),
+                RobotCommands.dump(gate, 600),
+                RobotCommands.slidesTo(slides, SlidePreset.INTAKE),
+                new InstantCommand(intake::stop, intake));
+        rapidCycleMacro.withName("rapid cycle");
+
+        hangMacro = new SequentialGroup(
+                new InstantCommand(() -> {
+                    intake.stop();
+                    gate.close();
+                }, intake, gate),
+                RobotCommands.slidesTo(slides, SlidePreset.MAX),
+                // stay extended while drivers maneuver; cancel bails out
+                new WaitUntilCommand(() -> false).withName("holding"));
+        hangMacro.withName("hang");
+
+        parkMacro = new SequentialGroup(
+                new InstantCommand(() -> {
+                    intake.stop();
+                    gate.close();
+                }, intake, gate),
+                RobotCommands.slidesTo(slides, SlidePreset.INTAKE));
+        parkMacro.withName("park");
+    }
+
+    /** cancels or starts macros off the buttons, and runs intake/gate/slides by hand while none is running */
+    public void handleInputs(GamepadState gamepad) {
+        double slideInput = -gamepad.leftStickY; // push up to extend, pull down to retract
+        boolean cancelRequested = gamepad.leftBumper || Math.abs(slideInput) > 0.1 || gamepad.a || gamepad.b;
+        if (isMacroRunning() && (slides.isFaulted() || cancelRequested)) {
+            cancelMacro();
+        }
+        if (isMacroRunning()) {
+            return;
+        }
+
+        // Intake control: right trigger sucks game pieces in, left trigger spits them back out
+        if (gamepad.rightTrigger > 0.1) {
+            intake.intakeIn();
+        } else if (gamepad.leftTrigger > 0.1) {
+            intake.intakeOut();
+        } else {
+            intake.stop();
+        }
+
+        // Gate control: A opens the bucket gate, B closes it
+        if (gamepad.a) {
+            gate.open();
+        } else if (gamepad.b) {
+            gate.close();
+        }
+
+        if (gamepad.y) {
+            startMacro(rapidCycleMacro);
+        } else if (gamepad.dpadUp) {
+            startMacro(hangMacro);
+        } else if (gamepad.dpadDown) {
+            startMacro(parkMacro);
+        } else {
+            slides.manualControl(slideInput);
+        }
+    }
+
+    /** once per loop after handleInputs(), with the snapshot's timestamp; also runs the slides' preset moves */
+    public void runMacros(long nowNanos) {
+        macros.tick(nowNanos);
+        slides.update();
+    }
+
+    public boolean isMacroRunning() {
+        return macros.getScheduledCount() > 0;
+    }
+
+    /** running macro's name, or "none" */
+    public String getMacroName() {
+        return isMacroRunning() ? activeMacro.getName() : "none";
+    }
+
+    /** step the running macro is on, or "idle" */
+    public String getMacroStep() {
+        return isMacroRunning() ? activeMacro.getCurrentCommand().getName() : "idle";
+    }
+
+    private void startMacro(SequentialGroup macro) {
+        activeMacro = macro;
+        macros.schedule(macro);
+    }
+
+    private void cancelMacro() {
+        macros.cancelAll();
+        intake.stop();
+        gate.close();
+    }
+}
@@ -35,6 +35,29 @@ public class RobotConstants {
     public static final double TRAJECTORY_KP_HEADING = 1.4;
     public static final double TRAJECTORY_POSITION_TOLERANCE_IN = 0.75;
     public static final double TRAJECTORY_HEADING_TOLERANCE_RAD = Math.toRadians(2.0);
+    // motion-profiled segments: limits in inches + seconds, feedforward is motor power per unit
+    public static final double PROFILE_MAX_VEL_IN_PER_S = 45.0;    // leave some headroom under top speed for feedback
+    public static final double PROFILE_MAX_ACCEL_IN_PER_S2 = 70.0;
+    public static final double PROFILE_MAX_JERK_IN_PER_S3 = 400.0; // 0 = plain trapezoid
+    public static final double DRIVE_KV = 1.0 / 52.0;  // power per in/s, ~1 / full-power speed on carpet ☆
+    public static final double DRIVE_KA = 0.003;       // power per in/s², how hard to push while speeding up
+    public static final double DRIVE_KSTATIC = 0.04;   // power it takes to just get moving
+    public static final double PROFILE_KP_TRANSLATION = 5.0; // in/s of correction per inch behind the reference
+    public static final double PROFILE_KP_HEADING = 4.0;     // rad/s of correction per radian off
+    public static final int POSE_HISTORY_SIZE = 128; // odometry samples kept for camera latency lookups, >1 s at 100 Hz
+    // EKF localizer: odometry + IMU predict, backdrop tags correct. noise numbers are 1-sigma
+    public static final double EKF_ODOMETRY_NOISE_PER_IN = 0.2;  // wheel slip after 1 in of driving, grows with sqrt(distance)
+    public static final double EKF_HEADING_NOISE_RAD = 0.0005;   // per loop, the IMU barely drifts
+    public static final double EKF_START_POSITION_STD_IN = 1.0;  // how well the robot gets placed on its start pose
+    public static final double EKF_START_HEADING_STD_RAD = Math.toRadians(2.0);
+    public static final double EKF_TAG_NOISE_IN = 0.75;          // tag position noise up close...
+    public static final double EKF_TAG_NOISE_PER_IN = 0.03;      // ...plus this much per inch of range
+    public static final double EKF_TAG_GATE = 9.21;              // chi-squared 99% for 2 dof; worse detections get thrown out
+    public static final double CAMERA_FORWARD_OFFSET_IN = 7.0;   // camera lens ahead of the robot center, measure yours
+    public static final double CAMERA_STRAFE_OFFSET_IN = 0.0;    // camera lens right of the robot center
+    public static final double BACKDROP_TAG_SPACING_IN = 6.0;    // between neighbouring backdrop tags
+    public static final double BACKDROP_TAG_AHEAD_IN = 10.0;     // how far past the robot center the tags are at the scoring stop
+    public static final long DRIVE_THREAD_PERIOD_MS = 5; // drive control thread target period, 200 Hz if the hubs keep up
     public static final double HEADING_HOLD_KP = 0.02;        // tune the heading hold assist
     public static final double HEADING_HOLD_DEADBAND = 0.05;  // ignore tiny stick wiggles
     public static final double HEADING_HOLD_MAX_TURN = 0.4;   // cap heading correction power
@@ -58,6 +81,44 @@ public class RobotConstants {
     public static final int SLIDE_SLOW_ZONE_TICKS = 150; // start ramping down power this far from the ends
     public static final double SLIDE_SLOW_ZONE_SCALE = 0.5; // power multiplier inside the slow zone
 
+    // software slide controller for preset moves: trapezoid profile, then PIDF + gravity on each side (ticks, seconds)
+    public static final double SLIDE_MAX_VELOCITY = 2500;   // ticks/s, under the ~2700 the motors actually reach so there's room to correct
+    public static final double SLIDE_MAX_ACCEL = 25000;     // ticks/s²
+    public static final double SLIDE_KG = 0.04;             // power that just holds the stage up
+    public static final double SLIDE_KV = 1.0 / 2800.0;     // power per tick/s, ~1 / free speed
+    public static final double SLIDE_KA = 0.00003;          // power per tick/s², kV × the motor's lag
+    public static final double SLIDE_KP = 0.005;            // power per tick behind the profile
+    public static final double SLIDE_KI = 0.02;             // power per tick·s, only once the profile's done
+    public static final double SLIDE_KD = 0.0002;           // power per tick/s of velocity error
+    public static final double SLIDE_MAX_INTEGRAL_POWER = 0.1;
+    public static final double SLIDE_SYNC_KP = 0.01;        // power per tick the sides are apart, pulls them back together
+
+    // telemetry: slots get filled every loop, but frames only get formatted and sent this often
+    public static final long TELEMETRY_PERIOD_MS = 100;
+
+    // battery monitor + voltage compensation
+    public static final double BATTERY_NOMINAL_VOLTAGE = 12.0; // volts the power numbers above were tuned at
+    public static final long BATTERY_SAMPLE_PERIOD_MS = 100;   // 10 Hz is plenty for a battery
+    public static final double BATTERY_FILTER_ALPHA = 0.2;     // low-pass weight of each new sample
+    public static final double BATTERY_MIN_COMPENSATION = 0.8; // clamp so a bad reading can't go wild
+    public static final double BATTERY_MAX_COMPENSATION = 1.3;
+
+    // actuator write caching
+    public static final double MOTOR_POWER_WRITE_THRESHOLD = 0.005; // skip setPower calls that change less than this
+    public static final double SERVO_POSITION_WRITE_THRESHOLD = 0.001; // same idea for servo positions
+    public static final long ACTUATOR_FORCE_REFRESH_MS = 500; // resend the cached value at least this often
+
+    // sensor reads: encoders come with the bulk read every loop, the separate (slow) reads get scheduled around it
+    public static final double SENSOR_READ_BUDGET_MS = 5.0;    // per-loop read time, bulk read included, before slow reads get put off
+    public static final long IMU_READ_PERIOD_MS = 10;          // the IMU only updates at 100 Hz, reading faster just burns I2C time
+    public static final long SLIDE_CURRENT_READ_PERIOD_MS = 40; // per slide motor; the two take turns
+
+    // loop recorder (TeleOp, single-thread mode): a frame per loop, written to a file in the background
+    public static final boolean RECORD_TELEOP = true;
+    public static final String RECORDING_DIR = "/sdcard/FIRST/recordings";
+    public static final int RECORDER_CAPACITY_FRAMES = 2048; // ~10 s of loops buffered if the file system stalls
+    public static final long RECORDER_FLUSH_MS = 50;
+
     // gate servo positions (0-1). tune for your hardware.
     public static final double GATE_CLOSED = 0.15;
     public static final double GATE_OPEN = 0.65;
@@ -0,0 +1,164 @@
+package org.firstinspires.ftc.teamcode.auto;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.command.Command;
+import org.firstinspires.ftc.teamcode.command.CommandScheduler;
+import org.firstinspires.ftc.teamcode.command.RobotCommands;
+import org.firstinspires.ftc.teamcode.command.SequentialGroup;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.hardware.BatteryMonitor;
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.hardware.RobotHardware;
+import org.firstinspires.ftc.teamcode.subsystems.DriveSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.GateSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.IntakeSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem;
+import org.firstinspires.ftc.teamcode.trajectory.profile.ProfileConstraints;
+import org.firstinspires.ftc.teamcode.util.MathUtil;
+import org.firstinspires.ftc.teamcode.util.OpModeControl;
+import org.firstinspires.ftc.teamcode.util.TelemetryPublisher;
+import org.firstinspires.ftc.teamcode.util.TelemetrySink;
+import org.firstinspires.ftc.teamcode.vision.BackdropTarget;
+import org.firstinspires.ftc.teamcode.vision.DetectedMotif;
+import org.firstinspires.ftc.teamcode.vision.TagLayout;
+import org.firstinspires.ftc.teamcode.vision.VisionSource;
+
+/**
+ * Everything an auto routine drives, built the same way on the robot and in the simulator.
+ * The OpMode (or the headless runner) owns the hardware, vision, and battery monitor lifecycles.
+ */
+public class AutoRobot {
+    /** profile limits every auto path is built with; scale the velocity down for careful legs */
+    public static final ProfileConstraints PATH = new ProfileConstraints(RobotConstants.PROFILE_MAX_VEL_IN_PER_S,
+            RobotConstants.PROFILE_MAX_ACCEL_IN_PER_S2, RobotConstants.PROFILE_MAX_JERK_IN_PER_S3);
+
+    public final HardwareSnapshot hardware;
+    public final DriveSubsystem drive;
+    public final IntakeSubsystem intake;
+    public final SlideSubsystem slides;
+    public final GateSubsystem gate;
+    public final VisionSource vision;
+    private final MutablePose2d motionSinceFrame = new MutablePose2d();
+    private final MutablePose2d tagOffset = new MutablePose2d(); // x lateral, y forward, inches
+    private TagLayout tagLayout; // null = don't fuse tags into the pose
+    private long lastFusedFrame = -1;
+    private final CommandScheduler scheduler = new CommandScheduler();
+
+    // auto loop telemetry, sent at TELEMETRY_PERIOD_MS instead of every iteration
+    private final TelemetryPublisher pathTelemetry = new TelemetryPublisher(RobotConstants.TELEMETRY_PERIOD_MS);
+    private final int stepSlot = pathTelemetry.addSlot("Step", "%s");
+    private final int segmentSlot = pathTelemetry.addSlot("Path segment", "%.0f");
+
+    public AutoRobot(RobotHardware robotHardware, VisionSource vision) {
+        hardware = new HardwareSnapshot(robotHardware);
+        drive = new DriveSubsystem(robotHardware, hardware);
+        intake = new IntakeSubsystem(robotHardware);
+        slides = new SlideSubsystem(robotHardware, hardware);
+        gate = new GateSubsystem(robotHardware);
+        this.vision = vision;
+        pathTelemetry.addSource(slides);
+        pathTelemetry.addSource(hardware.getReadScheduler());
+    }
+
+    /**
+     * Shared auto loop: runs the command (usually the routine's whole SequentialGroup) to the end, ticking
+     * the scheduler and then the slide controller and the drive's async moves each iteration, so paths, slides,
+     * and waits overlap wherever the command says they can. Returns false if the OpMode stopped, or if the slides faulted while
+     * the command still needs them (everything gets cancelled) so the routine can bail.
+     */
+    public boolean runCommand(Command command, OpModeControl opMode, TelemetrySink telemetry) {
+        scheduler.schedule(command);
+        while (opMode.opModeIsActive() && scheduler.isScheduled(command)) {
+            hardware.refresh();
+            fuseBackdropTag();
+            scheduler.tick(hardware.getTimestampNanos());
+            if (slides.isFaulted() && scheduler.isRequired(slides)) {
+                break;
+            }
+            slides.update();
+            drive.updateAsync(opMode);
+            Command step = command instanceof SequentialGroup ? ((SequentialGroup) command).getCurrentCommand() : null;
+            pathTelemetry.setText(stepSlot, (step != null ? step : command).getName());
+            boolean following = drive.isFollowingTrajectory();
+            pathTelemetry.set(segmentSlot, following ? drive.getTrajectorySegmentIndex() + 1 : 0);
+            pathTelemetry.publish(hardware.getTimestampNanos(), telemetry);
+            opMode.idle();
+        }
+        boolean finished = !scheduler.isScheduled(command);
+        scheduler.cancelAll();
+        if (slides.isFaulted() && !finished) {
+            telemetry.addData("Slide fault", slides.getFaultReason());
+            telemetry.update();
+        }
+        return finished;
+    }
+
+    /**
+     * Backdrop tag for this motif, moved from where the robot was when the frame was captured to where it is
+     * now using the drive's pose history: lateral inches in out.x, forward inches in out.y. Falls back to the
+     * raw measurement if the frame is older than the history. False (out untouched) if no tag is in view.
+     */
+    public boolean getBackdropOffsetNow(DetectedMotif motif, MutablePose2d out) {
+        BackdropTarget target = vision.getBackdropTarget(motif);
+        if (target == null) {
+            return false;
+        }
+        offsetNow(target, out);
+        return true;
+    }
+
+    /**
+     * Strafe that lines up on this motif's backdrop column, worked out from the tag when the step starts
+     * (at most 10 in either way, sign flips it for mirrored routines). No tag in view = no strafe.
+     */
+    public Command alignToBackdropTag(DetectedMotif motif, double sign) {
+        return RobotCommands.strafe(drive, () -> getBackdropOffsetNow(motif, tagOffset)
+                ? MathUtil.clip(tagOffset.x * sign, -10, 10) : 0.0, 0.35, 0).withName("align to tag");
+    }
+
+    /** where this routine's backdrop tags are; from then on every new tag frame corrects the drive's pose */
+    public void setTagLayout(TagLayout tagLayout) {
+        this.tagLayout = tagLayout;
+        lastFusedFrame = -1;
+    }
+
+    /**
+     * Feeds the newest backdrop tag frame (each frame once) into the drive's EKF, brought up to now with the
+     * pose history and moved from the camera to the robot center. Does nothing without a layout or a tag.
+     * Returns true if a measurement went in.
+     */
+    public boolean fuseBackdropTag() {
+        if (tagLayout == null) {
+            return false;
+        }
+        BackdropTarget target = vision.getLatestBackdropTag();
+        if (target == null || target.frameSequence == lastFusedFrame || !tagLayout.has(target.tagId)) {
+            return false;
+        }
+        lastFusedFrame = target.frameSequence;
+        offsetNow(target, tagOffset);
+        double lateral = tagOffset.x;
+        double forward = tagOffset.y;
+        double range = Math.hypot(lateral, forward);
+        double noise = RobotConstants.EKF_TAG_NOISE_IN + RobotConstants.EKF_TAG_NOISE_PER_IN * range;
+        return drive.addLandmarkMeasurement(tagLayout.getX(target.tagId), tagLayout.getY(target.tagId),
+                lateral + RobotConstants.CAMERA_STRAFE_OFFSET_IN, forward + RobotConstants.CAMERA_FORWARD_OFFSET_IN,
+                noise);
+    }
+
+    /** the tag's lateral/forward offset brought up to now, or as measured if the pose history doesn't reach back */
+    private void offsetNow(BackdropTarget target, MutablePose2d out) {
+        if (drive.getMotionSince(target.captureTimeNanos, motionSinceFrame)) {
+            target.getOffsetAfterMoving(motionSinceFrame.x, motionSinceFrame.y, motionSinceFrame.heading, out);
+        } else {
+            target.getOffsetAfterMoving(0.0, 0.0, 0.0, out);
+        }
+    }
+
+    /** hand the same monitor to everything that applies voltage compensation */
+    public void setBatteryMonitor(BatteryMonitor batteryMonitor) {
+        drive.setBatteryMonitor(batteryMonitor);
+        intake.setBatteryMonitor(batteryMonitor);
+        slides.setBatteryMonitor(batteryMonitor);
+    }
+}
@@ -0,0 +1,10 @@
+package org.firstinspires.ftc.teamcode.auto;
+
+/**
+ * The part of an auto that runs after the start button. Kept free of SDK types so the same code
+ * drives the real robot from an OpMode and the simulator from the headless runner.
+ */
+public interface AutoRoutine {
+    /** blocks until the routine is done or the OpMode stops */
+    void run();
+}
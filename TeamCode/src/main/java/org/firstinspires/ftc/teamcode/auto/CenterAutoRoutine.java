@@ -0,0 +1,105 @@
+package org.firstinspires.ftc.teamcode.auto;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.command.Command;
+import org.firstinspires.ftc.teamcode.command.InstantCommand;
+import org.firstinspires.ftc.teamcode.command.ParallelGroup;
+import org.firstinspires.ftc.teamcode.command.RobotCommands;
+import org.firstinspires.ftc.teamcode.command.SequentialGroup;
+import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.subsystems.DriveSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.GateSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem.SlidePreset;
+import org.firstinspires.ftc.teamcode.trajectory.TrajectoryBuilder;
+import org.firstinspires.ftc.teamcode.trajectory.TrajectoryCache;
+import org.firstinspires.ftc.teamcode.util.OpModeControl;
+import org.firstinspires.ftc.teamcode.util.TelemetrySink;
+import org.firstinspires.ftc.teamcode.vision.DetectedMotif;
+import org.firstinspires.ftc.teamcode.vision.TagLayout;
+import org.firstinspires.ftc.teamcode.vision.VisionSource;
+
+/**
+ * Center-side auto: drives forward to score the preload, branches parking based on the detected motif.
+ * Paths are planned in field coordinates and built ahead of time by buildTrajectories().
+ */
+public class CenterAutoRoutine implements AutoRoutine {
+    public static final Pose2d START_POSE = new Pose2d(0, 0, 0);
+
+    private final AutoRobot robot;
+    private final TrajectoryCache trajectories;
+    private final HardwareSnapshot hardware;
+    private final DriveSubsystem drive;
+    private final SlideSubsystem slides;
+    private final GateSubsystem gate;
+    private final VisionSource vision;
+    private final OpModeControl opMode;
+    private final TelemetrySink telemetry;
+
+    public CenterAutoRoutine(AutoRobot robot, TrajectoryCache trajectories, OpModeControl opMode,
+                             TelemetrySink telemetry) {
+        this.robot = robot;
+        this.trajectories = trajectories;
+        hardware = robot.hardware;
+        drive = robot.drive;
+        slides = robot.slides;
+        gate = robot.gate;
+        vision = robot.vision;
+        this.opMode = opMode;
+        this.telemetry = telemetry;
+    }
+
+    /** builds every path this routine can take into the cache, call during init */
+    public static void buildTrajectories(TrajectoryCache cache) {
+        Pose2d atBackdrop = new Pose2d(0, 26, 0);
+        cache.put("center/scoreBackdrop", new TrajectoryBuilder(START_POSE)
+                .lineTo(atBackdrop, AutoRobot.PATH)
+                .build());
+        Pose2d cleared = new Pose2d(0, 20, 0);
+        cache.put("center/clearBackdrop", new TrajectoryBuilder(atBackdrop)
+                .lineTo(cleared, AutoRobot.PATH)
+                .build());
+        cache.put("center/park/" + DetectedMotif.MOTIF_A, new TrajectoryBuilder(cleared)
+                .strafeTo(-12, cleared.y, AutoRobot.PATH)
+                .build());
+        cache.put("center/park/" + DetectedMotif.MOTIF_C, new TrajectoryBuilder(cleared)
+                .strafeTo(12, cleared.y, AutoRobot.PATH)
+                .build());
+    }
+
+    @Override
+    public void run() {
+        hardware.refresh();
+        drive.setPoseEstimate(START_POSE);
+        drive.resetHeading();
+        DetectedMotif detectedMotif = vision.getCurrentMotif();
+        vision.useAprilTags();
+        // backdrop tags straight ahead of where the center path stops
+        robot.setTagLayout(TagLayout.backdrop(1, 0, 26 + RobotConstants.BACKDROP_TAG_AHEAD_IN,
+                RobotConstants.BACKDROP_TAG_SPACING_IN));
+
+        // 1. drive straight to the backdrop and center on the correct column off the tag, lifting the whole
+        // way so there's less to wait for at the end; 2. score once both are done
+        Command scoring = new SequentialGroup(
+                new ParallelGroup(
+                        new SequentialGroup(
+                                RobotCommands.followTrajectory(drive, trajectories.get("center/scoreBackdrop")),
+                                robot.alignToBackdropTag(detectedMotif, 1.0)),
+                        RobotCommands.slidesTo(slides, SlidePreset.HIGH)),
+                RobotCommands.dump(gate, 600));
+        if (!robot.runCommand(scoring, opMode, telemetry)) {
+            return;
+        }
+
+        // 3. retract and park according to the motif; the retract doesn't claim the slides,
+        // so a fault there doesn't cost the park
+        Command park = new SequentialGroup(
+                new InstantCommand(() -> slides.goToPreset(SlidePreset.INTAKE)),
+                RobotCommands.followTrajectory(drive, trajectories.get("center/clearBackdrop")),
+                detectedMotif == DetectedMotif.MOTIF_A || detectedMotif == DetectedMotif.MOTIF_C
+                        ? RobotCommands.followTrajectory(drive, trajectories.get("center/park/" + detectedMotif))
+                        : new InstantCommand(() -> { }));
+        robot.runCommand(park, opMode, telemetry);
+    }
+}
@@ -0,0 +1,119 @@
+package org.firstinspires.ftc.teamcode.auto;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.command.Command;
+import org.firstinspires.ftc.teamcode.command.InstantCommand;
+import org.firstinspires.ftc.teamcode.command.ParallelGroup;
+import org.firstinspires.ftc.teamcode.command.RobotCommands;
+import org.firstinspires.ftc.teamcode.command.SequentialGroup;
+import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.subsystems.DriveSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.GateSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem.SlidePreset;
+import org.firstinspires.ftc.teamcode.trajectory.TrajectoryBuilder;
+import org.firstinspires.ftc.teamcode.trajectory.TrajectoryCache;
+import org.firstinspires.ftc.teamcode.util.OpModeControl;
+import org.firstinspires.ftc.teamcode.util.TelemetrySink;
+import org.firstinspires.ftc.teamcode.vision.BackdropTarget;
+import org.firstinspires.ftc.teamcode.vision.DetectedMotif;
+import org.firstinspires.ftc.teamcode.vision.TagLayout;
+import org.firstinspires.ftc.teamcode.vision.VisionSource;
+
+/**
+ * Left-side auto that drives off the line, scores the preload, and parks based on the detected motif.
+ * Uses the lightweight trajectory follower instead of manual encoder while-loops.
+ * Paths are planned in field coordinates and built ahead of time by buildTrajectories().
+ */
+public class LeftAutoRoutine implements AutoRoutine {
+    public static final Pose2d START_POSE = new Pose2d(0, 0, 0);
+
+    private final AutoRobot robot;
+    private final TrajectoryCache trajectories;
+    private final HardwareSnapshot hardware;
+    private final DriveSubsystem drive;
+    private final SlideSubsystem slides;
+    private final GateSubsystem gate;
+    private final VisionSource vision;
+    private final OpModeControl opMode;
+    private final TelemetrySink telemetry;
+
+    public LeftAutoRoutine(AutoRobot robot, TrajectoryCache trajectories, OpModeControl opMode,
+                           TelemetrySink telemetry) {
+        this.robot = robot;
+        this.trajectories = trajectories;
+        hardware = robot.hardware;
+        drive = robot.drive;
+        slides = robot.slides;
+        gate = robot.gate;
+        vision = robot.vision;
+        this.opMode = opMode;
+        this.telemetry = telemetry;
+    }
+
+    /** builds every path this routine can take into the cache, call during init */
+    public static void buildTrajectories(TrajectoryCache cache) {
+        cache.put("left/preload", new TrajectoryBuilder(START_POSE)
+                .lineThrough(new Pose2d(0, 20, 0), AutoRobot.PATH)
+                .lineThrough(new Pose2d(-8, 20, 0), AutoRobot.PATH)
+                .lineThrough(new Pose2d(-8, 28, 0), AutoRobot.PATH.scaledVelocity(0.4))
+                .build());
+        // planned to score 8 in past the end of the preload path
+        Pose2d retreated = new Pose2d(-8, 28, 0);
+        cache.put("left/retreat", new TrajectoryBuilder(new Pose2d(-8, 36, 0))
+                .lineTo(retreated, AutoRobot.PATH)
+                .build());
+        cache.put("left/park/" + DetectedMotif.MOTIF_A, new TrajectoryBuilder(retreated)
+                .strafeTo(-16, retreated.y, AutoRobot.PATH)
+                .build());
+        cache.put("left/park/" + DetectedMotif.MOTIF_C, new TrajectoryBuilder(retreated)
+                .strafeTo(16, retreated.y, AutoRobot.PATH)
+                .build());
+    }
+
+    @Override
+    public void run() {
+        hardware.refresh();
+        drive.setPoseEstimate(START_POSE);
+        drive.resetHeading();
+        DetectedMotif detectedMotif = vision.getCurrentMotif();
+        vision.useAprilTags();
+        // backdrop tags straight ahead of where the preload gets scored
+        robot.setTagLayout(TagLayout.backdrop(1, -8, 36 + RobotConstants.BACKDROP_TAG_AHEAD_IN,
+                RobotConstants.BACKDROP_TAG_SPACING_IN));
+
+        // 1-3. leave the Launch Line, slide left, and settle onto the backdrop lane,
+        // driving and lifting at the same time so only the slower one costs time
+        Command scoring = new SequentialGroup(
+                new ParallelGroup(
+                        RobotCommands.followTrajectory(drive, trajectories.get("left/preload")),
+                        RobotCommands.slidesTo(slides, SlidePreset.HIGH)),
+                // 3. bump forward to scoring position, correct the lateral offset off the tag, and dump
+                RobotCommands.driveStraight(drive, 8, 0.35, 0),
+                robot.alignToBackdropTag(detectedMotif, 1.0),
+                RobotCommands.dump(gate, 600));
+        if (!robot.runCommand(scoring, opMode, telemetry)) {
+            return;
+        }
+
+        // 4. drop slides and back away (without claiming the slides, so a fault there doesn't cost the park)
+        // 5. park based on motif
+        Command park = new SequentialGroup(
+                new InstantCommand(() -> slides.goToPreset(SlidePreset.INTAKE)),
+                RobotCommands.followTrajectory(drive, trajectories.get("left/retreat")),
+                detectedMotif == DetectedMotif.MOTIF_A || detectedMotif == DetectedMotif.MOTIF_C
+                        ? RobotCommands.followTrajectory(drive, trajectories.get("left/park/" + detectedMotif))
+                        : new InstantCommand(() -> { })); // motif B stays put
+        robot.runCommand(park, opMode, telemetry);
+
+        // confirm parking column/tag alignment
+        BackdropTarget target = vision.getBackdropTarget(detectedMotif);
+        telemetry.addData("Parking tag", target != null ? target.tagId : "none");
+        if (target != null) {
+            telemetry.addData("Tag frame", "#%d, %.0f ms old when ready (%.0f ms detecting)",
+                    target.frameSequence, target.latencyMs, target.processingMs);
+        }
+        telemetry.update();
+    }
+}
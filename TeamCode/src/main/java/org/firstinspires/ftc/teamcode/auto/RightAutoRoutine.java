@@ -0,0 +1,186 @@
+package org.firstinspires.ftc.teamcode.auto;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.command.Command;
+import org.firstinspires.ftc.teamcode.command.InstantCommand;
+import org.firstinspires.ftc.teamcode.command.ParallelGroup;
+import org.firstinspires.ftc.teamcode.command.RobotCommands;
+import org.firstinspires.ftc.teamcode.command.SequentialGroup;
+import org.firstinspires.ftc.teamcode.command.WaitCommand;
+import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.subsystems.DriveSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.GateSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.IntakeSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem.SlidePreset;
+import org.firstinspires.ftc.teamcode.trajectory.Trajectory;
+import org.firstinspires.ftc.teamcode.trajectory.TrajectoryBuilder;
+import org.firstinspires.ftc.teamcode.trajectory.TrajectoryCache;
+import org.firstinspires.ftc.teamcode.util.OpModeControl;
+import org.firstinspires.ftc.teamcode.util.TelemetrySink;
+import org.firstinspires.ftc.teamcode.vision.BackdropTarget;
+import org.firstinspires.ftc.teamcode.vision.DetectedMotif;
+import org.firstinspires.ftc.teamcode.vision.TagLayout;
+import org.firstinspires.ftc.teamcode.vision.VisionSource;
+
+/**
+ * Right-side auto that uses trajectory building + odometry for multi-segment scoring.
+ * Includes a simple one-cycle branch and a mirrored variant for the opposite wall.
+ * Every path is planned in field coordinates and built in init by buildTrajectories(); run() only looks them up.
+ */
+public class RightAutoRoutine implements AutoRoutine {
+    public static final Pose2d START_POSE = new Pose2d(0, 0, 0);
+    private static final boolean[] BOTH = {false, true};
+
+    private final AutoRobot robot;
+    private final TrajectoryCache trajectories;
+    private final HardwareSnapshot hardware;
+    private final DriveSubsystem drive;
+    private final IntakeSubsystem intake;
+    private final SlideSubsystem slides;
+    private final GateSubsystem gate;
+    private final VisionSource vision;
+    private final OpModeControl opMode;
+    private final TelemetrySink telemetry;
+    private final boolean mirrored;
+    private final boolean cycleRequested;
+
+    public RightAutoRoutine(AutoRobot robot, TrajectoryCache trajectories, OpModeControl opMode,
+                            TelemetrySink telemetry, boolean mirrored, boolean cycleRequested) {
+        this.robot = robot;
+        this.trajectories = trajectories;
+        hardware = robot.hardware;
+        drive = robot.drive;
+        intake = robot.intake;
+        slides = robot.slides;
+        gate = robot.gate;
+        vision = robot.vision;
+        this.opMode = opMode;
+        this.telemetry = telemetry;
+        this.mirrored = mirrored;
+        this.cycleRequested = cycleRequested;
+    }
+
+    /**
+     * Builds the paths for every variant (mirrored or not, cycle or not, each parking motif) into the cache.
+     * Call during init. Poses are where each step is planned to end, e.g. the 8 in bump to score
+     * puts the robot 8 in further up-field than the end of the preload path.
+     */
+    public static void buildTrajectories(TrajectoryCache cache) {
+        for (boolean mirrored : BOTH) {
+            double mirror = mirrored ? -1.0 : 1.0;
+            cache.put(key(mirrored, false, "preload"), new TrajectoryBuilder(START_POSE)
+                    .lineThrough(new Pose2d(0, 22, 0), AutoRobot.PATH)
+                    .lineThrough(new Pose2d(10 * mirror, 22, 0), AutoRobot.PATH)
+                    .lineThrough(new Pose2d(10 * mirror, 30, 0), AutoRobot.PATH.scaledVelocity(0.45))
+                    .build());
+            Pose2d preloadScored = new Pose2d(10 * mirror, 38, 0);
+
+            // dip to the stack, back out, line up, and come back in to re-score
+            Pose2d atStack = new Pose2d(2 * mirror, 36, 0);
+            cache.put(key(mirrored, true, "toStack"), new TrajectoryBuilder(preloadScored)
+                    .lineThrough(new Pose2d(10 * mirror, 26, 0), AutoRobot.PATH)
+                    .lineThrough(new Pose2d(2 * mirror, 26, 0), AutoRobot.PATH)
+                    .lineThrough(atStack, AutoRobot.PATH.scaledVelocity(0.4))
+                    .build());
+            Pose2d backedOut = new Pose2d(2 * mirror, 26, 0);
+            cache.put(key(mirrored, true, "backOut"), new TrajectoryBuilder(atStack)
+                    .lineTo(backedOut, AutoRobot.PATH.scaledVelocity(0.45))
+                    .build());
+            Pose2d realigned = new Pose2d(8 * mirror, 26, 0);
+            cache.put(key(mirrored, true, "reAlign"), new TrajectoryBuilder(backedOut)
+                    .strafeTo(realigned.x, realigned.y, AutoRobot.PATH)
+                    .build());
+            cache.put(key(mirrored, true, "reScore"), new TrajectoryBuilder(realigned)
+                    .lineTo(new Pose2d(8 * mirror, 32, 0), AutoRobot.PATH.scaledVelocity(0.4))
+                    .build());
+            Pose2d cycleScored = new Pose2d(8 * mirror, 38, 0);
+
+            // retract and park, from wherever the last score happened
+            for (boolean cycle : BOTH) {
+                Pose2d scored = cycle ? cycleScored : preloadScored;
+                Pose2d cleared = new Pose2d(scored.x, scored.y - 6, 0);
+                cache.put(key(mirrored, cycle, "clearBackdrop"), new TrajectoryBuilder(scored)
+                        .lineTo(cleared, AutoRobot.PATH)
+                        .build());
+                cache.put(key(mirrored, cycle, "park/" + DetectedMotif.MOTIF_A), new TrajectoryBuilder(cleared)
+                        .strafeTo(cleared.x - (14 * mirror), cleared.y, AutoRobot.PATH)
+                        .build());
+                cache.put(key(mirrored, cycle, "park/" + DetectedMotif.MOTIF_C), new TrajectoryBuilder(cleared)
+                        .strafeTo(cleared.x + (14 * mirror), cleared.y, AutoRobot.PATH)
+                        .build()); // motif B parks right where it cleared
+            }
+        }
+    }
+
+    private static String key(boolean mirrored, boolean cycle, String step) {
+        return "right" + (mirrored ? "-mirrored" : "") + (cycle ? "+cycle" : "") + "/" + step;
+    }
+
+    private Trajectory path(boolean cycle, String step) {
+        return trajectories.get(key(mirrored, cycle, step));
+    }
+
+    @Override
+    public void run() {
+        hardware.refresh();
+        drive.setPoseEstimate(START_POSE);
+        drive.resetHeading();
+        DetectedMotif detectedMotif = vision.getCurrentMotif();
+        vision.useAprilTags();
+        double mirror = mirrored ? -1.0 : 1.0;
+        // backdrop tags straight ahead of the preload scoring stop, so every tag frame on the way in corrects drift
+        robot.setTagLayout(TagLayout.backdrop(1, 10 * mirror, 38 + RobotConstants.BACKDROP_TAG_AHEAD_IN,
+                RobotConstants.BACKDROP_TAG_SPACING_IN));
+
+        // 1-3. leave the launch line, slide over, and ease into the backdrop lane,
+        // driving and lifting at the same time so only the slower one costs time
+        Command scoring = new SequentialGroup(
+                new ParallelGroup(
+                        RobotCommands.followTrajectory(drive, path(false, "preload")),
+                        RobotCommands.slidesTo(slides, SlidePreset.HIGH)),
+                // 3. bump into scoring range, line up on the tag, and dump the preload
+                RobotCommands.driveStraight(drive, 8, 0.35, 0),
+                robot.alignToBackdropTag(detectedMotif, mirror),
+                RobotCommands.dump(gate, 600));
+
+        // 4. optional quick cycle: dip to the stack, grab, and re-score at LOW
+        if (cycleRequested) {
+            scoring = new SequentialGroup(scoring,
+                    new InstantCommand(() -> slides.goToPreset(SlidePreset.INTAKE), slides),
+                    RobotCommands.followTrajectory(drive, path(true, "toStack")),
+                    new InstantCommand(intake::intakeIn, intake),
+                    new WaitCommand(500),
+                    RobotCommands.followTrajectory(drive, path(true, "backOut")),
+                    new InstantCommand(intake::stop, intake),
+                    new ParallelGroup( // lift while we realign instead of after
+                            RobotCommands.followTrajectory(drive, path(true, "reAlign")),
+                            RobotCommands.slidesTo(slides, SlidePreset.LOW)),
+                    RobotCommands.followTrajectory(drive, path(true, "reScore")),
+                    RobotCommands.driveStraight(drive, 6, 0.35, 0),
+                    RobotCommands.dump(gate, 450));
+        }
+        if (!robot.runCommand(scoring, opMode, telemetry)) {
+            return;
+        }
+
+        // 5. retract and park according to the detected motif; the retract doesn't claim the slides,
+        // so a fault there doesn't cost the park
+        Command park = new SequentialGroup(
+                new InstantCommand(() -> slides.goToPreset(SlidePreset.INTAKE)),
+                RobotCommands.followTrajectory(drive, path(cycleRequested, "clearBackdrop")),
+                detectedMotif == DetectedMotif.MOTIF_A || detectedMotif == DetectedMotif.MOTIF_C
+                        ? RobotCommands.followTrajectory(drive, path(cycleRequested, "park/" + detectedMotif))
+                        : new InstantCommand(() -> { })); // motif B parks right where it cleared
+        robot.runCommand(park, opMode, telemetry);
+
+        BackdropTarget target = vision.getBackdropTarget(detectedMotif);
+        telemetry.addData("Parking tag", target != null ? target.tagId : "none");
+        if (target != null) {
+            telemetry.addData("Tag frame", "#%d, %.0f ms old when ready (%.0f ms detecting)",
+                    target.frameSequence, target.latencyMs, target.processingMs);
+        }
+        telemetry.update();
+    }
+}
@@ -0,0 +1,79 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/**
+ * One action for the CommandScheduler: initialize() once, execute() every tick until isFinished(), then end().
+ * A command lists the subsystems it drives with addRequirements(); scheduling one that needs a subsystem
+ * another running command holds interrupts the old one. Commands get built once (init) and can be scheduled
+ * again and again, so anything a run needs has to be reset in initialize(). Times are the scheduler's tick
+ * time, on the HardwareSnapshot clock so the simulator works too.
+ */
+public abstract class Command {
+    private static final int MAX_REQUIREMENTS = 8;
+
+    private final Object[] requirements = new Object[MAX_REQUIREMENTS];
+    private int requirementCount = 0;
+    private String name = getClass().getSimpleName();
+
+    protected final void addRequirements(Object... subsystems) {
+        for (Object subsystem : subsystems) {
+            if (requires(subsystem)) {
+                continue;
+            }
+            if (requirementCount >= MAX_REQUIREMENTS) {
+                throw new IllegalStateException("A command can only require " + MAX_REQUIREMENTS + " subsystems");
+            }
+            requirements[requirementCount++] = subsystem;
+        }
+    }
+
+    public final boolean requires(Object subsystem) {
+        for (int i = 0; i < requirementCount; i++) {
+            if (requirements[i] == subsystem) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** true if this and other need any of the same subsystems */
+    public final boolean sharesRequirementWith(Command other) {
+        for (int i = 0; i < requirementCount; i++) {
+            if (other.requires(requirements[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    final int getRequirementCount() {
+        return requirementCount;
+    }
+
+    final Object getRequirement(int index) {
+        return requirements[index];
+    }
+
+    /** label for telemetry */
+    public Command withName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void initialize(long nowNanos) {
+    }
+
+    public void execute(long nowNanos) {
+    }
+
+    public boolean isFinished() {
+        return false;
+    }
+
+    /** interrupted = cancelled (or pushed out by another command) instead of finishing on its own */
+    public void end(boolean interrupted) {
+    }
+}
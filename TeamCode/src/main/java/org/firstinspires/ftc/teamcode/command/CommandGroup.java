@@ -0,0 +1,28 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/** shared bits of the groups: the children, and the union of their requirements */
+abstract class CommandGroup extends Command {
+    protected final Command[] commands;
+
+    CommandGroup(Command[] commands, boolean concurrent) {
+        if (commands.length == 0) {
+            throw new IllegalArgumentException("A command group needs at least one command");
+        }
+        this.commands = commands.clone();
+        for (int i = 0; i < this.commands.length; i++) {
+            Command command = this.commands[i];
+            if (concurrent) {
+                // two children driving the same subsystem at once would just fight each other
+                for (int j = 0; j < i; j++) {
+                    if (command.sharesRequirementWith(this.commands[j])) {
+                        throw new IllegalArgumentException(command.getName() + " and " + this.commands[j].getName()
+                                + " can't run at the same time, they need the same subsystem");
+                    }
+                }
+            }
+            for (int r = 0; r < command.getRequirementCount(); r++) {
+                addRequirements(command.getRequirement(r));
+            }
+        }
+    }
+}
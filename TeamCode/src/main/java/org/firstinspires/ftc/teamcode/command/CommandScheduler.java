@@ -0,0 +1,108 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/**
+ * Runs scheduled commands side by side, one tick per loop. Each subsystem belongs to at most one running
+ * command: scheduling something that needs a busy subsystem interrupts whoever had it. The schedule is a
+ * fixed array, so tick() allocates nothing; commands only allocate if they do so themselves.
+ */
+public class CommandScheduler {
+    public static final int MAX_COMMANDS = 16;
+
+    private final Command[] scheduled = new Command[MAX_COMMANDS];
+    private final boolean[] initialized = new boolean[MAX_COMMANDS];
+    private int count = 0;
+
+    /** starts it on the next tick(); does nothing if it's already scheduled */
+    public void schedule(Command command) {
+        if (isScheduled(command)) {
+            return;
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            if (scheduled[i].sharesRequirementWith(command)) {
+                interrupt(i);
+            }
+        }
+        if (count >= MAX_COMMANDS) {
+            throw new IllegalStateException("CommandScheduler only runs " + MAX_COMMANDS + " commands at once");
+        }
+        scheduled[count] = command;
+        initialized[count] = false;
+        count++;
+    }
+
+    public void cancel(Command command) {
+        int index = indexOf(command);
+        if (index >= 0) {
+            interrupt(index);
+        }
+    }
+
+    public void cancelAll() {
+        for (int i = count - 1; i >= 0; i--) {
+            interrupt(i);
+        }
+    }
+
+    public boolean isScheduled(Command command) {
+        return indexOf(command) >= 0;
+    }
+
+    /** true if some running command holds this subsystem */
+    public boolean isRequired(Object subsystem) {
+        for (int i = 0; i < count; i++) {
+            if (scheduled[i].requires(subsystem)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getScheduledCount() {
+        return count;
+    }
+
+    /** once per loop: starts anything new, runs everything, and drops whatever finished */
+    public void tick(long nowNanos) {
+        int i = 0;
+        while (i < count) {
+            Command command = scheduled[i];
+            if (!initialized[i]) {
+                initialized[i] = true;
+                command.initialize(nowNanos);
+            }
+            command.execute(nowNanos);
+            if (command.isFinished()) {
+                remove(i);
+                command.end(false);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private void interrupt(int index) {
+        Command command = scheduled[index];
+        boolean started = initialized[index];
+        remove(index);
+        if (started) {
+            command.end(true);
+        }
+    }
+
+    private int indexOf(Command command) {
+        for (int i = 0; i < count; i++) {
+            if (scheduled[i] == command) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** keeps the rest in order so commands always run in the order they were scheduled */
+    private void remove(int index) {
+        System.arraycopy(scheduled, index + 1, scheduled, index, count - index - 1);
+        System.arraycopy(initialized, index + 1, initialized, index, count - index - 1);
+        count--;
+        scheduled[count] = null;
+    }
+}
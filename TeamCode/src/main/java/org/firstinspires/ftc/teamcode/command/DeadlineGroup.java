@@ -0,0 +1,59 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/**
+ * Runs the deadline and the others at once; finishes when the deadline does, cutting off any others
+ * still going. Others that finish early just stop, e.g. a slide move that only has to overlap a path.
+ */
+public class DeadlineGroup extends CommandGroup {
+    private final boolean[] running;
+
+    /** commands[0] is the deadline */
+    public DeadlineGroup(Command deadline, Command... others) {
+        super(prepend(deadline, others), true);
+        running = new boolean[commands.length];
+    }
+
+    @Override
+    public void initialize(long nowNanos) {
+        for (int i = 0; i < commands.length; i++) {
+            commands[i].initialize(nowNanos);
+            running[i] = true;
+        }
+    }
+
+    @Override
+    public void execute(long nowNanos) {
+        for (int i = 0; i < commands.length; i++) {
+            if (!running[i]) {
+                continue;
+            }
+            commands[i].execute(nowNanos);
+            if (commands[i].isFinished()) {
+                commands[i].end(false);
+                running[i] = false;
+            }
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return !running[0];
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        for (int i = 0; i < commands.length; i++) {
+            if (running[i]) {
+                commands[i].end(true);
+                running[i] = false;
+            }
+        }
+    }
+
+    private static Command[] prepend(Command first, Command[] rest) {
+        Command[] all = new Command[rest.length + 1];
+        all[0] = first;
+        System.arraycopy(rest, 0, all, 1, rest.length);
+        return all;
+    }
+}
@@ -0,0 +1,21 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/** runs the action once when it starts and is done right away */
+public class InstantCommand extends Command {
+    private final Runnable action;
+
+    public InstantCommand(Runnable action, Object... requirements) {
+        this.action = action;
+        addRequirements(requirements);
+    }
+
+    @Override
+    public void initialize(long nowNanos) {
+        action.run();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return true;
+    }
+}
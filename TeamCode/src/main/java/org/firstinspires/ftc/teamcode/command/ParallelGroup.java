@@ -0,0 +1,53 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/** runs every command at once and finishes when all of them have */
+public class ParallelGroup extends CommandGroup {
+    private final boolean[] running;
+
+    public ParallelGroup(Command... commands) {
+        super(commands, true);
+        running = new boolean[this.commands.length];
+    }
+
+    @Override
+    public void initialize(long nowNanos) {
+        for (int i = 0; i < commands.length; i++) {
+            commands[i].initialize(nowNanos);
+            running[i] = true;
+        }
+    }
+
+    @Override
+    public void execute(long nowNanos) {
+        for (int i = 0; i < commands.length; i++) {
+            if (!running[i]) {
+                continue;
+            }
+            commands[i].execute(nowNanos);
+            if (commands[i].isFinished()) {
+                commands[i].end(false);
+                running[i] = false;
+            }
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        for (boolean isRunning : running) {
+            if (isRunning) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        for (int i = 0; i < commands.length; i++) {
+            if (running[i]) {
+                commands[i].end(true);
+                running[i] = false;
+            }
+        }
+    }
+}
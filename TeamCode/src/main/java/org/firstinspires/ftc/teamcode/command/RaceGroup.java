@@ -0,0 +1,41 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/** runs every command at once and stops them all as soon as any one finishes */
+public class RaceGroup extends CommandGroup {
+    private boolean finished = false;
+
+    public RaceGroup(Command... commands) {
+        super(commands, true);
+    }
+
+    @Override
+    public void initialize(long nowNanos) {
+        finished = false;
+        for (Command command : commands) {
+            command.initialize(nowNanos);
+        }
+    }
+
+    @Override
+    public void execute(long nowNanos) {
+        for (Command command : commands) {
+            command.execute(nowNanos);
+            if (command.isFinished()) {
+                finished = true;
+            }
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        // whoever finished ends normally, the rest got cut off
+        for (Command command : commands) {
+            command.end(interrupted || !command.isFinished());
+        }
+    }
+}
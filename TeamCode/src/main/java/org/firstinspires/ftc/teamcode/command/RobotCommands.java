@@ -0,0 +1,118 @@
+package org.firstinspires.ftc.teamcode.command;
+
+import org.firstinspires.ftc.teamcode.subsystems.DriveSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.GateSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem.SlidePreset;
+import org.firstinspires.ftc.teamcode.trajectory.Trajectory;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Commands for the robot's subsystems, shared by the TeleOp macros and the autos.
+ * The drive commands only start and watch the drive's async moves; whoever runs the scheduler still calls
+ * drive.updateAsync() once per loop (after the tick) to actually move, the same way the old loops did.
+ */
+public final class RobotCommands {
+    private RobotCommands() { }
+
+    /** sends the slides to the preset and finishes once they're there (or faulted, so nothing waits forever) */
+    public static Command slidesTo(SlideSubsystem slides, SlidePreset preset) {
+        return new Command() {
+            {
+                addRequirements(slides);
+                withName("slides to " + preset);
+            }
+
+            @Override
+            public void initialize(long nowNanos) {
+                slides.goToPreset(preset);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return slides.isAtTarget() || slides.isFaulted();
+            }
+        };
+    }
+
+    /** opens the gate, waits for the pieces to fall out, and closes it again */
+    public static Command dump(GateSubsystem gate, long openMs) {
+        return new SequentialGroup(
+                new InstantCommand(gate::open, gate),
+                new WaitCommand(openMs),
+                new InstantCommand(gate::close, gate)).withName("dump");
+    }
+
+    /** drives the path and finishes at its end; cancelling stops the drive */
+    public static Command followTrajectory(DriveSubsystem drive, Trajectory trajectory) {
+        return new Command() {
+            {
+                addRequirements(drive);
+                withName("path");
+            }
+
+            @Override
+            public void initialize(long nowNanos) {
+                drive.followTrajectoryAsync(trajectory);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return !drive.isFollowingTrajectory();
+            }
+
+            @Override
+            public void end(boolean interrupted) {
+                if (interrupted) {
+                    drive.cancelAsyncMoves();
+                }
+            }
+        };
+    }
+
+    /** command version of driveStraightWithHeading() */
+    public static Command driveStraight(DriveSubsystem drive, double inches, double speed, double holdHeadingDeg) {
+        return encoderMove(drive, false, () -> inches, speed, holdHeadingDeg);
+    }
+
+    /** command version of strafeWithHeading(); inches is asked for when the command starts, right is positive */
+    public static Command strafe(DriveSubsystem drive, DoubleSupplier inches, double speed, double holdHeadingDeg) {
+        return encoderMove(drive, true, inches, speed, holdHeadingDeg);
+    }
+
+    private static Command encoderMove(DriveSubsystem drive, boolean sideways, DoubleSupplier inches,
+                                       double speed, double holdHeadingDeg) {
+        return new Command() {
+            {
+                addRequirements(drive);
+                withName(sideways ? "strafe" : "drive straight");
+            }
+
+            @Override
+            public void initialize(long nowNanos) {
+                double distance = inches.getAsDouble();
+                if (distance == 0) {
+                    return; // nothing to do, finishes right away without touching the encoders
+                }
+                if (sideways) {
+                    drive.strafeAsync(distance, speed, holdHeadingDeg);
+                } else {
+                    drive.driveStraightAsync(distance, speed, holdHeadingDeg);
+                }
+            }
+
+            @Override
+            public boolean isFinished() {
+                return !drive.isEncoderMoveInProgress();
+            }
+
+            @Override
+            public void end(boolean interrupted) {
+                if (interrupted) {
+                    drive.cancelAsyncMoves();
+                }
+            }
+        };
+    }
+}
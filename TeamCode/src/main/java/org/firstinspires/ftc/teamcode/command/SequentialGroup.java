@@ -0,0 +1,54 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/** runs the commands one after another; the next one starts on the tick the previous one finishes */
+public class SequentialGroup extends CommandGroup {
+    private int index = 0;
+
+    public SequentialGroup(Command... commands) {
+        super(commands, false);
+    }
+
+    @Override
+    public void initialize(long nowNanos) {
+        index = 0;
+        commands[0].initialize(nowNanos);
+    }
+
+    @Override
+    public void execute(long nowNanos) {
+        if (index >= commands.length) {
+            return;
+        }
+        Command current = commands[index];
+        current.execute(nowNanos);
+        if (current.isFinished()) {
+            current.end(false);
+            index++;
+            if (index < commands.length) {
+                commands[index].initialize(nowNanos);
+            }
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return index >= commands.length;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted && index < commands.length) {
+            commands[index].end(true);
+        }
+    }
+
+    /** which step is running, 0-based; equals the command count once it's done */
+    public int getStep() {
+        return index;
+    }
+
+    /** the step that's running (or about to), null once it's done */
+    public Command getCurrentCommand() {
+        return index < commands.length ? commands[index] : null;
+    }
+}
@@ -0,0 +1,28 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/** does nothing for a fixed time */
+public class WaitCommand extends Command {
+    private final long durationNanos;
+    private long startNanos;
+    private long lastNanos;
+
+    public WaitCommand(long durationMs) {
+        durationNanos = durationMs * 1_000_000L;
+    }
+
+    @Override
+    public void initialize(long nowNanos) {
+        startNanos = nowNanos;
+        lastNanos = nowNanos;
+    }
+
+    @Override
+    public void execute(long nowNanos) {
+        lastNanos = nowNanos;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return lastNanos - startNanos >= durationNanos;
+    }
+}
@@ -0,0 +1,28 @@
+package org.firstinspires.ftc.teamcode.command;
+
+import java.util.function.BooleanSupplier;
+
+/** finishes the first tick the condition is true */
+public class WaitUntilCommand extends Command {
+    private final BooleanSupplier condition;
+    private boolean done = false;
+
+    public WaitUntilCommand(BooleanSupplier condition) {
+        this.condition = condition;
+    }
+
+    @Override
+    public void initialize(long nowNanos) {
+        done = false;
+    }
+
+    @Override
+    public void execute(long nowNanos) {
+        done = condition.getAsBoolean();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return done;
+    }
+}
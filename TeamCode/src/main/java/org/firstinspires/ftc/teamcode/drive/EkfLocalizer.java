@@ -0,0 +1,183 @@
+package org.firstinspires.ftc.teamcode.drive;
+
+import org.firstinspires.ftc.teamcode.geometry.AngleUtil;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+
+/**
+ * Extended Kalman filter over (x, y, heading) in the usual field frame. Odometry is the prediction step
+ * (robot-frame wheel motion + IMU heading change, uncertainty growing with distance driven), and a landmark
+ * seen from the robot (a backdrop tag at a known spot) is the measurement that pulls accumulated drift back out.
+ * Landmarks only correct x and y: the heading stays the IMU's, because heading hold, turns, and field-centric
+ * drive all steer off the IMU and a tag-nudged heading would disagree with them. Its uncertainty still counts
+ * when weighing a measurement, it just never gets updated by one.
+ * Everything is 3x3 / 3x2 math written out on primitives and one covariance array, so predict() and
+ * correctWithLandmark() allocate nothing and are cheap enough for every loop.
+ */
+public class EkfLocalizer {
+    private final double translationNoisePerInch;
+    private final double headingNoise;
+    private final double gateChiSquared;
+
+    private double x;
+    private double y;
+    private double heading;
+    private final double[] p = new double[9]; // covariance, row-major 3x3
+    private int rejectedCount = 0;
+
+    /**
+     * translationNoisePerInch: 1-sigma slip after one inch of driving; it grows with the square root of the
+     * distance, so the answer doesn't depend on how often predict() runs. headingNoise: 1-sigma per predict().
+     * gateChiSquared: measurements further out than this (squared Mahalanobis distance, 2 dof) get thrown
+     * away as bad detections.
+     */
+    public EkfLocalizer(double translationNoisePerInch, double headingNoise, double gateChiSquared) {
+        this.translationNoisePerInch = translationNoisePerInch;
+        this.headingNoise = headingNoise;
+        this.gateChiSquared = gateChiSquared;
+    }
+
+    /** start over at this pose with this much 1-sigma uncertainty */
+    public void reset(double x, double y, double heading, double positionStd, double headingStd) {
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+        for (int i = 0; i < 9; i++) {
+            p[i] = 0.0;
+        }
+        p[0] = positionStd * positionStd;
+        p[4] = positionStd * positionStd;
+        p[8] = headingStd * headingStd;
+    }
+
+    /** odometry step: strafe/forward in the robot frame (inches) and the heading change (CCW radians) */
+    public void predict(double strafe, double forward, double headingChange) {
+        double midHeading = heading + headingChange / 2.0;
+        double cos = Math.cos(midHeading);
+        double sin = Math.sin(midHeading);
+        double fieldDx = strafe * cos - forward * sin;
+        double fieldDy = strafe * sin + forward * cos;
+        x += fieldDx;
+        y += fieldDy;
+        heading = AngleUtil.normalizeRadians(heading + headingChange);
+
+        // F = [[1, 0, -fieldDy], [0, 1, fieldDx], [0, 0, 1]]; P = F P F^T + Q
+        double a = -fieldDy;
+        double b = fieldDx;
+        double p00 = p[0] + a * (p[6] + p[2]) + a * a * p[8];
+        double p01 = p[1] + a * p[7] + b * p[2] + a * b * p[8];
+        double p02 = p[2] + a * p[8];
+        double p11 = p[4] + b * (p[7] + p[5]) + b * b * p[8];
+        double p12 = p[5] + b * p[8];
+        double distance = Math.hypot(strafe, forward);
+        double translationVariance = translationNoisePerInch * translationNoisePerInch * distance;
+        p[0] = p00 + translationVariance;
+        p[1] = p01;
+        p[2] = p02;
+        p[3] = p01;
+        p[4] = p11 + translationVariance;
+        p[5] = p12;
+        p[6] = p02;
+        p[7] = p12;
+        p[8] = p[8] + headingNoise * headingNoise;
+    }
+
+    /**
+     * A landmark at (landmarkX, landmarkY) on the field was seen at (strafe, forward) inches from the robot
+     * center, robot frame. Moves x and y only (see the class comment). Returns false if it didn't pass the
+     * gate and was ignored.
+     */
+    public boolean correctWithLandmark(double landmarkX, double landmarkY,
+                                       double measuredStrafe, double measuredForward, double noiseStd) {
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        double dx = landmarkX - x;
+        double dy = landmarkY - y;
+        double expectedStrafe = dx * cos + dy * sin;
+        double expectedForward = -dx * sin + dy * cos;
+
+        // H = d(strafe, forward) / d(x, y, heading)
+        double h00 = -cos;
+        double h01 = -sin;
+        double h02 = expectedForward;
+        double h10 = sin;
+        double h11 = -cos;
+        double h12 = -expectedStrafe;
+
+        // PH^T (3x2)
+        double ph00 = p[0] * h00 + p[1] * h01 + p[2] * h02;
+        double ph10 = p[3] * h00 + p[4] * h01 + p[5] * h02;
+        double ph20 = p[6] * h00 + p[7] * h01 + p[8] * h02;
+        double ph01 = p[0] * h10 + p[1] * h11 + p[2] * h12;
+        double ph11 = p[3] * h10 + p[4] * h11 + p[5] * h12;
+        double ph21 = p[6] * h10 + p[7] * h11 + p[8] * h12;
+
+        // S = H P H^T + R (2x2)
+        double noiseVariance = noiseStd * noiseStd;
+        double s00 = h00 * ph00 + h01 * ph10 + h02 * ph20 + noiseVariance;
+        double s01 = h00 * ph01 + h01 * ph11 + h02 * ph21;
+        double s11 = h10 * ph01 + h11 * ph11 + h12 * ph21 + noiseVariance;
+        double determinant = s00 * s11 - s01 * s01;
+        if (determinant <= 1e-12) {
+            rejectedCount++;
+            return false;
+        }
+        double i00 = s11 / determinant;
+        double i01 = -s01 / determinant;
+        double i11 = s00 / determinant;
+
+        double innovationStrafe = measuredStrafe - expectedStrafe;
+        double innovationForward = measuredForward - expectedForward;
+        double mahalanobis = innovationStrafe * (i00 * innovationStrafe + i01 * innovationForward)
+                + innovationForward * (i01 * innovationStrafe + i11 * innovationForward);
+        if (mahalanobis > gateChiSquared) {
+            rejectedCount++;
+            return false;
+        }
+
+        // K = PH^T S^-1, position rows only (the heading row is held at 0)
+        double k00 = ph00 * i00 + ph01 * i01;
+        double k01 = ph00 * i01 + ph01 * i11;
+        double k10 = ph10 * i00 + ph11 * i01;
+        double k11 = ph10 * i01 + ph11 * i11;
+
+        x += k00 * innovationStrafe + k01 * innovationForward;
+        y += k10 * innovationStrafe + k11 * innovationForward;
+
+        // P = P - K (H P), with H P = (P H^T)^T since P is symmetric; with no heading gain that's still the exact
+        // covariance, and the heading variance stays as it was. Then keep it symmetric
+        double n00 = p[0] - (k00 * ph00 + k01 * ph01);
+        double n01 = p[1] - (k00 * ph10 + k01 * ph11);
+        double n02 = p[2] - (k00 * ph20 + k01 * ph21);
+        double n11 = p[4] - (k10 * ph10 + k11 * ph11);
+        double n12 = p[5] - (k10 * ph20 + k11 * ph21);
+        double n22 = p[8];
+        p[0] = n00;
+        p[1] = n01;
+        p[2] = n02;
+        p[3] = n01;
+        p[4] = n11;
+        p[5] = n12;
+        p[6] = n02;
+        p[7] = n12;
+        p[8] = n22;
+        return true;
+    }
+
+    public MutablePose2d getPoseEstimate(MutablePose2d out) {
+        return out.set(x, y, heading);
+    }
+
+    /** 1-sigma position uncertainty (inches), the bigger axis-aligned one */
+    public double getPositionStd() {
+        return Math.sqrt(Math.max(p[0], p[4]));
+    }
+
+    public double getHeadingStd() {
+        return Math.sqrt(p[8]);
+    }
+
+    /** landmark measurements thrown out by the gate so far */
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+}
@@ -0,0 +1,39 @@
+package org.firstinspires.ftc.teamcode.drive;
+
+/**
+ * Pure mecanum mixing math, pulled out of DriveSubsystem so it can be reused and benchmarked off-robot.
+ * Results go into a caller-owned double[4] (FL, FR, BL, BR) so nothing is allocated per loop.
+ */
+public final class MecanumKinematics {
+    public static final int FRONT_LEFT = 0;
+    public static final int FRONT_RIGHT = 1;
+    public static final int BACK_LEFT = 2;
+    public static final int BACK_RIGHT = 3;
+
+    private MecanumKinematics() { }
+
+    /**
+     * Robot-centric mix: forward is +y, strafe right is +x, and positive turn spins the left wheels forward
+     * (same sign as the right stick).
+     * Everything gets normalized so no wheel command exceeds ±1.
+     */
+    public static void robotCentric(double forward, double strafe, double turn, double[] out) {
+        double denominator = Math.max(Math.abs(forward) + Math.abs(strafe) + Math.abs(turn), 1.0);
+        out[FRONT_LEFT] = (forward + strafe + turn) / denominator;
+        out[FRONT_RIGHT] = (forward - strafe - turn) / denominator;
+        out[BACK_LEFT] = (forward - strafe + turn) / denominator;
+        out[BACK_RIGHT] = (forward + strafe - turn) / denominator;
+    }
+
+    /**
+     * Field-centric mix: rotate the joystick vector by the robot heading so pushing forward
+     * always heads up-field, then mix like robotCentric().
+     */
+    public static void fieldCentric(double x, double y, double turn, double headingRadians, double[] out) {
+        double cos = Math.cos(-headingRadians);
+        double sin = Math.sin(-headingRadians);
+        double rotatedX = x * cos - y * sin;
+        double rotatedY = x * sin + y * cos;
+        robotCentric(rotatedY, rotatedX, turn, out);
+    }
+}
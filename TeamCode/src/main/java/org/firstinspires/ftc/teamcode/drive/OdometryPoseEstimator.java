@@ -1,26 +1,37 @@
 package org.firstinspires.ftc.teamcode.drive;
 
 import org.firstinspires.ftc.teamcode.geometry.AngleUtil;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
 import org.firstinspires.ftc.teamcode.geometry.Pose2d;
 
 /**
  * Lightweight mecanum pose estimator that fuses encoder deltas with an IMU heading.
+ * update() works purely on primitives and copies the wheel positions into its own buffer,
+ * so callers can hand in the same array every loop and nothing gets allocated.
  */
 public class OdometryPoseEstimator {
-    private Pose2d poseEstimate;
+    private final MutablePose2d poseEstimate = new MutablePose2d();
+    private final double[] lastWheelPositions = new double[4];
     private double lastHeading;
-    private double[] lastWheelPositions;
+    // last update's motion in the robot frame, for filters that do their own integration
+    private double lastStrafe;
+    private double lastForward;
+    private double lastHeadingChange;
 
     public OdometryPoseEstimator(Pose2d initialPose, double initialHeading, double[] initialWheelPositions) {
-        this.poseEstimate = initialPose;
-        this.lastHeading = initialHeading;
-        this.lastWheelPositions = initialWheelPositions;
+        reset(initialPose, initialHeading, initialWheelPositions);
     }
 
     public void reset(Pose2d pose, double heading, double[] wheelPositions) {
-        this.poseEstimate = pose;
-        this.lastHeading = heading;
-        this.lastWheelPositions = wheelPositions;
+        poseEstimate.set(pose);
+        lastHeading = heading;
+        System.arraycopy(wheelPositions, 0, lastWheelPositions, 0, lastWheelPositions.length);
+    }
+
+    /** keep the pose but re-anchor the wheel and heading baselines, e.g. after the encoders get zeroed */
+    public void rebase(double heading, double[] wheelPositions) {
+        lastHeading = heading;
+        System.arraycopy(wheelPositions, 0, lastWheelPositions, 0, lastWheelPositions.length);
     }
 
     public void update(double heading, double[] wheelPositions) {
@@ -29,23 +40,61 @@ public class OdometryPoseEstimator {
         double dBackLeft = wheelPositions[2] - lastWheelPositions[2];
         double dBackRight = wheelPositions[3] - lastWheelPositions[3];
 
-        double dXRobot = (dFrontLeft + dFrontRight + dBackLeft + dBackRight) / 4.0;
-        double dYRobot = (dFrontLeft - dFrontRight - dBackLeft + dBackRight) / 4.0;
+        // same frame the trajectories use: x is strafe-right, y is forward, heading CCW from +y
+        double dXRobot = (dFrontLeft - dFrontRight - dBackLeft + dBackRight) / 4.0;
+        double dYRobot = (dFrontLeft + dFrontRight + dBackLeft + dBackRight) / 4.0;
 
-        double avgHeading = lastHeading + AngleUtil.normalizeRadians(heading - lastHeading) / 2.0;
+        double headingChange = AngleUtil.normalizeRadians(heading - lastHeading);
+        double avgHeading = lastHeading + headingChange / 2.0;
         double cos = Math.cos(avgHeading);
         double sin = Math.sin(avgHeading);
 
         double dXField = dXRobot * cos - dYRobot * sin;
         double dYField = dXRobot * sin + dYRobot * cos;
 
-        poseEstimate = new Pose2d(poseEstimate.x + dXField, poseEstimate.y + dYField, heading);
+        poseEstimate.set(poseEstimate.x + dXField, poseEstimate.y + dYField, heading);
 
-        lastWheelPositions = wheelPositions;
+        lastStrafe = dXRobot;
+        lastForward = dYRobot;
+        lastHeadingChange = headingChange;
+        System.arraycopy(wheelPositions, 0, lastWheelPositions, 0, lastWheelPositions.length);
         lastHeading = heading;
     }
 
+    /** strafe (inches, right positive) the last update() measured, robot frame */
+    public double getLastStrafe() {
+        return lastStrafe;
+    }
+
+    /** forward travel (inches) the last update() measured, robot frame */
+    public double getLastForward() {
+        return lastForward;
+    }
+
+    /** heading change (CCW radians) over the last update() */
+    public double getLastHeadingChange() {
+        return lastHeadingChange;
+    }
+
+    /** copies the current estimate into out without allocating */
+    public MutablePose2d getPoseEstimate(MutablePose2d out) {
+        return out.set(poseEstimate);
+    }
+
+    /** immutable copy of the estimate; allocates, so prefer the out-parameter version in loops */
     public Pose2d getPoseEstimate() {
-        return poseEstimate;
+        return poseEstimate.toPose2d();
+    }
+
+    public double getX() {
+        return poseEstimate.x;
+    }
+
+    public double getY() {
+        return poseEstimate.y;
+    }
+
+    public double getHeading() {
+        return poseEstimate.heading;
     }
 }
@@ -0,0 +1,102 @@
+package org.firstinspires.ftc.teamcode.drive;
+
+import org.firstinspires.ftc.teamcode.geometry.AngleUtil;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+
+/**
+ * Fixed-size ring of timestamped poses so "where was the robot when that camera frame was taken" has an answer.
+ * Samples go in oldest to newest (one per odometry update); lookups binary search the ring and interpolate
+ * between the two samples around the asked-for time. Plain arrays, nothing allocated after construction.
+ */
+public class PoseHistory {
+    private final long[] times;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+    private int newest = -1; // ring index of the latest sample
+    private int count = 0;
+
+    public PoseHistory(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Pose history needs room for at least two samples");
+        }
+        times = new long[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        headings = new double[capacity];
+    }
+
+    /** timeNanos has to keep going up; an older or repeated stamp just overwrites the newest sample */
+    public void add(long timeNanos, double x, double y, double heading) {
+        if (count == 0 || timeNanos > times[newest]) {
+            newest = (newest + 1) % times.length;
+            count = Math.min(count + 1, times.length);
+        }
+        times[newest] = timeNanos;
+        xs[newest] = x;
+        ys[newest] = y;
+        headings[newest] = heading;
+    }
+
+    /** forget everything, e.g. after the pose estimate gets reset and old samples are in another frame */
+    public void clear() {
+        newest = -1;
+        count = 0;
+    }
+
+    /**
+     * Moves every sample by the same amount, for when the estimate gets corrected (a tag update) and the
+     * history should follow it instead of making the jump look like motion. Heading shifts without
+     * rotating positions around the robot, fine for the small corrections this is meant for.
+     */
+    public void shift(double dx, double dy, double dHeading) {
+        for (int age = 0; age < count; age++) {
+            int index = indexOf(age);
+            xs[index] += dx;
+            ys[index] += dy;
+            headings[index] = AngleUtil.normalizeRadians(headings[index] + dHeading);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Pose at timeNanos, interpolated. Anything newer than the last sample gets the last sample.
+     * Returns false (and leaves out alone) if there's no history or the time is older than the ring goes back.
+     */
+    public boolean getPoseAt(long timeNanos, MutablePose2d out) {
+        if (count == 0 || timeNanos < times[indexOf(0)]) {
+            return false;
+        }
+        if (timeNanos >= times[newest]) {
+            out.set(xs[newest], ys[newest], headings[newest]);
+            return true;
+        }
+        // find the last sample at or before timeNanos; 0 = oldest in the ring
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (times[indexOf(mid)] <= timeNanos) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int before = indexOf(low);
+        int after = indexOf(low + 1);
+        double fraction = (double) (timeNanos - times[before]) / (times[after] - times[before]);
+        out.set(xs[before] + (xs[after] - xs[before]) * fraction,
+                ys[before] + (ys[after] - ys[before]) * fraction,
+                AngleUtil.normalizeRadians(headings[before]
+                        + AngleUtil.normalizeRadians(headings[after] - headings[before]) * fraction));
+        return true;
+    }
+
+    /** ring index of the age-th oldest sample */
+    private int indexOf(int age) {
+        return (newest - count + 1 + age + times.length) % times.length;
+    }
+}
@@ -0,0 +1,42 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+/**
+ * Reusable pose holder for hot loops where building a new Pose2d every cycle would feed the GC.
+ * Keep one around, overwrite it with set(), and only call toPose2d() when something needs to keep it.
+ */
+public class MutablePose2d {
+    public double x;
+    public double y;
+    public double heading;
+
+    public MutablePose2d() { }
+
+    public MutablePose2d(double x, double y, double heading) {
+        set(x, y, heading);
+    }
+
+    public MutablePose2d set(double x, double y, double heading) {
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+        return this;
+    }
+
+    public MutablePose2d set(Pose2d pose) {
+        return set(pose.x, pose.y, pose.heading);
+    }
+
+    public MutablePose2d set(MutablePose2d pose) {
+        return set(pose.x, pose.y, pose.heading);
+    }
+
+    /** immutable copy; allocates, so keep it out of per-loop code */
+    public Pose2d toPose2d() {
+        return new Pose2d(x, y, heading);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MutablePose2d(x=%.2f, y=%.2f, heading=%.2f)", x, y, heading);
+    }
+}
@@ -0,0 +1,88 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+
+/**
+ * Samples the battery on its own slow thread so the control loop never waits on a voltage read.
+ * Readings are low-pass filtered and published through a volatile, so getVoltage() is just a field read.
+ * getCompensation() turns that into a power multiplier that makes commands feel the same as the battery sags.
+ */
+public class BatteryMonitor {
+    private final RobotHardware robotHardware;
+    private volatile double filteredVoltage = 0.0;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public BatteryMonitor(RobotHardware robotHardware) {
+        this.robotHardware = robotHardware;
+    }
+
+    /** take one blocking sample so the value is valid right away, then keep sampling in the background */
+    public void start() {
+        if (running) {
+            return;
+        }
+        filteredVoltage = robotHardware.getBatteryVoltage();
+        running = true;
+        thread = new Thread(this::sampleLoop, "BatteryMonitor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    /** for replays: use this as the filtered voltage instead of sampling (don't start() the monitor) */
+    public void setVoltage(double volts) {
+        filteredVoltage = volts;
+    }
+
+    /** latest filtered voltage, 0 if no sensor has reported yet */
+    public double getVoltage() {
+        return filteredVoltage;
+    }
+
+    /**
+     * Multiply a power command by this to get the same push it would have at nominal voltage.
+     * Falls back to 1.0 when we have no reading.
+     */
+    public double getCompensation() {
+        double voltage = filteredVoltage;
+        if (voltage <= 0) {
+            return 1.0;
+        }
+        double compensation = RobotConstants.BATTERY_NOMINAL_VOLTAGE / voltage;
+        return Math.max(RobotConstants.BATTERY_MIN_COMPENSATION,
+                Math.min(RobotConstants.BATTERY_MAX_COMPENSATION, compensation));
+    }
+
+    private void sampleLoop() {
+        while (running) {
+            try {
+                Thread.sleep(RobotConstants.BATTERY_SAMPLE_PERIOD_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            double sample = robotHardware.getBatteryVoltage();
+            if (sample <= 0) {
+                continue; // hub hiccup, keep the last good value
+            }
+            double previous = filteredVoltage;
+            filteredVoltage = previous <= 0 ? sample
+                    : previous + (sample - previous) * RobotConstants.BATTERY_FILTER_ALPHA;
+        }
+    }
+
+    /** scale a power by the battery compensation and keep it inside ±1 */
+    public static double compensate(BatteryMonitor monitor, double power) {
+        if (monitor == null) {
+            return power;
+        }
+        return Math.max(-1.0, Math.min(1.0, power * monitor.getCompensation()));
+    }
+}
@@ -0,0 +1,105 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+
+/**
+ * Motor wrapper that remembers what it last sent and skips writes that wouldn't change anything.
+ * Every setPower/setMode/setTargetPosition is a hub command, so calling them every loop with the same
+ * value is pure overhead. A forced resend every ACTUATOR_FORCE_REFRESH_MS keeps us honest in case the
+ * hub ever drops a command. getPower() hands back the cached value instead of asking the hub.
+ * The resend timer runs on the RobotHardware clock, so the sim and replays decide it the same way every run.
+ */
+public class CachingMotor {
+    private final MotorIO motor;
+    private final RobotHardware clock;
+    private final double powerThreshold;
+    private final long forceRefreshNanos;
+
+    private double lastPower = Double.NaN;
+    private long lastPowerWriteNanos = 0;
+    private MotorIO.RunMode lastMode = null;
+    private int lastTargetPosition = Integer.MIN_VALUE;
+
+    private long writes = 0;
+    private long skippedWrites = 0;
+
+    public CachingMotor(MotorIO motor, RobotHardware clock) {
+        this(motor, clock, RobotConstants.MOTOR_POWER_WRITE_THRESHOLD, RobotConstants.ACTUATOR_FORCE_REFRESH_MS);
+    }
+
+    public CachingMotor(MotorIO motor, RobotHardware clock, double powerThreshold, long forceRefreshMs) {
+        this.motor = motor;
+        this.clock = clock;
+        this.powerThreshold = powerThreshold;
+        this.forceRefreshNanos = forceRefreshMs * 1_000_000L;
+    }
+
+    public void setPower(double power) {
+        long now = clock.nanoTime();
+        // always let a real stop through, even if it's within the threshold of the last value
+        boolean stopping = power == 0.0 && lastPower != 0.0;
+        boolean changed = Double.isNaN(lastPower) || Math.abs(power - lastPower) >= powerThreshold;
+        boolean stale = now - lastPowerWriteNanos >= forceRefreshNanos;
+        if (!stopping && !changed && !stale) {
+            skippedWrites++;
+            return;
+        }
+        motor.setPower(power);
+        lastPower = power;
+        lastPowerWriteNanos = now;
+        writes++;
+    }
+
+    /** last power we actually sent; no hub read */
+    public double getPower() {
+        return Double.isNaN(lastPower) ? 0.0 : lastPower;
+    }
+
+    public void setMode(MotorIO.RunMode mode) {
+        if (mode == lastMode && mode != MotorIO.RunMode.STOP_AND_RESET_ENCODER) {
+            skippedWrites++;
+            return;
+        }
+        motor.setMode(mode);
+        lastMode = mode;
+        writes++;
+        if (mode == MotorIO.RunMode.STOP_AND_RESET_ENCODER) {
+            lastPower = Double.NaN; // the hub zeroes power on reset, so our cache is no longer true
+        }
+    }
+
+    public void setTargetPosition(int ticks) {
+        if (ticks == lastTargetPosition) {
+            skippedWrites++;
+            return;
+        }
+        motor.setTargetPosition(ticks);
+        lastTargetPosition = ticks;
+        writes++;
+    }
+
+    public void setReversed(boolean reversed) {
+        motor.setReversed(reversed);
+    }
+
+    public void setBrake(boolean brake) {
+        motor.setBrake(brake);
+    }
+
+    public boolean isBusy() {
+        return motor.isBusy();
+    }
+
+    /** raw motor for reads that aren't cached here (current, etc.) */
+    public MotorIO getMotor() {
+        return motor;
+    }
+
+    public long getWriteCount() {
+        return writes;
+    }
+
+    public long getSkippedWriteCount() {
+        return skippedWrites;
+    }
+}
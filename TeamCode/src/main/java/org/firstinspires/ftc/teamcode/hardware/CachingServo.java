@@ -0,0 +1,58 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+
+/**
+ * Servo twin of CachingMotor: skips setPosition calls that wouldn't move the servo and
+ * still resends the position every ACTUATOR_FORCE_REFRESH_MS (robot clock) just in case.
+ */
+public class CachingServo {
+    private final ServoIO servo;
+    private final RobotHardware clock;
+    private final double positionThreshold;
+    private final long forceRefreshNanos;
+
+    private double lastPosition = Double.NaN;
+    private long lastWriteNanos = 0;
+
+    private long writes = 0;
+    private long skippedWrites = 0;
+
+    public CachingServo(ServoIO servo, RobotHardware clock) {
+        this(servo, clock, RobotConstants.SERVO_POSITION_WRITE_THRESHOLD, RobotConstants.ACTUATOR_FORCE_REFRESH_MS);
+    }
+
+    public CachingServo(ServoIO servo, RobotHardware clock, double positionThreshold, long forceRefreshMs) {
+        this.servo = servo;
+        this.clock = clock;
+        this.positionThreshold = positionThreshold;
+        this.forceRefreshNanos = forceRefreshMs * 1_000_000L;
+    }
+
+    public void setPosition(double position) {
+        long now = clock.nanoTime();
+        boolean changed = Double.isNaN(lastPosition) || Math.abs(position - lastPosition) >= positionThreshold;
+        boolean stale = now - lastWriteNanos >= forceRefreshNanos;
+        if (!changed && !stale) {
+            skippedWrites++;
+            return;
+        }
+        servo.setPosition(position);
+        lastPosition = position;
+        lastWriteNanos = now;
+        writes++;
+    }
+
+    /** last position we sent; servos can't report where they really are anyway */
+    public double getPosition() {
+        return Double.isNaN(lastPosition) ? servo.getPosition() : lastPosition;
+    }
+
+    public long getWriteCount() {
+        return writes;
+    }
+
+    public long getSkippedWriteCount() {
+        return skippedWrites;
+    }
+}
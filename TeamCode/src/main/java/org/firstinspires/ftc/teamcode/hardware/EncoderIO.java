@@ -0,0 +1,11 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+/**
+ * Anything that reports a tick count, usually a motor's encoder port.
+ * Same units as the SDK: ticks and ticks per second.
+ */
+public interface EncoderIO {
+    int getCurrentPosition();
+
+    double getVelocity();
+}
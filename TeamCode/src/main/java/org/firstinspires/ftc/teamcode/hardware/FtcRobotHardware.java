@@ -0,0 +1,210 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.LogoFacingDirection;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.UsbFacingDirection;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The only place that talks to the HardwareMap. Puts the hubs in MANUAL bulk caching and wraps
+ * each device the first time somebody asks for it, so the snapshot and the subsystems share one wrapper.
+ */
+public class FtcRobotHardware implements RobotHardware {
+    private final HardwareMap hardwareMap;
+    private final List<LynxModule> hubs;
+    private final List<VoltageSensor> voltageSensors = new ArrayList<>();
+    private final Map<String, MotorIO> motors = new HashMap<>();
+    private final Map<String, ServoIO> servos = new HashMap<>();
+    private final Map<String, ImuIO> imus = new HashMap<>();
+
+    public FtcRobotHardware(HardwareMap hardwareMap) {
+        this.hardwareMap = hardwareMap;
+        hubs = hardwareMap.getAll(LynxModule.class);
+        for (LynxModule hub : hubs) {
+            hub.setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+        }
+        for (VoltageSensor sensor : hardwareMap.voltageSensor) {
+            voltageSensors.add(sensor);
+        }
+    }
+
+    @Override
+    public MotorIO getMotor(String name) {
+        MotorIO motor = motors.get(name);
+        if (motor == null) {
+            motor = new FtcMotor(hardwareMap.get(DcMotorEx.class, name));
+            motors.put(name, motor);
+        }
+        return motor;
+    }
+
+    @Override
+    public ServoIO getServo(String name) {
+        ServoIO servo = servos.get(name);
+        if (servo == null) {
+            servo = new FtcServo(hardwareMap.get(Servo.class, name));
+            servos.put(name, servo);
+        }
+        return servo;
+    }
+
+    @Override
+    public ImuIO getImu(String name) {
+        ImuIO imu = imus.get(name);
+        if (imu == null) {
+            imu = new FtcImu(hardwareMap.get(IMU.class, name));
+            imus.put(name, imu);
+        }
+        return imu;
+    }
+
+    @Override
+    public void clearBulkCache() {
+        for (int i = 0; i < hubs.size(); i++) {
+            hubs.get(i).clearBulkCache();
+        }
+    }
+
+    /** lowest positive reading across the hubs, same rule the old TeleOp helper used */
+    @Override
+    public double getBatteryVoltage() {
+        double minVoltage = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < voltageSensors.size(); i++) {
+            double voltage = voltageSensors.get(i).getVoltage();
+            if (voltage > 0) {
+                minVoltage = Math.min(minVoltage, voltage);
+            }
+        }
+        return minVoltage == Double.POSITIVE_INFINITY ? 0.0 : minVoltage;
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public int getRecordedReads() {
+        return -1;
+    }
+
+    @Override
+    public void recordReads(int reads) {
+    }
+
+    private static class FtcMotor implements MotorIO {
+        private final DcMotorEx motor;
+
+        FtcMotor(DcMotorEx motor) {
+            this.motor = motor;
+        }
+
+        @Override
+        public int getCurrentPosition() {
+            return motor.getCurrentPosition();
+        }
+
+        @Override
+        public double getVelocity() {
+            return motor.getVelocity();
+        }
+
+        @Override
+        public void setPower(double power) {
+            motor.setPower(power);
+        }
+
+        @Override
+        public void setMode(RunMode mode) {
+            switch (mode) {
+                case RUN_WITHOUT_ENCODER:
+                    motor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+                    break;
+                case RUN_TO_POSITION:
+                    motor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
+                    break;
+                case STOP_AND_RESET_ENCODER:
+                    motor.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+                    break;
+                case RUN_USING_ENCODER:
+                default:
+                    motor.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
+                    break;
+            }
+        }
+
+        @Override
+        public void setTargetPosition(int ticks) {
+            motor.setTargetPosition(ticks);
+        }
+
+        @Override
+        public boolean isBusy() {
+            return motor.isBusy();
+        }
+
+        @Override
+        public void setReversed(boolean reversed) {
+            motor.setDirection(reversed ? DcMotorSimple.Direction.REVERSE : DcMotorSimple.Direction.FORWARD);
+        }
+
+        @Override
+        public void setBrake(boolean brake) {
+            motor.setZeroPowerBehavior(brake ? DcMotor.ZeroPowerBehavior.BRAKE : DcMotor.ZeroPowerBehavior.FLOAT);
+        }
+
+        @Override
+        public double getCurrentAmps() {
+            return motor.getCurrent(CurrentUnit.AMPS);
+        }
+    }
+
+    private static class FtcServo implements ServoIO {
+        private final Servo servo;
+
+        FtcServo(Servo servo) {
+            this.servo = servo;
+        }
+
+        @Override
+        public void setPosition(double position) {
+            servo.setPosition(position);
+        }
+
+        @Override
+        public double getPosition() {
+            return servo.getPosition();
+        }
+    }
+
+    private static class FtcImu implements ImuIO {
+        private final IMU imu;
+
+        FtcImu(IMU imu) {
+            this.imu = imu;
+            // tell the hub how it's actually bolted on so yaw numbers aren't wacky ->
+            imu.initialize(new IMU.Parameters(new RevHubOrientationOnRobot(
+                    LogoFacingDirection.UP, UsbFacingDirection.FORWARD)));
+        }
+
+        @Override
+        public double getYawRadians() {
+            return imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+
+/**
+ * One copy of every encoder/IMU number the subsystems read, refreshed once per loop.
+ * The hubs run in MANUAL bulk caching (FtcRobotHardware sets that up) so refresh() costs one bulk read
+ * per hub instead of a transaction per getter, and drive, slides, and telemetry all see the exact same values.
+ * The reads that aren't in the bulk data (IMU, slide currents) go through a SensorReadScheduler, so each one
+ * happens at its own rate and they share a per-loop I/O budget instead of all landing in every loop.
+ * Call refresh() at the top of every loop (the blocking drive helpers do it for you).
+ * Only one thread may refresh snapshots on the same hubs: when DriveControlThread owns the bulk read, the
+ * OpMode's snapshot gets its slide numbers handed over through setSlideReadings() instead.
+ */
+public class HardwareSnapshot {
+    // wheel order matches OdometryPoseEstimator: FL, FR, BL, BR
+    public static final int FRONT_LEFT = 0;
+    public static final int FRONT_RIGHT = 1;
+    public static final int BACK_LEFT = 2;
+    public static final int BACK_RIGHT = 3;
+
+    private final RobotHardware robotHardware;
+    private final EncoderIO[] driveMotors = new EncoderIO[4];
+    private final MotorIO leftSlide;
+    private final MotorIO rightSlide;
+    private final ImuIO imu;
+    private final SensorReadScheduler reads;
+    private final int imuRead;
+
+    private final int[] drivePositions = new int[4];
+    private final double[] driveVelocities = new double[4];
+    private int leftSlidePosition;
+    private int rightSlidePosition;
+    private double leftSlideVelocity;
+    private double rightSlideVelocity;
+
+    // the IMU is I2C (not part of the bulk read) so it isn't scheduled until someone asks for the heading
+    private double rawYawRadians;
+    private double leftSlideCurrentAmps;
+    private double rightSlideCurrentAmps;
+
+    private long timestampNanos;
+    private long lastLoopNanos;
+    private long refreshCount;
+
+    public HardwareSnapshot(RobotHardware robotHardware) {
+        this.robotHardware = robotHardware;
+        driveMotors[FRONT_LEFT] = robotHardware.getMotor(RobotConstants.FRONT_LEFT_NAME);
+        driveMotors[FRONT_RIGHT] = robotHardware.getMotor(RobotConstants.FRONT_RIGHT_NAME);
+        driveMotors[BACK_LEFT] = robotHardware.getMotor(RobotConstants.BACK_LEFT_NAME);
+        driveMotors[BACK_RIGHT] = robotHardware.getMotor(RobotConstants.BACK_RIGHT_NAME);
+        leftSlide = robotHardware.getMotor(RobotConstants.LEFT_SLIDE_NAME);
+        rightSlide = robotHardware.getMotor(RobotConstants.RIGHT_SLIDE_NAME);
+        imu = robotHardware.getImu(RobotConstants.IMU_NAME);
+
+        // encoders ride the bulk read so they're every loop; the rest are a transaction each
+        reads = new SensorReadScheduler(robotHardware, RobotConstants.SENSOR_READ_BUDGET_MS);
+        reads.add("encoders", 0, 0, 0.0, this::readEncoders);
+        imuRead = reads.add("imu", 1, RobotConstants.IMU_READ_PERIOD_MS, 0.0, this::readImu);
+        reads.setEnabled(imuRead, false);
+        reads.add("left slide current", 2, RobotConstants.SLIDE_CURRENT_READ_PERIOD_MS, 0.0,
+                () -> leftSlideCurrentAmps = leftSlide.getCurrentAmps());
+        reads.add("right slide current", 2, RobotConstants.SLIDE_CURRENT_READ_PERIOD_MS, 0.5,
+                () -> rightSlideCurrentAmps = rightSlide.getCurrentAmps());
+
+        refresh();
+    }
+
+    /** drop the old bulk data, copy out a fresh set of encoder numbers, and do whichever other reads are due */
+    public void refresh() {
+        robotHardware.clearBulkCache();
+        long now = reads.run();
+        lastLoopNanos = refreshCount == 0 ? 0 : now - timestampNanos;
+        timestampNanos = now;
+        refreshCount++;
+    }
+
+    /**
+     * Stands in for refresh() when another thread owns the bulk read: takes the slide numbers that thread's
+     * snapshot read and stamps them with the robot clock, so the slides see a normal loop. Drive wheels and the
+     * IMU aren't filled in, whoever reads them owns their own snapshot.
+     */
+    public void setSlideReadings(int leftPosition, int rightPosition, double leftVelocity, double rightVelocity,
+                                 double leftCurrentAmps, double rightCurrentAmps) {
+        leftSlidePosition = leftPosition;
+        rightSlidePosition = rightPosition;
+        leftSlideVelocity = leftVelocity;
+        rightSlideVelocity = rightVelocity;
+        leftSlideCurrentAmps = leftCurrentAmps;
+        rightSlideCurrentAmps = rightCurrentAmps;
+        long now = robotHardware.nanoTime();
+        lastLoopNanos = now - timestampNanos;
+        timestampNanos = now;
+        refreshCount++;
+    }
+
+    private void readEncoders() {
+        for (int i = 0; i < driveMotors.length; i++) {
+            drivePositions[i] = driveMotors[i].getCurrentPosition();
+            driveVelocities[i] = driveMotors[i].getVelocity();
+        }
+        leftSlidePosition = leftSlide.getCurrentPosition();
+        rightSlidePosition = rightSlide.getCurrentPosition();
+        leftSlideVelocity = leftSlide.getVelocity();
+        rightSlideVelocity = rightSlide.getVelocity();
+    }
+
+    private void readImu() {
+        rawYawRadians = imu.getYawRadians();
+    }
+
+    public int getDrivePosition(int wheel) {
+        return drivePositions[wheel];
+    }
+
+    public double getDriveVelocity(int wheel) {
+        return driveVelocities[wheel];
+    }
+
+    public int getLeftSlidePosition() {
+        return leftSlidePosition;
+    }
+
+    public int getRightSlidePosition() {
+        return rightSlidePosition;
+    }
+
+    public double getLeftSlideVelocity() {
+        return leftSlideVelocity;
+    }
+
+    public double getRightSlideVelocity() {
+        return rightSlideVelocity;
+    }
+
+    /** raw IMU yaw in radians, at most IMU_READ_PERIOD_MS old; the first call reads it on the spot */
+    public double getRawYawRadians() {
+        if (!reads.isEnabled(imuRead)) {
+            reads.runNow(imuRead); // so the next refresh() doesn't read it again right away
+        }
+        return rawYawRadians;
+    }
+
+    /** slide motor currents, each at most SLIDE_CURRENT_READ_PERIOD_MS old (or late, if the budget ran out) */
+    public double getLeftSlideCurrentAmps() {
+        return leftSlideCurrentAmps;
+    }
+
+    public double getRightSlideCurrentAmps() {
+        return rightSlideCurrentAmps;
+    }
+
+    /** for reporting how the reads fit into the loop */
+    public SensorReadScheduler getReadScheduler() {
+        return reads;
+    }
+
+    /** robot clock when the last refresh() started its reads, handy for stamping whatever we computed from it */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /** time between the last two refresh() calls, i.e. one full loop */
+    public double getLoopTimeMs() {
+        return lastLoopNanos / 1e6;
+    }
+
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+}
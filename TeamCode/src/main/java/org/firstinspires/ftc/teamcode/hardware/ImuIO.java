@@ -0,0 +1,6 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+/** only yaw matters for a flat drivetrain; counter-clockwise positive, like the SDK's IMU */
+public interface ImuIO {
+    double getYawRadians();
+}
@@ -0,0 +1,32 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+/**
+ * The slice of DcMotorEx the subsystems actually use, with no SDK types in it so the same
+ * subsystem code runs against a real hub (FtcRobotHardware) or the simulator (SimRobotHardware).
+ */
+public interface MotorIO extends EncoderIO {
+    /** mirrors DcMotor.RunMode, minus the modes we never touch */
+    enum RunMode {
+        RUN_WITHOUT_ENCODER,
+        RUN_USING_ENCODER,
+        RUN_TO_POSITION,
+        STOP_AND_RESET_ENCODER
+    }
+
+    void setPower(double power);
+
+    void setMode(RunMode mode);
+
+    void setTargetPosition(int ticks);
+
+    boolean isBusy();
+
+    /** true flips both the power sign and the encoder sign, like Direction.REVERSE */
+    void setReversed(boolean reversed);
+
+    /** true = BRAKE, false = FLOAT when the power is zero */
+    void setBrake(boolean brake);
+
+    /** not part of the bulk read on a real hub, so every call is its own transaction */
+    double getCurrentAmps();
+}
@@ -0,0 +1,32 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+/**
+ * Where subsystems get their devices from instead of calling hardwareMap.get() themselves.
+ * FtcRobotHardware hands out wrappers around the real hub devices; SimRobotHardware hands out
+ * simulated ones. Asking for the same name twice returns the same object.
+ */
+public interface RobotHardware {
+    MotorIO getMotor(String name);
+
+    ServoIO getServo(String name);
+
+    ImuIO getImu(String name);
+
+    /** throw away the cached bulk read so the next encoder read gets fresh numbers */
+    void clearBulkCache();
+
+    /** lowest hub voltage, 0 if nothing reported; blocking on a real robot so keep it off the loop thread */
+    double getBatteryVoltage();
+
+    /** robot clock; System.nanoTime() on the robot, simulated time in the sim */
+    long nanoTime();
+
+    /**
+     * Which of a SensorReadScheduler's reads (a bit per read id) to do this loop instead of deciding: a replay
+     * hands back the ones the robot did in the recorded loop, everything else returns -1.
+     */
+    int getRecordedReads();
+
+    /** the reads a SensorReadScheduler did this loop (a bit per read id); recordings keep it */
+    void recordReads(int reads);
+}
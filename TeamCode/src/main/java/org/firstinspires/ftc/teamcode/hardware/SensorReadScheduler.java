@@ -0,0 +1,177 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import org.firstinspires.ftc.teamcode.util.TelemetrySink;
+import org.firstinspires.ftc.teamcode.util.TelemetrySource;
+
+/**
+ * Decides which hardware reads happen in each loop. Every read has a priority (0 goes first) and a period:
+ * period 0 means every loop no matter what (the bulk encoder read), anything else runs once it's due and
+ * only if its usual cost still fits in the loop's I/O budget, so the slow non-bulk reads (currents, IMU) get
+ * spread out over several loops instead of piling up in one. Reads with the same period can be staggered
+ * (see add()) so they take turns. A read that's been put off for a whole extra period goes anyway, and the
+ * loop gets counted as over budget.
+ * Costs are timed with the robot's clock, so in the sim reads are free and nothing gets put off. On the robot
+ * the choice depends on timing, so each loop's reads go to RobotHardware.recordReads(), and when
+ * getRecordedReads() hands a set back (a replay) run() does exactly those instead of deciding. First due times count from the
+ * first run(), not from when the read was added, so they don't depend on how long init took either.
+ * Register reads during init; run() allocates nothing.
+ */
+public class SensorReadScheduler implements TelemetrySource {
+    public static final int MAX_READS = 16;
+
+    private static final double COST_SMOOTHING = 0.25;
+
+    private final RobotHardware clock;
+    private final long budgetNanos;
+    private final String[] names = new String[MAX_READS];
+    private final Runnable[] reads = new Runnable[MAX_READS];
+    private final int[] priorities = new int[MAX_READS];
+    private final long[] periodNanos = new long[MAX_READS];
+    private final long[] nextDueNanos = new long[MAX_READS];
+    private final long[] firstDueNanos = new long[MAX_READS]; // after the next run() starts, see seed
+    private final boolean[] seed = new boolean[MAX_READS]; // nextDueNanos gets set at the next run()
+    private final double[] costNanos = new double[MAX_READS]; // smoothed, what the budget check uses
+    private final boolean[] enabled = new boolean[MAX_READS];
+    private final int[] order = new int[MAX_READS]; // ids sorted by priority
+    private int readCount = 0;
+
+    private long lastIoNanos = 0;
+    private long loops = 0;
+    private long overBudgetLoops = 0;
+    private long deferredReads = 0;
+
+    public SensorReadScheduler(RobotHardware clock, double budgetMs) {
+        this.clock = clock;
+        budgetNanos = (long) (budgetMs * 1e6);
+    }
+
+    /**
+     * Registers a read; the returned id is what setEnabled() takes. phase (0-1) pushes the first due time
+     * back by that fraction of the period, e.g. 0 and 0.5 for two reads that should alternate.
+     */
+    public int add(String name, int priority, long periodMs, double phase, Runnable read) {
+        if (readCount >= MAX_READS) {
+            throw new IllegalStateException("SensorReadScheduler only holds " + MAX_READS + " reads");
+        }
+        int id = readCount++;
+        names[id] = name;
+        reads[id] = read;
+        priorities[id] = priority;
+        periodNanos[id] = periodMs * 1_000_000L;
+        firstDueNanos[id] = (long) (phase * periodNanos[id]);
+        seed[id] = true;
+        enabled[id] = true;
+
+        // insertion sort, ties keep the order they were added in
+        int i = id;
+        while (i > 0 && priorities[order[i - 1]] > priority) {
+            order[i] = order[i - 1];
+            i--;
+        }
+        order[i] = id;
+        return id;
+    }
+
+    /** disabled reads are skipped until enabled again (and are due right away then) */
+    public void setEnabled(int id, boolean on) {
+        if (on && !enabled[id]) {
+            firstDueNanos[id] = 0;
+            seed[id] = true;
+        }
+        enabled[id] = on;
+    }
+
+    public boolean isEnabled(int id) {
+        return enabled[id];
+    }
+
+    /** does a read on the spot, outside run() (enabling it if it was off); the next one is a full period out */
+    public void runNow(int id) {
+        enabled[id] = true;
+        reads[id].run();
+        nextDueNanos[id] = clock.nanoTime() + periodNanos[id];
+        seed[id] = false;
+    }
+
+    /** once per loop, right after clearBulkCache(); returns when this loop's reads started */
+    public long run() {
+        long start = clock.nanoTime();
+        long now = start;
+        int recorded = clock.getRecordedReads();
+        int done = 0;
+        for (int i = 0; i < readCount; i++) {
+            int id = order[i];
+            if (seed[id]) {
+                nextDueNanos[id] = start + firstDueNanos[id];
+                seed[id] = false;
+            }
+            long period = periodNanos[id];
+            if (recorded >= 0) {
+                if ((recorded & (1 << id)) == 0) {
+                    continue; // replaying: the robot didn't do this one this loop
+                }
+            } else {
+                if (!enabled[id]) {
+                    continue;
+                }
+                if (period > 0) {
+                    if (start < nextDueNanos[id]) {
+                        continue;
+                    }
+                    boolean starved = start - nextDueNanos[id] >= period;
+                    if (!starved && now - start + costNanos[id] > budgetNanos) {
+                        deferredReads++;
+                        continue; // still due, so it goes first among its priority next loop
+                    }
+                }
+            }
+            reads[id].run();
+            done |= 1 << id;
+            long end = clock.nanoTime();
+            costNanos[id] += (end - now - costNanos[id]) * (costNanos[id] == 0 ? 1.0 : COST_SMOOTHING);
+            now = end;
+            if (period > 0) {
+                nextDueNanos[id] += period;
+                if (nextDueNanos[id] <= start) {
+                    nextDueNanos[id] = start + period; // fell behind; don't try to catch up with a burst
+                }
+            }
+        }
+        clock.recordReads(done);
+        lastIoNanos = now - start;
+        loops++;
+        if (lastIoNanos > budgetNanos) {
+            overBudgetLoops++;
+        }
+        return start;
+    }
+
+    /** time the last run() spent reading */
+    public double getLastIoMs() {
+        return lastIoNanos / 1e6;
+    }
+
+    public long getOverBudgetLoops() {
+        return overBudgetLoops;
+    }
+
+    /** due reads that got pushed to a later loop to stay inside the budget */
+    public long getDeferredReads() {
+        return deferredReads;
+    }
+
+    public long getLoopCount() {
+        return loops;
+    }
+
+    /** smoothed cost of one read */
+    public double getReadCostMs(int id) {
+        return costNanos[id] / 1e6;
+    }
+
+    @Override
+    public void addTelemetry(TelemetrySink telemetry) {
+        telemetry.addData("Sensor I/O (ms)", "%.1f / %.1f, %d of %d loops over, %d put off",
+                getLastIoMs(), budgetNanos / 1e6, overBudgetLoops, loops, deferredReads);
+    }
+}
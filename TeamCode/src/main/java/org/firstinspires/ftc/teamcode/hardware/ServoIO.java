@@ -0,0 +1,8 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+/** standard 0-1 positional servo */
+public interface ServoIO {
+    void setPosition(double position);
+
+    double getPosition();
+}
@@ -0,0 +1,157 @@
+package org.firstinspires.ftc.teamcode.record;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.util.GamepadState;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Everything one control loop saw and did, as plain fields with a fixed binary layout (BYTES long, big-endian).
+ * Inputs: clock, encoders, slide currents, IMU yaw, which scheduled reads ran, battery, both gamepads, vision.
+ * Outputs: the power, target, and run mode last sent to each motor and the gate position. The pose estimate
+ * rides along so a replay can be compared with what the robot thought at the time. Bump VERSION whenever the
+ * layout changes.
+ */
+public class LoopFrame {
+    public static final int VERSION = 2;
+
+    // motor slots; the drive wheels use the HardwareSnapshot order
+    public static final int FRONT_LEFT = 0;
+    public static final int FRONT_RIGHT = 1;
+    public static final int BACK_LEFT = 2;
+    public static final int BACK_RIGHT = 3;
+    public static final int LEFT_SLIDE = 4;
+    public static final int RIGHT_SLIDE = 5;
+    public static final int INTAKE = 6;
+    public static final int MOTOR_COUNT = 7;
+
+    private static final int MOTOR_BYTES = 4 + 8 + 8 + 8 + 4 + 1;
+    private static final int GAMEPAD_BYTES = 6 * 4 + 4;
+    public static final int BYTES = 8 + MOTOR_COUNT * MOTOR_BYTES + 8 + 8 + 2 * GAMEPAD_BYTES
+            + 4 + 8 + 4 + 8 + 8 + 8 + 8 + 3 * 8 + 4;
+
+    public long timestampNanos;
+
+    public final int[] positions = new int[MOTOR_COUNT];
+    public final double[] velocities = new double[MOTOR_COUNT];
+    public final double[] currentAmps = new double[MOTOR_COUNT];
+    public double yawRadians;
+    public int scheduledReads; // SensorReadScheduler reads done this loop, a bit per read id
+    public double batteryVoltage;
+    public final GamepadState gamepad1 = new GamepadState();
+    public final GamepadState gamepad2 = new GamepadState();
+
+    public int motif = -1; // DetectedMotif ordinal, -1 = nothing yet
+    public long tagFrameSequence = -1; // -1 = no backdrop tag in view
+    public int tagId;
+    public long tagCaptureNanos;
+    public double tagRangeMeters;
+    public double tagLateralMeters;
+
+    public final double[] powers = new double[MOTOR_COUNT];
+    public final int[] targetPositions = new int[MOTOR_COUNT];
+    public final byte[] runModes = new byte[MOTOR_COUNT]; // MotorIO.RunMode ordinal
+    public double gatePosition;
+
+    public double poseX;
+    public double poseY;
+    public double poseHeading;
+
+    /** slot for a configured motor name, -1 if it isn't one we record */
+    public static int motorSlot(String name) {
+        switch (name) {
+            case RobotConstants.FRONT_LEFT_NAME:
+                return FRONT_LEFT;
+            case RobotConstants.FRONT_RIGHT_NAME:
+                return FRONT_RIGHT;
+            case RobotConstants.BACK_LEFT_NAME:
+                return BACK_LEFT;
+            case RobotConstants.BACK_RIGHT_NAME:
+                return BACK_RIGHT;
+            case RobotConstants.LEFT_SLIDE_NAME:
+                return LEFT_SLIDE;
+            case RobotConstants.RIGHT_SLIDE_NAME:
+                return RIGHT_SLIDE;
+            case RobotConstants.INTAKE_NAME:
+                return INTAKE;
+            default:
+                return -1;
+        }
+    }
+
+    /** writes exactly BYTES at the buffer's position */
+    public void write(ByteBuffer out) {
+        out.putLong(timestampNanos);
+        for (int i = 0; i < MOTOR_COUNT; i++) {
+            out.putInt(positions[i]);
+            out.putDouble(velocities[i]);
+            out.putDouble(currentAmps[i]);
+            out.putDouble(powers[i]);
+            out.putInt(targetPositions[i]);
+            out.put(runModes[i]);
+        }
+        out.putDouble(yawRadians);
+        out.putDouble(batteryVoltage);
+        writeGamepad(out, gamepad1);
+        writeGamepad(out, gamepad2);
+        out.putInt(motif);
+        out.putLong(tagFrameSequence);
+        out.putInt(tagId);
+        out.putLong(tagCaptureNanos);
+        out.putDouble(tagRangeMeters);
+        out.putDouble(tagLateralMeters);
+        out.putDouble(gatePosition);
+        out.putDouble(poseX);
+        out.putDouble(poseY);
+        out.putDouble(poseHeading);
+        out.putInt(scheduledReads);
+    }
+
+    /** reads exactly BYTES from the buffer's position */
+    public void read(ByteBuffer in) {
+        timestampNanos = in.getLong();
+        for (int i = 0; i < MOTOR_COUNT; i++) {
+            positions[i] = in.getInt();
+            velocities[i] = in.getDouble();
+            currentAmps[i] = in.getDouble();
+            powers[i] = in.getDouble();
+            targetPositions[i] = in.getInt();
+            runModes[i] = in.get();
+        }
+        yawRadians = in.getDouble();
+        batteryVoltage = in.getDouble();
+        readGamepad(in, gamepad1);
+        readGamepad(in, gamepad2);
+        motif = in.getInt();
+        tagFrameSequence = in.getLong();
+        tagId = in.getInt();
+        tagCaptureNanos = in.getLong();
+        tagRangeMeters = in.getDouble();
+        tagLateralMeters = in.getDouble();
+        gatePosition = in.getDouble();
+        poseX = in.getDouble();
+        poseY = in.getDouble();
+        poseHeading = in.getDouble();
+        scheduledReads = in.getInt();
+    }
+
+    private static void writeGamepad(ByteBuffer out, GamepadState gamepad) {
+        out.putFloat(gamepad.leftStickX);
+        out.putFloat(gamepad.leftStickY);
+        out.putFloat(gamepad.rightStickX);
+        out.putFloat(gamepad.rightStickY);
+        out.putFloat(gamepad.leftTrigger);
+        out.putFloat(gamepad.rightTrigger);
+        out.putInt(gamepad.getButtons());
+    }
+
+    private static void readGamepad(ByteBuffer in, GamepadState gamepad) {
+        gamepad.leftStickX = in.getFloat();
+        gamepad.leftStickY = in.getFloat();
+        gamepad.rightStickX = in.getFloat();
+        gamepad.rightStickY = in.getFloat();
+        gamepad.leftTrigger = in.getFloat();
+        gamepad.rightTrigger = in.getFloat();
+        gamepad.setButtons(in.getInt());
+    }
+}
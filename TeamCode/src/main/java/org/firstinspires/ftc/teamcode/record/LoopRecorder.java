@@ -0,0 +1,155 @@
+package org.firstinspires.ftc.teamcode.record;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records one LoopFrame per control loop into a preallocated ring of bytes; a background thread drains the
+ * ring to a file every flushPeriodMs. The loop thread only copies bytes into the ring and bumps an atomic
+ * counter, so it never waits on the file system. If the writer falls a whole ring behind, frames get dropped
+ * (and counted) instead of blocking the loop.
+ * File layout: MAGIC, LoopFrame.VERSION, LoopFrame.BYTES (ints), then frames back to back.
+ */
+public class LoopRecorder {
+    public static final int MAGIC = 0x4C4F4F50; // "LOOP"
+
+    private final int capacity;
+    private final long flushPeriodNanos;
+    private final byte[] ring;
+    private final ByteBuffer ringView;
+    private final LoopFrame frame = new LoopFrame();
+    private final AtomicLong committed = new AtomicLong(); // frames handed to the writer
+    private final AtomicLong flushed = new AtomicLong();   // frames that made it to the file
+    private boolean frameOpen = false;
+    private long droppedFrames = 0;
+
+    private volatile boolean running = false;
+    private volatile IOException error;
+    private Thread writer;
+
+    public LoopRecorder(int capacityFrames, long flushPeriodMs) {
+        capacity = capacityFrames;
+        flushPeriodNanos = flushPeriodMs * 1_000_000L;
+        ring = new byte[capacityFrames * LoopFrame.BYTES];
+        ringView = ByteBuffer.wrap(ring);
+    }
+
+    /** creates (or truncates) the file, writes the header, and starts the writer thread */
+    public void start(File file) throws IOException {
+        if (running) {
+            return;
+        }
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Couldn't create " + parent);
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        out.writeInt(MAGIC);
+        out.writeInt(LoopFrame.VERSION);
+        out.writeInt(LoopFrame.BYTES);
+        running = true;
+        writer = new Thread(() -> writeLoop(out), "LoopRecorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** the frame being filled in for the current loop; outputs carry over from one loop to the next */
+    public LoopFrame getFrame() {
+        return frame;
+    }
+
+    /** loop boundary: hands the current frame to the writer (if a loop was open) and starts the next one */
+    public void nextFrame() {
+        if (frameOpen) {
+            commit();
+        }
+        frameOpen = true;
+    }
+
+    /** records the open frame, then stops the writer once everything is on disk */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        if (frameOpen) {
+            commit();
+            frameOpen = false;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    public long getFrameCount() {
+        return committed.get();
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /** whatever stopped the writer, null if it's fine */
+    public IOException getError() {
+        return error;
+    }
+
+    private void commit() {
+        long index = committed.get();
+        if (!running || index - flushed.get() >= capacity) {
+            droppedFrames++;
+            return;
+        }
+        ringView.position((int) (index % capacity) * LoopFrame.BYTES);
+        frame.write(ringView);
+        committed.set(index + 1); // volatile write, so the writer sees the bytes before the count
+    }
+
+    private void writeLoop(OutputStream out) {
+        try {
+            while (true) {
+                long start = flushed.get();
+                long end = committed.get();
+                if (start == end) {
+                    if (!running) {
+                        // stop() commits the last frame and then clears running, maybe after end was read
+                        if (committed.get() == end) {
+                            break;
+                        }
+                        continue;
+                    }
+                    LockSupport.parkNanos(flushPeriodNanos);
+                    continue;
+                }
+                // up to the end of the ring; the wrapped part goes out next time around
+                int first = (int) (start % capacity);
+                int count = (int) Math.min(end - start, capacity - first);
+                out.write(ring, first * LoopFrame.BYTES, count * LoopFrame.BYTES);
+                flushed.set(start + count);
+            }
+            out.flush();
+        } catch (IOException e) {
+            error = e;
+            running = false; // later frames just count as dropped
+        } finally {
+            try {
+                out.close();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.firstinspires.ftc.teamcode.record;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** streams the frames of a LoopRecorder file back, one at a time into the caller's frame */
+public class LoopRecordingReader implements Closeable {
+    private final DataInputStream in;
+    private final byte[] bytes = new byte[LoopFrame.BYTES];
+    private final ByteBuffer view = ByteBuffer.wrap(bytes);
+    private long framesRead = 0;
+
+    public LoopRecordingReader(File file) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != LoopRecorder.MAGIC) {
+                throw new IOException(file + " isn't a loop recording");
+            }
+            int version = in.readInt();
+            int frameBytes = in.readInt();
+            if (version != LoopFrame.VERSION || frameBytes != LoopFrame.BYTES) {
+                throw new IOException(file + " is recording version " + version + " (" + frameBytes
+                        + " bytes a frame), this build reads version " + LoopFrame.VERSION);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /** false at the end of the file; a frame cut off by a crash counts as the end too */
+    public boolean next(LoopFrame out) throws IOException {
+        try {
+            in.readFully(bytes);
+        } catch (EOFException e) {
+            return false;
+        }
+        view.clear();
+        out.read(view);
+        framesRead++;
+        return true;
+    }
+
+    public long getFramesRead() {
+        return framesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,192 @@
+package org.firstinspires.ftc.teamcode.record;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.hardware.ImuIO;
+import org.firstinspires.ftc.teamcode.hardware.MotorIO;
+import org.firstinspires.ftc.teamcode.hardware.RobotHardware;
+import org.firstinspires.ftc.teamcode.hardware.ServoIO;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sits between the subsystems and the real RobotHardware and writes every read and write that crosses it
+ * into the recorder's frame. clearBulkCache() (the start of HardwareSnapshot.refresh()) is the loop boundary,
+ * and the first clock and current reads after it are the ones kept, since a replay hands the same value back
+ * to every read in that loop. Loop thread only: the battery monitor's background reads go straight through
+ * unrecorded, and the drive thread mode shouldn't be recorded at all.
+ */
+public class RecordingRobotHardware implements RobotHardware {
+    private final RobotHardware robotHardware;
+    private final LoopRecorder recorder;
+    private final LoopFrame frame;
+    private final Map<String, MotorIO> motors = new HashMap<>();
+    private final Map<String, ServoIO> servos = new HashMap<>();
+    private final Map<String, ImuIO> imus = new HashMap<>();
+    private boolean timestampTaken = false;
+    private final boolean[] currentTaken = new boolean[LoopFrame.MOTOR_COUNT];
+
+    public RecordingRobotHardware(RobotHardware robotHardware, LoopRecorder recorder) {
+        this.robotHardware = robotHardware;
+        this.recorder = recorder;
+        frame = recorder.getFrame();
+    }
+
+    @Override
+    public MotorIO getMotor(String name) {
+        MotorIO motor = motors.get(name);
+        if (motor == null) {
+            MotorIO inner = robotHardware.getMotor(name);
+            int slot = LoopFrame.motorSlot(name);
+            motor = slot < 0 ? inner : new RecordingMotor(inner, slot);
+            motors.put(name, motor);
+        }
+        return motor;
+    }
+
+    @Override
+    public ServoIO getServo(String name) {
+        ServoIO servo = servos.get(name);
+        if (servo == null) {
+            ServoIO inner = robotHardware.getServo(name);
+            servo = name.equals(RobotConstants.GATE_SERVO_NAME) ? new RecordingGate(inner) : inner;
+            servos.put(name, servo);
+        }
+        return servo;
+    }
+
+    @Override
+    public ImuIO getImu(String name) {
+        ImuIO imu = imus.get(name);
+        if (imu == null) {
+            ImuIO inner = robotHardware.getImu(name);
+            imu = () -> {
+                frame.yawRadians = inner.getYawRadians();
+                return frame.yawRadians;
+            };
+            imus.put(name, imu);
+        }
+        return imu;
+    }
+
+    @Override
+    public void clearBulkCache() {
+        recorder.nextFrame();
+        timestampTaken = false;
+        for (int i = 0; i < currentTaken.length; i++) {
+            currentTaken[i] = false;
+        }
+        robotHardware.clearBulkCache();
+    }
+
+    @Override
+    public double getBatteryVoltage() {
+        return robotHardware.getBatteryVoltage();
+    }
+
+    @Override
+    public long nanoTime() {
+        long now = robotHardware.nanoTime();
+        if (!timestampTaken) {
+            frame.timestampNanos = now;
+            timestampTaken = true;
+        }
+        return now;
+    }
+
+    @Override
+    public int getRecordedReads() {
+        return -1;
+    }
+
+    /** so a replay does the same non-bulk reads in the same loops, whatever they cost on the robot */
+    @Override
+    public void recordReads(int reads) {
+        frame.scheduledReads = reads;
+    }
+
+    private class RecordingMotor implements MotorIO {
+        private final MotorIO motor;
+        private final int slot;
+
+        RecordingMotor(MotorIO motor, int slot) {
+            this.motor = motor;
+            this.slot = slot;
+        }
+
+        @Override
+        public int getCurrentPosition() {
+            frame.positions[slot] = motor.getCurrentPosition();
+            return frame.positions[slot];
+        }
+
+        @Override
+        public double getVelocity() {
+            frame.velocities[slot] = motor.getVelocity();
+            return frame.velocities[slot];
+        }
+
+        /** every call is a fresh hub read; the first one in a loop is what the safety checks saw, so keep that */
+        @Override
+        public double getCurrentAmps() {
+            double amps = motor.getCurrentAmps();
+            if (!currentTaken[slot]) {
+                frame.currentAmps[slot] = amps;
+                currentTaken[slot] = true;
+            }
+            return amps;
+        }
+
+        @Override
+        public void setPower(double power) {
+            frame.powers[slot] = power;
+            motor.setPower(power);
+        }
+
+        @Override
+        public void setMode(RunMode mode) {
+            frame.runModes[slot] = (byte) mode.ordinal();
+            motor.setMode(mode);
+        }
+
+        @Override
+        public void setTargetPosition(int ticks) {
+            frame.targetPositions[slot] = ticks;
+            motor.setTargetPosition(ticks);
+        }
+
+        @Override
+        public boolean isBusy() {
+            return motor.isBusy();
+        }
+
+        @Override
+        public void setReversed(boolean reversed) {
+            motor.setReversed(reversed);
+        }
+
+        @Override
+        public void setBrake(boolean brake) {
+            motor.setBrake(brake);
+        }
+    }
+
+    private class RecordingGate implements ServoIO {
+        private final ServoIO servo;
+
+        RecordingGate(ServoIO servo) {
+            this.servo = servo;
+        }
+
+        @Override
+        public void setPosition(double position) {
+            frame.gatePosition = position;
+            servo.setPosition(position);
+        }
+
+        @Override
+        public double getPosition() {
+            return servo.getPosition();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.firstinspires.ftc.teamcode.record;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.hardware.ImuIO;
+import org.firstinspires.ftc.teamcode.hardware.MotorIO;
+import org.firstinspires.ftc.teamcode.hardware.RobotHardware;
+import org.firstinspires.ftc.teamcode.hardware.ServoIO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RobotHardware that plays a recording back: every clearBulkCache() (so every HardwareSnapshot.refresh())
+ * steps to the next frame, and reads return exactly what the robot read in that loop, clock included.
+ * Whatever the code writes goes into getReplayedFrame() so it can be compared with what the robot actually
+ * sent. Nothing depends on wall time, so the same recording always replays the same way: even the
+ * SensorReadScheduler does the reads the robot did in each loop instead of deciding again.
+ */
+public class ReplayRobotHardware implements RobotHardware {
+    private final LoopRecordingReader reader;
+    private final LoopFrame recorded = new LoopFrame();
+    private final LoopFrame replayed = new LoopFrame();
+    private final Map<String, MotorIO> motors = new HashMap<>();
+    private final ServoIO gate = new ServoIO() {
+        @Override
+        public void setPosition(double position) {
+            replayed.gatePosition = position;
+        }
+
+        @Override
+        public double getPosition() {
+            return replayed.gatePosition;
+        }
+    };
+    private final ImuIO imu = () -> recorded.yawRadians;
+    private boolean finished = false;
+
+    public ReplayRobotHardware(LoopRecordingReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public MotorIO getMotor(String name) {
+        MotorIO motor = motors.get(name);
+        if (motor == null) {
+            int slot = LoopFrame.motorSlot(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Motor " + name + " isn't in recordings");
+            }
+            motor = new ReplayMotor(slot);
+            motors.put(name, motor);
+        }
+        return motor;
+    }
+
+    @Override
+    public ServoIO getServo(String name) {
+        if (!name.equals(RobotConstants.GATE_SERVO_NAME)) {
+            throw new IllegalArgumentException("Servo " + name + " isn't in recordings");
+        }
+        return gate;
+    }
+
+    @Override
+    public ImuIO getImu(String name) {
+        return imu;
+    }
+
+    /** next loop's readings; past the last frame it keeps the last one and isFinished() turns true */
+    @Override
+    public void clearBulkCache() {
+        if (finished) {
+            return;
+        }
+        try {
+            finished = !reader.next(recorded);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public double getBatteryVoltage() {
+        return recorded.batteryVoltage;
+    }
+
+    @Override
+    public long nanoTime() {
+        return recorded.timestampNanos;
+    }
+
+    @Override
+    public int getRecordedReads() {
+        return recorded.scheduledReads;
+    }
+
+    @Override
+    public void recordReads(int reads) {
+        replayed.scheduledReads = reads;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /** what the robot read and sent in the current loop (gamepads, vision, and pose too) */
+    public LoopFrame getRecordedFrame() {
+        return recorded;
+    }
+
+    /** what the code under replay has sent so far */
+    public LoopFrame getReplayedFrame() {
+        return replayed;
+    }
+
+    private class ReplayMotor implements MotorIO {
+        private final int slot;
+
+        ReplayMotor(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public int getCurrentPosition() {
+            return recorded.positions[slot];
+        }
+
+        @Override
+        public double getVelocity() {
+            return recorded.velocities[slot];
+        }
+
+        @Override
+        public double getCurrentAmps() {
+            return recorded.currentAmps[slot];
+        }
+
+        @Override
+        public void setPower(double power) {
+            replayed.powers[slot] = power;
+        }
+
+        @Override
+        public void setMode(RunMode mode) {
+            replayed.runModes[slot] = (byte) mode.ordinal();
+        }
+
+        @Override
+        public void setTargetPosition(int ticks) {
+            replayed.targetPositions[slot] = ticks;
+        }
+
+        @Override
+        public boolean isBusy() {
+            // not recorded; close enough to the hub's answer for anything that only replays
+            return replayed.runModes[slot] == RunMode.RUN_TO_POSITION.ordinal()
+                    && Math.abs(replayed.targetPositions[slot] - recorded.positions[slot]) > 10;
+        }
+
+        @Override
+        public void setReversed(boolean reversed) {
+            // positions were recorded after the reverse flag, nothing to flip here
+        }
+
+        @Override
+        public void setBrake(boolean brake) {
+        }
+    }
+}
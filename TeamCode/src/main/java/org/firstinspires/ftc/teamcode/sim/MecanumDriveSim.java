@@ -0,0 +1,124 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.geometry.AngleUtil;
+
+/**
+ * Kinematic mecanum drivetrain. Each step it reads the four motors' applied power, turns that into a
+ * target body velocity, lags toward it with a first-order time constant (stand-in for mass + motor torque),
+ * integrates the true field pose, and writes matching encoder counts back into the motors.
+ *
+ * Field frame: x to the right, y forward, heading counter-clockwise positive with 0 facing +y,
+ * the same frame TrajectoryBuilder paths are written in. No wheel slip, so odometry can be perfect.
+ */
+public class MecanumDriveSim {
+    public static final double DRIVE_MOTOR_FREE_RPM = 312.0; // goBILDA yellow jacket, matches DRIVE_TICKS_PER_REV
+    public static final double DRIVE_LOADED_SPEED_RATIO = 0.85; // top speed on carpet vs free speed
+    public static final double DRIVE_TIME_CONSTANT_S = 0.15; // how long to reach ~63% of a new speed
+    public static final double DRIVE_COAST_TIME_CONSTANT_S = 0.6; // zero power with FLOAT instead of BRAKE
+    public static final double DRIVE_STALL_AMPS = 9.2;
+
+    public static final double FREE_SPEED_TICKS_PER_S =
+            RobotConstants.DRIVE_TICKS_PER_REV * RobotConstants.DRIVE_GEAR_RATIO * DRIVE_MOTOR_FREE_RPM / 60.0;
+    public static final double MAX_WHEEL_SPEED_IN_PER_S =
+            FREE_SPEED_TICKS_PER_S / RobotConstants.DRIVE_TICKS_PER_INCH * DRIVE_LOADED_SPEED_RATIO;
+    // half track width + half wheel base, the lever arm for turning on a mecanum base
+    private static final double TURN_RADIUS_IN =
+            (RobotConstants.DRIVE_TRACK_WIDTH_IN + RobotConstants.DRIVE_WHEEL_BASE_IN) / 2.0;
+
+    private final SimMotor frontLeft = new SimMotor(FREE_SPEED_TICKS_PER_S);
+    private final SimMotor frontRight = new SimMotor(FREE_SPEED_TICKS_PER_S);
+    private final SimMotor backLeft = new SimMotor(FREE_SPEED_TICKS_PER_S);
+    private final SimMotor backRight = new SimMotor(FREE_SPEED_TICKS_PER_S);
+
+    // true robot state
+    private double x = 0.0;
+    private double y = 0.0;
+    private double heading = 0.0;
+    private double forwardSpeed = 0.0; // in/s, robot frame
+    private double strafeSpeed = 0.0; // in/s, robot frame, right positive
+    private double turnRate = 0.0; // rad/s, counter-clockwise positive
+
+    public void update(double dtSeconds) {
+        // left motors are mounted mirrored, so a positive shaft turns those wheels backward
+        double fl = -frontLeft.getAppliedPower() * MAX_WHEEL_SPEED_IN_PER_S;
+        double fr = frontRight.getAppliedPower() * MAX_WHEEL_SPEED_IN_PER_S;
+        double bl = -backLeft.getAppliedPower() * MAX_WHEEL_SPEED_IN_PER_S;
+        double br = backRight.getAppliedPower() * MAX_WHEEL_SPEED_IN_PER_S;
+
+        double targetForward = (fl + fr + bl + br) / 4.0;
+        double targetStrafe = (fl - fr - bl + br) / 4.0;
+        double targetTurn = (-fl + fr - bl + br) / (4.0 * TURN_RADIUS_IN);
+
+        boolean coasting = fl == 0 && fr == 0 && bl == 0 && br == 0 && !frontLeft.isBraking();
+        double timeConstant = coasting ? DRIVE_COAST_TIME_CONSTANT_S : DRIVE_TIME_CONSTANT_S;
+        double blend = 1.0 - Math.exp(-dtSeconds / timeConstant);
+        forwardSpeed += (targetForward - forwardSpeed) * blend;
+        strafeSpeed += (targetStrafe - strafeSpeed) * blend;
+        turnRate += (targetTurn - turnRate) * blend;
+
+        // integrate along the mid-step heading
+        double midHeading = heading + turnRate * dtSeconds / 2.0;
+        double cos = Math.cos(midHeading);
+        double sin = Math.sin(midHeading);
+        x += (strafeSpeed * cos - forwardSpeed * sin) * dtSeconds;
+        y += (strafeSpeed * sin + forwardSpeed * cos) * dtSeconds;
+        heading = AngleUtil.normalizeRadians(heading + turnRate * dtSeconds);
+
+        // wheel speeds that go with the body motion (inverse kinematics), back out to the encoders
+        double turnSpeed = turnRate * TURN_RADIUS_IN;
+        moveWheel(frontLeft, -(forwardSpeed + strafeSpeed - turnSpeed), dtSeconds);
+        moveWheel(frontRight, forwardSpeed - strafeSpeed + turnSpeed, dtSeconds);
+        moveWheel(backLeft, -(forwardSpeed - strafeSpeed - turnSpeed), dtSeconds);
+        moveWheel(backRight, forwardSpeed + strafeSpeed + turnSpeed, dtSeconds);
+    }
+
+    private static void moveWheel(SimMotor motor, double shaftInchesPerSecond, double dtSeconds) {
+        double ticksPerSecond = shaftInchesPerSecond * RobotConstants.DRIVE_TICKS_PER_INCH;
+        double speedFraction = ticksPerSecond / motor.getFreeSpeedTicksPerSecond();
+        double amps = Math.abs(motor.getAppliedPower() - speedFraction) * DRIVE_STALL_AMPS;
+        motor.setShaftState(motor.getShaftTicks() + ticksPerSecond * dtSeconds, ticksPerSecond, amps);
+    }
+
+    /** put the robot somewhere without touching the encoders, like carrying it onto the field */
+    public void setPose(double x, double y, double heading) {
+        this.x = x;
+        this.y = y;
+        this.heading = AngleUtil.normalizeRadians(heading);
+        forwardSpeed = 0.0;
+        strafeSpeed = 0.0;
+        turnRate = 0.0;
+    }
+
+    public SimMotor getFrontLeft() {
+        return frontLeft;
+    }
+
+    public SimMotor getFrontRight() {
+        return frontRight;
+    }
+
+    public SimMotor getBackLeft() {
+        return backLeft;
+    }
+
+    public SimMotor getBackRight() {
+        return backRight;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getHeading() {
+        return heading;
+    }
+
+    public double getSpeedInchesPerSecond() {
+        return Math.hypot(forwardSpeed, strafeSpeed);
+    }
+}
@@ -0,0 +1,17 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.hardware.ImuIO;
+
+/** reads the drivetrain's true heading; a perfect gyro, no drift */
+public class SimImu implements ImuIO {
+    private final MecanumDriveSim drive;
+
+    public SimImu(MecanumDriveSim drive) {
+        this.drive = drive;
+    }
+
+    @Override
+    public double getYawRadians() {
+        return drive.getHeading();
+    }
+}
@@ -0,0 +1,122 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.hardware.MotorIO;
+
+/**
+ * Simulated motor: remembers what the code commanded and reports whatever shaft state the mechanism
+ * model (MecanumDriveSim, SlideSim) last wrote into it. RUN_TO_POSITION is emulated with a
+ * P loop on position like the hub's built-in one, and reversing flips power and encoder like the SDK.
+ */
+public class SimMotor implements MotorIO {
+    // hub default for RUN_TO_POSITION: velocity setpoint (ticks/s) per tick of position error
+    public static final double RUN_TO_POSITION_P = 10.0;
+    public static final int RUN_TO_POSITION_TOLERANCE = 10;
+
+    private final double freeSpeedTicksPerSecond;
+
+    private double power = 0.0;
+    private RunMode mode = RunMode.RUN_WITHOUT_ENCODER;
+    private int targetPosition = 0;
+    private boolean reversed = false;
+    private boolean brake = false;
+
+    // physical shaft state, positive = the motor's own forward, before the reverse flag
+    private double shaftTicks = 0.0;
+    private double shaftTicksPerSecond = 0.0;
+    private double encoderOffsetTicks = 0.0;
+    private double currentAmps = 0.0;
+
+    public SimMotor(double freeSpeedTicksPerSecond) {
+        this.freeSpeedTicksPerSecond = freeSpeedTicksPerSecond;
+    }
+
+    @Override
+    public int getCurrentPosition() {
+        double ticks = shaftTicks - encoderOffsetTicks;
+        return (int) Math.round(reversed ? -ticks : ticks);
+    }
+
+    @Override
+    public double getVelocity() {
+        return reversed ? -shaftTicksPerSecond : shaftTicksPerSecond;
+    }
+
+    @Override
+    public void setPower(double power) {
+        this.power = Math.max(-1.0, Math.min(1.0, power));
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+        if (mode == RunMode.STOP_AND_RESET_ENCODER) {
+            encoderOffsetTicks = shaftTicks;
+            power = 0.0;
+        }
+        this.mode = mode;
+    }
+
+    @Override
+    public void setTargetPosition(int ticks) {
+        targetPosition = ticks;
+    }
+
+    @Override
+    public boolean isBusy() {
+        return mode == RunMode.RUN_TO_POSITION
+                && Math.abs(targetPosition - getCurrentPosition()) > RUN_TO_POSITION_TOLERANCE;
+    }
+
+    @Override
+    public void setReversed(boolean reversed) {
+        this.reversed = reversed;
+    }
+
+    @Override
+    public void setBrake(boolean brake) {
+        this.brake = brake;
+    }
+
+    @Override
+    public double getCurrentAmps() {
+        return currentAmps;
+    }
+
+    /** the -1..1 drive the motor actually gets, in shaft direction (reverse flag and RUN_TO_POSITION applied) */
+    public double getAppliedPower() {
+        double applied;
+        if (mode == RunMode.STOP_AND_RESET_ENCODER) {
+            applied = 0.0;
+        } else if (mode == RunMode.RUN_TO_POSITION) {
+            // the hub ignores the sign of power here and only uses it as a speed limit
+            double limit = Math.abs(power);
+            double error = targetPosition - getCurrentPosition();
+            applied = Math.max(-limit, Math.min(limit, error * RUN_TO_POSITION_P / freeSpeedTicksPerSecond));
+        } else {
+            applied = power;
+        }
+        return reversed ? -applied : applied;
+    }
+
+    public boolean isBraking() {
+        return brake;
+    }
+
+    public double getFreeSpeedTicksPerSecond() {
+        return freeSpeedTicksPerSecond;
+    }
+
+    /** mechanism models call this after every physics step */
+    public void setShaftState(double ticks, double ticksPerSecond, double amps) {
+        shaftTicks = ticks;
+        shaftTicksPerSecond = ticksPerSecond;
+        currentAmps = amps;
+    }
+
+    public double getShaftTicks() {
+        return shaftTicks;
+    }
+
+    public double getShaftTicksPerSecond() {
+        return shaftTicksPerSecond;
+    }
+}
@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.util.OpModeControl;
+
+/**
+ * Plays the LinearOpMode's part in a headless run. Every idle() advances the simulation by one loop
+ * period and sleep() steps through the requested time, so nothing ever waits on the wall clock and a
+ * 30 s auto finishes as fast as the CPU can step it.
+ */
+public class SimOpMode implements OpModeControl {
+    public static final double DEFAULT_LOOP_SECONDS = 0.012; // a bulk-read loop on a Control Hub
+    public static final double AUTO_PERIOD_SECONDS = 30.0;
+
+    private final SimRobotHardware robot;
+    private final double loopSeconds;
+    private final double timeLimitSeconds;
+
+    public SimOpMode(SimRobotHardware robot) {
+        this(robot, DEFAULT_LOOP_SECONDS, AUTO_PERIOD_SECONDS);
+    }
+
+    public SimOpMode(SimRobotHardware robot, double loopSeconds, double timeLimitSeconds) {
+        this.robot = robot;
+        this.loopSeconds = loopSeconds;
+        this.timeLimitSeconds = timeLimitSeconds;
+    }
+
+    @Override
+    public boolean opModeIsActive() {
+        return robot.getTimeSeconds() < timeLimitSeconds;
+    }
+
+    @Override
+    public void idle() {
+        robot.step(loopSeconds);
+    }
+
+    @Override
+    public void sleep(long milliseconds) {
+        double remaining = milliseconds / 1000.0;
+        while (remaining > 1e-9 && opModeIsActive()) {
+            double dt = Math.min(loopSeconds, remaining);
+            robot.step(dt);
+            remaining -= dt;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.hardware.ImuIO;
+import org.firstinspires.ftc.teamcode.hardware.MotorIO;
+import org.firstinspires.ftc.teamcode.hardware.RobotHardware;
+import org.firstinspires.ftc.teamcode.hardware.ServoIO;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Simulated robot behind the RobotHardware interface, wired with the same device names as the
+ * real config. Time only moves when step() is called, and nanoTime() reports that simulated clock,
+ * so everything timed off the HardwareSnapshot (slide stall/fault timers, loop stamps) runs in sim time.
+ */
+public class SimRobotHardware implements RobotHardware {
+    public static final double INTAKE_FREE_SPEED_TICKS_PER_S = 537.7 * 312.0 / 60.0;
+
+    private final MecanumDriveSim drive = new MecanumDriveSim();
+    private final SlideSim slides = new SlideSim();
+    private final SimMotor intake = new SimMotor(INTAKE_FREE_SPEED_TICKS_PER_S);
+    private final SimServo gate = new SimServo();
+    private final SimImu imu = new SimImu(drive);
+
+    private final Map<String, MotorIO> motors = new HashMap<>();
+    private final Map<String, ServoIO> servos = new HashMap<>();
+    private final Map<String, ImuIO> imus = new HashMap<>();
+
+    private long nanos = 0L;
+    private double batteryVoltage = RobotConstants.BATTERY_NOMINAL_VOLTAGE;
+
+    public SimRobotHardware() {
+        motors.put(RobotConstants.FRONT_LEFT_NAME, drive.getFrontLeft());
+        motors.put(RobotConstants.FRONT_RIGHT_NAME, drive.getFrontRight());
+        motors.put(RobotConstants.BACK_LEFT_NAME, drive.getBackLeft());
+        motors.put(RobotConstants.BACK_RIGHT_NAME, drive.getBackRight());
+        motors.put(RobotConstants.LEFT_SLIDE_NAME, slides.getLeft());
+        motors.put(RobotConstants.RIGHT_SLIDE_NAME, slides.getRight());
+        motors.put(RobotConstants.INTAKE_NAME, intake);
+        servos.put(RobotConstants.GATE_SERVO_NAME, gate);
+        imus.put(RobotConstants.IMU_NAME, imu);
+    }
+
+    /** advance every mechanism and the clock by dtSeconds */
+    public void step(double dtSeconds) {
+        drive.update(dtSeconds);
+        slides.update(dtSeconds);
+        // nothing loads the intake roller, it just spins at whatever it's told
+        double intakeSpeed = intake.getAppliedPower() * INTAKE_FREE_SPEED_TICKS_PER_S;
+        intake.setShaftState(intake.getShaftTicks() + intakeSpeed * dtSeconds, intakeSpeed, 0.0);
+        nanos += Math.round(dtSeconds * 1e9);
+    }
+
+    @Override
+    public MotorIO getMotor(String name) {
+        MotorIO motor = motors.get(name);
+        if (motor == null) {
+            throw new IllegalArgumentException("No simulated motor named " + name);
+        }
+        return motor;
+    }
+
+    @Override
+    public ServoIO getServo(String name) {
+        ServoIO servo = servos.get(name);
+        if (servo == null) {
+            throw new IllegalArgumentException("No simulated servo named " + name);
+        }
+        return servo;
+    }
+
+    @Override
+    public ImuIO getImu(String name) {
+        ImuIO found = imus.get(name);
+        if (found == null) {
+            throw new IllegalArgumentException("No simulated IMU named " + name);
+        }
+        return found;
+    }
+
+    @Override
+    public void clearBulkCache() {
+        // reads are always live in the sim
+    }
+
+    @Override
+    public double getBatteryVoltage() {
+        return batteryVoltage;
+    }
+
+    public void setBatteryVoltage(double volts) {
+        batteryVoltage = volts;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanos;
+    }
+
+    @Override
+    public int getRecordedReads() {
+        return -1;
+    }
+
+    @Override
+    public void recordReads(int reads) {
+    }
+
+    public double getTimeSeconds() {
+        return nanos / 1e9;
+    }
+
+    public MecanumDriveSim getDrive() {
+        return drive;
+    }
+
+    public SlideSim getSlides() {
+        return slides;
+    }
+
+    public SimMotor getIntake() {
+        return intake;
+    }
+
+    public SimServo getGate() {
+        return gate;
+    }
+}
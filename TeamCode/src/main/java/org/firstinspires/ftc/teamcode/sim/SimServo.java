@@ -0,0 +1,24 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.hardware.ServoIO;
+
+/** servos just go where they're told; the write count shows how many commands actually reached it */
+public class SimServo implements ServoIO {
+    private double position = 0.0;
+    private long writeCount = 0;
+
+    @Override
+    public void setPosition(double position) {
+        this.position = Math.max(0.0, Math.min(1.0, position));
+        writeCount++;
+    }
+
+    @Override
+    public double getPosition() {
+        return position;
+    }
+
+    public long getWriteCount() {
+        return writeCount;
+    }
+}
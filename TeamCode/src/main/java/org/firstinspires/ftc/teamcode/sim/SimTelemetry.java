@@ -0,0 +1,36 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.util.TelemetrySink;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects telemetry like the Driver Station would show it. update() keeps the finished frame around
+ * (getLastFrame()) so a headless run can print where a routine ended up without spamming every loop.
+ */
+public class SimTelemetry implements TelemetrySink {
+    private final List<String> frame = new ArrayList<>();
+    private final List<String> lastFrame = new ArrayList<>();
+
+    @Override
+    public void addData(String caption, Object value) {
+        frame.add(caption + ": " + value);
+    }
+
+    @Override
+    public void addData(String caption, String format, Object... args) {
+        frame.add(caption + ": " + String.format(format, args));
+    }
+
+    @Override
+    public void update() {
+        lastFrame.clear();
+        lastFrame.addAll(frame);
+        frame.clear();
+    }
+
+    public List<String> getLastFrame() {
+        return lastFrame;
+    }
+}
@@ -0,0 +1,33 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.vision.BackdropTarget;
+import org.firstinspires.ftc.teamcode.vision.DetectedMotif;
+import org.firstinspires.ftc.teamcode.vision.VisionSource;
+
+/** no camera in the sim: the motif is whatever the run asked for and no backdrop tag is ever in view */
+public class SimVision implements VisionSource {
+    private final DetectedMotif motif;
+
+    public SimVision(DetectedMotif motif) {
+        this.motif = motif;
+    }
+
+    @Override
+    public DetectedMotif getCurrentMotif() {
+        return motif;
+    }
+
+    @Override
+    public void useAprilTags() {
+    }
+
+    @Override
+    public BackdropTarget getBackdropTarget(DetectedMotif desired) {
+        return null;
+    }
+
+    @Override
+    public BackdropTarget getLatestBackdropTag() {
+        return null;
+    }
+}
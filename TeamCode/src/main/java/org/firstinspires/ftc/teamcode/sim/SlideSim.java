@@ -0,0 +1,81 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+
+/**
+ * Two independent vertical slide stages. Each side lags toward power × free speed, loses a bit of
+ * power to gravity, and stops hard at the bottom and at the top of its travel. Current rises with the
+ * gap between applied power and actual speed, so a jammed slide shows up the same way it would on the hub.
+ */
+public class SlideSim {
+    public static final double SLIDE_MOTOR_FREE_RPM = 312.0;
+    public static final double SLIDE_TICKS_PER_REV = 537.7;
+    public static final double SLIDE_TIME_CONSTANT_S = 0.08;
+    public static final double SLIDE_GRAVITY_POWER = 0.04; // power it takes to just hold the stage up
+    public static final double SLIDE_STALL_AMPS = 9.2;
+    public static final int SLIDE_TRAVEL_TICKS = RobotConstants.SLIDE_MAX + 100; // hard stop past the soft limit
+
+    public static final double FREE_SPEED_TICKS_PER_S = SLIDE_TICKS_PER_REV * SLIDE_MOTOR_FREE_RPM / 60.0;
+
+    private final SimMotor left = new SimMotor(FREE_SPEED_TICKS_PER_S);
+    private final SimMotor right = new SimMotor(FREE_SPEED_TICKS_PER_S);
+
+    // the left motor is mounted mirrored, so its stage goes up on a negative shaft
+    private final Side leftSide = new Side(left, -1.0);
+    private final Side rightSide = new Side(right, 1.0);
+
+    public void update(double dtSeconds) {
+        leftSide.update(dtSeconds);
+        rightSide.update(dtSeconds);
+    }
+
+    public SimMotor getLeft() {
+        return left;
+    }
+
+    public SimMotor getRight() {
+        return right;
+    }
+
+    /** true stage heights in ticks, for checking what the encoders claim */
+    public double getLeftHeightTicks() {
+        return leftSide.height;
+    }
+
+    public double getRightHeightTicks() {
+        return rightSide.height;
+    }
+
+    private static class Side {
+        final SimMotor motor;
+        final double mountSign;
+        double height = 0.0; // ticks above the bottom stop
+        double speed = 0.0; // ticks/s, up positive
+
+        Side(SimMotor motor, double mountSign) {
+            this.motor = motor;
+            this.mountSign = mountSign;
+        }
+
+        void update(double dtSeconds) {
+            double applied = motor.getAppliedPower() * mountSign;
+            double effective = height > 0 ? applied - SLIDE_GRAVITY_POWER : Math.max(0.0, applied);
+            double targetSpeed = effective * FREE_SPEED_TICKS_PER_S;
+            if (applied == 0 && motor.isBraking()) {
+                targetSpeed = 0.0; // brake mode holds against gravity well enough at these loads
+            }
+            speed += (targetSpeed - speed) * (1.0 - Math.exp(-dtSeconds / SLIDE_TIME_CONSTANT_S));
+            height += speed * dtSeconds;
+            if (height <= 0) {
+                height = 0;
+                speed = Math.max(0.0, speed);
+            } else if (height >= SLIDE_TRAVEL_TICKS) {
+                height = SLIDE_TRAVEL_TICKS;
+                speed = Math.min(0.0, speed);
+            }
+
+            double amps = Math.abs(applied - speed / FREE_SPEED_TICKS_PER_S) * SLIDE_STALL_AMPS;
+            motor.setShaftState(height * mountSign, speed * mountSign, amps);
+        }
+    }
+}
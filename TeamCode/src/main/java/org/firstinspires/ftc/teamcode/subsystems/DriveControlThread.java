@@ -0,0 +1,276 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.trajectory.Trajectory;
+import org.firstinspires.ftc.teamcode.util.OpModeControl;
+import org.firstinspires.ftc.teamcode.util.TripleBuffer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Optional mode that runs DriveSubsystem (odometry, heading hold, path following) on its own fixed-rate
+ * thread, so the drive updates at the same rate no matter how slow telemetry, vision, or macros make the
+ * OpMode loop. The OpMode thread only sets goals: every setter publishes a full Command through a
+ * TripleBuffer, and the drive thread publishes pose and status back through another one, so neither side
+ * ever takes a lock or waits. One-shot requests (reset heading, start/cancel a path) are counters, so a
+ * request can't get lost when a newer command replaces the one carrying it.
+ *
+ * While this is running nothing else may touch the DriveSubsystem, and the drive needs its own
+ * HardwareSnapshot: the thread refreshes it every cycle and is the only thread that does a bulk read (two
+ * threads clearing the same bulk cache would interleave and double the hub traffic). The slide encoders and
+ * currents it read come back in the State, and the OpMode's snapshot picks them up with copySlideReadings()
+ * in place of its own refresh().
+ */
+public class DriveControlThread {
+    /** what the OpMode wants; only ever written by the OpMode thread */
+    public static class Command {
+        public double x;
+        public double y;
+        public double rotation;
+        public boolean slowMode;
+        public boolean headingHold;
+        public int resetHeadingRequests;
+        public int trajectoryRequests;
+        public int cancelRequests;
+        public Trajectory trajectory;
+
+        void copyFrom(Command other) {
+            x = other.x;
+            y = other.y;
+            rotation = other.rotation;
+            slowMode = other.slowMode;
+            headingHold = other.headingHold;
+            resetHeadingRequests = other.resetHeadingRequests;
+            trajectoryRequests = other.trajectoryRequests;
+            cancelRequests = other.cancelRequests;
+            trajectory = other.trajectory;
+        }
+    }
+
+    /** what the drive thread reports back after each cycle; read-only for the OpMode */
+    public static class State {
+        public double x;
+        public double y;
+        public double heading;
+        public double headingDegrees;
+        public boolean headingHoldEnabled;
+        public boolean followingTrajectory;
+        public int trajectoryRequestsHandled; // compare with the request count to know a path has been picked up
+        public int segmentIndex;
+        public double frontLeftPower;
+        public double frontRightPower;
+        public double backLeftPower;
+        public double backRightPower;
+        public long skippedWrites;
+        public long cycleCount;
+        public double cycleMs;      // time the last cycle took to run
+        public double periodMs;     // start-to-start time of the last cycle
+        public long overrunCount;   // cycles that took longer than the target period
+        public double sensorIoMs;   // how much of the cycle the hub reads took
+        // the slide half of this cycle's bulk read, for the OpMode's snapshot
+        public int leftSlidePosition;
+        public int rightSlidePosition;
+        public double leftSlideVelocity;
+        public double rightSlideVelocity;
+        public double leftSlideCurrentAmps;
+        public double rightSlideCurrentAmps;
+    }
+
+    private final DriveSubsystem drive;
+    private final HardwareSnapshot driveHardware;
+    private final OpModeControl opMode;
+    private final long periodNanos;
+
+    private final Command goal = new Command(); // the OpMode thread's working copy
+    private final TripleBuffer<Command> commands =
+            new TripleBuffer<>(new Command(), new Command(), new Command());
+    private final TripleBuffer<State> states = new TripleBuffer<>(new State(), new State(), new State());
+
+    private final MutablePose2d pose = new MutablePose2d(); // drive thread scratch
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public DriveControlThread(DriveSubsystem drive, HardwareSnapshot driveHardware, OpModeControl opMode) {
+        this.drive = drive;
+        this.driveHardware = driveHardware;
+        this.opMode = opMode;
+        periodNanos = RobotConstants.DRIVE_THREAD_PERIOD_MS * 1_000_000L;
+        goal.headingHold = drive.isHeadingHoldEnabled();
+        publishGoal();
+    }
+
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::controlLoop, "DriveControl");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * stops the thread and waits for it, so the OpMode owns the drive (and the bulk read) again when this returns.
+     * A cycle is a few ms, so this doesn't wait long; an interrupt doesn't cut the wait short, it just gets passed on.
+     */
+    public void stop() {
+        running = false;
+        if (thread == null) {
+            return;
+        }
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** same inputs as DriveSubsystem.drive(), picked up on the next control cycle */
+    public void drive(double x, double y, double rotation, boolean slowMode) {
+        goal.x = x;
+        goal.y = y;
+        goal.rotation = rotation;
+        goal.slowMode = slowMode;
+        publishGoal();
+    }
+
+    public void resetHeading() {
+        goal.resetHeadingRequests++;
+        publishGoal();
+    }
+
+    public void enableHeadingHold(boolean enabled) {
+        goal.headingHold = enabled;
+        publishGoal();
+    }
+
+    /** what was asked for; getState().headingHoldEnabled says when the drive has caught up */
+    public boolean isHeadingHoldEnabled() {
+        return goal.headingHold;
+    }
+
+    /** stick commands are ignored while the path runs; returns the request number to match against the state */
+    public int followTrajectory(Trajectory trajectory) {
+        goal.trajectory = trajectory;
+        goal.trajectoryRequests++;
+        publishGoal();
+        return goal.trajectoryRequests;
+    }
+
+    public void cancelTrajectory() {
+        goal.cancelRequests++;
+        publishGoal();
+    }
+
+    /** newest status from the drive thread; the object is the caller's until the next getState() */
+    public State getState() {
+        return states.read();
+    }
+
+    /**
+     * In place of hardware.refresh() on the OpMode thread while this runs: hands the slide readings from the
+     * drive thread's latest bulk read to the OpMode's snapshot, so the hubs only get read from one thread.
+     */
+    public void copySlideReadings(HardwareSnapshot hardware) {
+        State state = states.read();
+        hardware.setSlideReadings(state.leftSlidePosition, state.rightSlidePosition,
+                state.leftSlideVelocity, state.rightSlideVelocity,
+                state.leftSlideCurrentAmps, state.rightSlideCurrentAmps);
+    }
+
+    private void publishGoal() {
+        commands.getWriteBuffer().copyFrom(goal);
+        commands.publish();
+    }
+
+    private void controlLoop() {
+        int handledResets = 0;
+        int handledTrajectories = 0;
+        int handledCancels = 0;
+        long cycleCount = 0;
+        long overrunCount = 0;
+        long lastStart = 0;
+        long nextStart = System.nanoTime();
+
+        while (running && opMode.opModeIsActive()) {
+            long start = System.nanoTime();
+            driveHardware.refresh();
+
+            Command command = commands.read();
+            if (command.resetHeadingRequests != handledResets) {
+                handledResets = command.resetHeadingRequests;
+                drive.resetHeading();
+            }
+            if (command.headingHold != drive.isHeadingHoldEnabled()) {
+                drive.enableHeadingHold(command.headingHold);
+            }
+            if (command.cancelRequests != handledCancels) {
+                handledCancels = command.cancelRequests;
+                drive.cancelTrajectory();
+            }
+            if (command.trajectoryRequests != handledTrajectories) {
+                handledTrajectories = command.trajectoryRequests;
+                if (command.trajectory != null) {
+                    drive.followTrajectoryAsync(command.trajectory);
+                }
+            }
+            if (drive.isFollowingTrajectory()) {
+                drive.updateAsync(opMode);
+            } else {
+                drive.drive(command.x, command.y, command.rotation, command.slowMode);
+            }
+
+            long end = System.nanoTime();
+            cycleCount++;
+            if (end - start > periodNanos) {
+                overrunCount++;
+            }
+            State state = states.getWriteBuffer();
+            drive.getPoseEstimate(pose);
+            state.x = pose.x;
+            state.y = pose.y;
+            state.heading = pose.heading;
+            state.headingDegrees = drive.getHeadingDegrees();
+            state.headingHoldEnabled = drive.isHeadingHoldEnabled();
+            state.followingTrajectory = drive.isFollowingTrajectory();
+            state.trajectoryRequestsHandled = handledTrajectories;
+            state.segmentIndex = drive.getTrajectorySegmentIndex();
+            state.frontLeftPower = drive.getFrontLeftPower();
+            state.frontRightPower = drive.getFrontRightPower();
+            state.backLeftPower = drive.getBackLeftPower();
+            state.backRightPower = drive.getBackRightPower();
+            state.skippedWrites = drive.getSkippedWriteCount();
+            state.cycleCount = cycleCount;
+            state.cycleMs = (end - start) / 1e6;
+            state.periodMs = lastStart == 0 ? 0.0 : (start - lastStart) / 1e6;
+            state.overrunCount = overrunCount;
+            state.sensorIoMs = driveHardware.getReadScheduler().getLastIoMs();
+            state.leftSlidePosition = driveHardware.getLeftSlidePosition();
+            state.rightSlidePosition = driveHardware.getRightSlidePosition();
+            state.leftSlideVelocity = driveHardware.getLeftSlideVelocity();
+            state.rightSlideVelocity = driveHardware.getRightSlideVelocity();
+            state.leftSlideCurrentAmps = driveHardware.getLeftSlideCurrentAmps();
+            state.rightSlideCurrentAmps = driveHardware.getRightSlideCurrentAmps();
+            states.publish();
+            lastStart = start;
+
+            // fixed rate: aim for start + period, and don't try to catch up after an overrun
+            nextStart = Math.max(nextStart + periodNanos, end);
+            long wait = nextStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+        drive.stop();
+    }
+}
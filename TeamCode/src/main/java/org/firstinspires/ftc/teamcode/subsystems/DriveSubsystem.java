@@ -1,70 +1,100 @@
 package org.firstinspires.ftc.teamcode.subsystems;
 
-import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
-import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.LogoFacingDirection;
-import com.qualcomm.hardware.rev.RevHubOrientationOnRobot.UsbFacingDirection;
-import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
-import com.qualcomm.robotcore.hardware.DcMotor;
-import com.qualcomm.robotcore.hardware.DcMotorSimple;
-import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.IMU;
-import com.qualcomm.robotcore.util.Range;
-
 import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.drive.EkfLocalizer;
+import org.firstinspires.ftc.teamcode.drive.MecanumKinematics;
 import org.firstinspires.ftc.teamcode.drive.OdometryPoseEstimator;
+import org.firstinspires.ftc.teamcode.drive.PoseHistory;
 import org.firstinspires.ftc.teamcode.geometry.AngleUtil;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
 import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+import org.firstinspires.ftc.teamcode.hardware.BatteryMonitor;
+import org.firstinspires.ftc.teamcode.hardware.CachingMotor;
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.hardware.MotorIO.RunMode;
+import org.firstinspires.ftc.teamcode.hardware.RobotHardware;
 import org.firstinspires.ftc.teamcode.trajectory.Trajectory;
-import org.firstinspires.ftc.teamcode.trajectory.segments.TrajectorySegment;
+import org.firstinspires.ftc.teamcode.trajectory.TrajectoryFollower;
+import org.firstinspires.ftc.teamcode.trajectory.segments.SegmentDriver;
+import org.firstinspires.ftc.teamcode.util.LoopProfiler;
+import org.firstinspires.ftc.teamcode.util.MathUtil;
+import org.firstinspires.ftc.teamcode.util.OpModeControl;
 
 /**
  * Drives the mecanum drivetrain, tracks pose, and exposes trajectory-following helpers.
  * Field-centric drive still uses the IMU yaw, now fused into the pose estimator so the heading
- * offset knob is honored everywhere.
+ * offset knob is honored everywhere. Encoder and yaw reads come from the shared HardwareSnapshot.
  */
 public class DriveSubsystem {
-    private final DcMotor frontLeft;
-    private final DcMotor frontRight;
-    private final DcMotor backLeft;
-    private final DcMotor backRight;
-    private final IMU imu;
-
-    private final OdometryPoseEstimator poseEstimator;
-    private Pose2d poseEstimate = new Pose2d(0, 0, 0);
+    // half track width + half wheel base, the lever arm a mecanum wheel turns the robot with
+    private static final double TURN_RADIUS_IN =
+            (RobotConstants.DRIVE_TRACK_WIDTH_IN + RobotConstants.DRIVE_WHEEL_BASE_IN) / 2.0;
+
+    private final CachingMotor frontLeft;
+    private final CachingMotor frontRight;
+    private final CachingMotor backLeft;
+    private final CachingMotor backRight;
+    private final HardwareSnapshot hardware;
+    private BatteryMonitor batteryMonitor; // optional; null means no voltage compensation
+
+    private final OdometryPoseEstimator poseEstimator; // raw odometry; its per-update motion feeds the EKF
+    private final EkfLocalizer localizer = new EkfLocalizer(RobotConstants.EKF_ODOMETRY_NOISE_PER_IN,
+            RobotConstants.EKF_HEADING_NOISE_RAD, RobotConstants.EKF_TAG_GATE);
+    private final MutablePose2d poseEstimate = new MutablePose2d(); // the EKF's answer, what everything drives on
+    private final PoseHistory poseHistory = new PoseHistory(RobotConstants.POSE_HISTORY_SIZE);
+    private final MutablePose2d pastPose = new MutablePose2d(); // scratch for getMotionSince()
+    private final double[] wheelPositionsInches = new double[4]; // reused every loop, never handed out
+    private final double[] wheelPowers = new double[4]; // mixing output buffer, same idea
+    private static final double[] ZERO_WHEELS = new double[4];
+    private long encoderResetRefresh = -1; // snapshot refresh the last encoder reset happened in, -1 once it's caught up
 
     private double headingOffset = 0; // little offset knob so we can re-zero during TeleOp
     private boolean headingHoldEnabled = false;
     private double headingHoldTargetRadians = 0;
 
+    private final TrajectoryFollower trajectoryFollower = new TrajectoryFollower();
+    private final SegmentDriver segmentDriver = new DriveSegmentDriver(); // built once so updateAsync() doesn't allocate
+
     private boolean turnInProgress = false;
     private double turnTargetRadians = 0;
 
-    public DriveSubsystem(HardwareMap hardwareMap) {
-        frontLeft = hardwareMap.get(DcMotor.class, RobotConstants.FRONT_LEFT_NAME);
-        frontRight = hardwareMap.get(DcMotor.class, RobotConstants.FRONT_RIGHT_NAME);
-        backLeft = hardwareMap.get(DcMotor.class, RobotConstants.BACK_LEFT_NAME);
-        backRight = hardwareMap.get(DcMotor.class, RobotConstants.BACK_RIGHT_NAME);
-
-        frontLeft.setDirection(DcMotorSimple.Direction.REVERSE);
-        backLeft.setDirection(DcMotorSimple.Direction.REVERSE);
-
-        frontLeft.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
-        frontRight.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
-        backLeft.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
-        backRight.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
-
-        frontLeft.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
-        frontRight.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
-        backLeft.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
-        backRight.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
-
-        imu = hardwareMap.get(IMU.class, RobotConstants.IMU_NAME);
-        // tell the hub how it's actually bolted on so yaw numbers aren't wacky ->
-        IMU.Parameters parameters = new IMU.Parameters(new RevHubOrientationOnRobot(
-                LogoFacingDirection.UP, UsbFacingDirection.FORWARD));
-        imu.initialize(parameters);
-
-        poseEstimator = new OdometryPoseEstimator(poseEstimate, getHeadingRadians(), getWheelPositionsInches());
+    // async encoder moves: driveStraightAsync() / strafeAsync()
+    private enum EncoderMove {NONE, STRAIGHT, STRAFE}
+    private EncoderMove encoderMove = EncoderMove.NONE;
+    private int encoderMoveTargetTicks = 0;
+    private double encoderMovePower = 0; // signed: forward or right is positive
+    private double encoderMoveHeadingRadians = 0;
+
+    // always-on timing for the trajectory loop; costs a few nanoTime() calls per iteration
+    private final LoopProfiler pathProfiler = new LoopProfiler();
+    private final int pathReadSection = pathProfiler.addSection("read");
+    private final int pathPoseSection = pathProfiler.addSection("odometry");
+    private final int pathControlSection = pathProfiler.addSection("control");
+    private final int pathWriteSection = pathProfiler.addSection("write");
+
+    public DriveSubsystem(RobotHardware robotHardware, HardwareSnapshot hardware) {
+        this.hardware = hardware;
+        // caching wrappers so repeated identical power commands don't cost a hub write
+        frontLeft = new CachingMotor(robotHardware.getMotor(RobotConstants.FRONT_LEFT_NAME), robotHardware);
+        frontRight = new CachingMotor(robotHardware.getMotor(RobotConstants.FRONT_RIGHT_NAME), robotHardware);
+        backLeft = new CachingMotor(robotHardware.getMotor(RobotConstants.BACK_LEFT_NAME), robotHardware);
+        backRight = new CachingMotor(robotHardware.getMotor(RobotConstants.BACK_RIGHT_NAME), robotHardware);
+
+        frontLeft.setReversed(true);
+        backLeft.setReversed(true);
+
+        frontLeft.setBrake(true);
+        frontRight.setBrake(true);
+        backLeft.setBrake(true);
+        backRight.setBrake(true);
+
+        frontLeft.setMode(RunMode.RUN_USING_ENCODER);
+        frontRight.setMode(RunMode.RUN_USING_ENCODER);
+        backLeft.setMode(RunMode.RUN_USING_ENCODER);
+        backRight.setMode(RunMode.RUN_USING_ENCODER);
+
+        poseEstimator = new OdometryPoseEstimator(new Pose2d(0, 0, 0), getHeadingRadians(), readWheelPositionsInches());
+        localizer.reset(0, 0, 0, RobotConstants.EKF_START_POSITION_STD_IN, RobotConstants.EKF_START_HEADING_STD_RAD);
     }
 
     /**
@@ -75,25 +105,28 @@ public class DriveSubsystem {
     public void drive(double x, double y, double rotation, boolean slowMode) {
         updatePoseEstimate();
         double heading = getHeadingRadians();
-        // rotate the joystick vector by the robot heading so controls stay field oriented
-        double rotatedX = x * Math.cos(-heading) - y * Math.sin(-heading);
-        double rotatedY = x * Math.sin(-heading) + y * Math.cos(-heading);
 
         if (headingHoldEnabled && Math.abs(rotation) < RobotConstants.HEADING_HOLD_DEADBAND) {
-            rotation = Range.clip((headingHoldTargetRadians - heading) * RobotConstants.HEADING_HOLD_KP,
+            // heading is CCW-positive but a positive turn command spins clockwise, hence heading - target
+            rotation = MathUtil.clip((heading - headingHoldTargetRadians) * RobotConstants.HEADING_HOLD_KP,
                     -RobotConstants.HEADING_HOLD_MAX_TURN, RobotConstants.HEADING_HOLD_MAX_TURN);
         } else {
             headingHoldTargetRadians = heading; // refresh target whenever the driver actively turns
         }
 
-        double denominator = Math.max(Math.abs(rotatedY) + Math.abs(rotatedX) + Math.abs(rotation), 1.0);
-        double frontLeftPower = (rotatedY + rotatedX + rotation) / denominator;
-        double backLeftPower = (rotatedY - rotatedX + rotation) / denominator;
-        double frontRightPower = (rotatedY - rotatedX - rotation) / denominator;
-        double backRightPower = (rotatedY + rotatedX - rotation) / denominator;
+        // rotate the joystick vector by the robot heading so controls stay field oriented
+        MecanumKinematics.fieldCentric(x, y, rotation, heading, wheelPowers);
 
         double scale = slowMode ? RobotConstants.SLOW_SPEED : RobotConstants.NORMAL_SPEED;
-        setWheelPowers(frontLeftPower * scale, frontRightPower * scale, backLeftPower * scale, backRightPower * scale);
+        setWheelPowers(wheelPowers[MecanumKinematics.FRONT_LEFT] * scale,
+                wheelPowers[MecanumKinematics.FRONT_RIGHT] * scale,
+                wheelPowers[MecanumKinematics.BACK_LEFT] * scale,
+                wheelPowers[MecanumKinematics.BACK_RIGHT] * scale);
+    }
+
+    /** hand in a running monitor to scale wheel powers as the battery sags */
+    public void setBatteryMonitor(BatteryMonitor batteryMonitor) {
+        this.batteryMonitor = batteryMonitor;
     }
 
     public void stop() {
@@ -119,6 +152,12 @@ public class DriveSubsystem {
         return backRight.getPower();
     }
 
+    /** hub writes the caching wrappers saved us, summed over all four wheels */
+    public long getSkippedWriteCount() {
+        return frontLeft.getSkippedWriteCount() + frontRight.getSkippedWriteCount()
+                + backLeft.getSkippedWriteCount() + backRight.getSkippedWriteCount();
+    }
+
     /** sets whatever yaw we're at as the new "zero" for field-centric stuff. */
     public void resetHeading() {
         headingOffset = getRawHeadingRadians();
@@ -138,7 +177,7 @@ public class DriveSubsystem {
 
     /** raw yaw from the IMU, in radians. */
     private double getRawHeadingRadians() {
-        return imu.getRobotYawPitchRollAngles().getYaw(RevHubOrientationOnRobot.AngleUnit.RADIANS);
+        return hardware.getRawYawRadians();
     }
 
     public void enableHeadingHold(boolean enabled) {
@@ -150,49 +189,168 @@ public class DriveSubsystem {
         return headingHoldEnabled;
     }
 
-    public void followTrajectory(Trajectory trajectory, LinearOpMode opMode) {
-        setPoseEstimate(trajectory.getStartPose());
-        for (TrajectorySegment segment : trajectory.getSegments()) {
-            segment.follow(this, opMode);
+    /** blocking version of followTrajectoryAsync(): drives the whole path before returning */
+    public void followTrajectory(Trajectory trajectory, OpModeControl opMode) {
+        followTrajectoryAsync(trajectory);
+        while (opMode.opModeIsActive() && isFollowingTrajectory()) {
+            pathProfiler.start(pathReadSection);
+            hardware.refresh();
+            pathProfiler.stop(pathReadSection);
+            updateAsync(opMode);
+            opMode.idle();
         }
+        cancelTrajectory(); // only does anything if the OpMode stopped mid-path
+    }
+
+    /**
+     * Start following a trajectory without blocking. Call updateAsync() once per loop (after
+     * hardware.refresh()) to advance it, and check isFollowingTrajectory() to see when it's done.
+     * Paths are in field coordinates and the pose estimate is left alone, so a path built ahead of time
+     * still ends where it was planned even if the robot didn't start exactly on its start pose.
+     */
+    public void followTrajectoryAsync(Trajectory trajectory) {
+        turnInProgress = false; // one async move at a time
+        encoderMove = EncoderMove.NONE;
+        trajectoryFollower.start(trajectory);
+    }
+
+    public boolean isFollowingTrajectory() {
+        return trajectoryFollower.isBusy();
+    }
+
+    public void cancelTrajectory() {
+        if (trajectoryFollower.isBusy()) {
+            trajectoryFollower.cancel();
+            finishTrajectory();
+        }
+    }
+
+    /** which segment of the current trajectory we're on, for telemetry */
+    public int getTrajectorySegmentIndex() {
+        return trajectoryFollower.getSegmentIndex();
+    }
+
+    private void finishTrajectory() {
+        pathProfiler.finishLoops();
         stop();
+        headingHoldTargetRadians = getHeadingRadians();
     }
 
-    public void driveToPose(Pose2d targetPose, double maxPower, LinearOpMode opMode) {
-        while (opMode.opModeIsActive()) {
-            updatePoseEstimate();
-            Pose2d current = getPoseEstimate();
+    /** field-frame reference tracking for profiled segments: feedforward on the plan, P on the error */
+    private void followReference(double x, double y, double heading,
+                                 double velocityX, double velocityY, double angularVelocity,
+                                 double accelX, double accelY) {
+        MutablePose2d current = poseEstimate;
+        pathProfiler.start(pathControlSection);
+
+        double commandVx = velocityX + (x - current.x) * RobotConstants.PROFILE_KP_TRANSLATION;
+        double commandVy = velocityY + (y - current.y) * RobotConstants.PROFILE_KP_TRANSLATION;
+        double commandOmega = angularVelocity
+                + AngleUtil.normalizeRadians(heading - current.heading) * RobotConstants.PROFILE_KP_HEADING;
+
+        // rotate into the robot frame, same as driveTowardPose
+        double cos = Math.cos(-current.heading);
+        double sin = Math.sin(-current.heading);
+        double strafePower = feedforward(commandVx * cos - commandVy * sin, accelX * cos - accelY * sin);
+        double forwardPower = feedforward(commandVx * sin + commandVy * cos, accelX * sin + accelY * cos);
+        // wheel speed for a turn is omega * lever arm; positive turn is clockwise, so flip it
+        double turnPower = -feedforward(commandOmega * TURN_RADIUS_IN, 0.0);
+
+        MecanumKinematics.robotCentric(forwardPower, strafePower, turnPower, wheelPowers);
+        pathProfiler.stop(pathControlSection);
+        pathProfiler.start(pathWriteSection);
+        setWheelPowers(wheelPowers[MecanumKinematics.FRONT_LEFT],
+                wheelPowers[MecanumKinematics.FRONT_RIGHT],
+                wheelPowers[MecanumKinematics.BACK_LEFT],
+                wheelPowers[MecanumKinematics.BACK_RIGHT]);
+        pathProfiler.stop(pathWriteSection);
+    }
 
-            double dx = targetPose.x - current.x;
-            double dy = targetPose.y - current.y;
-            double distance = Math.hypot(dx, dy);
-            double headingError = AngleUtil.normalizeRadians(targetPose.heading - current.heading);
+    private static double feedforward(double velocity, double acceleration) {
+        double staticFriction = Math.abs(velocity) > 1e-3 ? Math.copySign(RobotConstants.DRIVE_KSTATIC, velocity) : 0.0;
+        return velocity * RobotConstants.DRIVE_KV + acceleration * RobotConstants.DRIVE_KA + staticFriction;
+    }
 
-            if (distance < RobotConstants.TRAJECTORY_POSITION_TOLERANCE_IN
-                    && Math.abs(headingError) < RobotConstants.TRAJECTORY_HEADING_TOLERANCE_RAD) {
-                break;
-            }
+    private boolean isAtPose(Pose2d pose) {
+        return Math.hypot(pose.x - poseEstimate.x, pose.y - poseEstimate.y) < RobotConstants.TRAJECTORY_POSITION_TOLERANCE_IN
+                && Math.abs(AngleUtil.normalizeRadians(pose.heading - poseEstimate.heading))
+                < RobotConstants.TRAJECTORY_HEADING_TOLERANCE_RAD;
+    }
 
-            double robotX = dx * Math.cos(-current.heading) - dy * Math.sin(-current.heading);
-            double robotY = dx * Math.sin(-current.heading) + dy * Math.cos(-current.heading);
+    /** what the trajectory segments get to drive with; just forwards into the private helpers above */
+    private class DriveSegmentDriver implements SegmentDriver {
+        @Override
+        public boolean driveTowardPose(Pose2d targetPose, double maxPower) {
+            return DriveSubsystem.this.driveTowardPose(targetPose, maxPower);
+        }
 
-            double xCommand = Range.clip(robotX * RobotConstants.TRAJECTORY_KP_TRANSLATION, -maxPower, maxPower);
-            double yCommand = Range.clip(robotY * RobotConstants.TRAJECTORY_KP_TRANSLATION, -maxPower, maxPower);
-            double turn = Range.clip(headingError * RobotConstants.TRAJECTORY_KP_HEADING,
-                    -maxPower, maxPower);
+        @Override
+        public void followReference(double x, double y, double heading,
+                                    double velocityX, double velocityY, double angularVelocity,
+                                    double accelX, double accelY) {
+            DriveSubsystem.this.followReference(x, y, heading, velocityX, velocityY, angularVelocity, accelX, accelY);
+        }
 
-            double denominator = Math.max(Math.abs(yCommand) + Math.abs(xCommand) + Math.abs(turn), 1.0);
-            setWheelPowers((yCommand + xCommand + turn) / denominator * maxPower,
-                    (yCommand - xCommand - turn) / denominator * maxPower,
-                    (yCommand - xCommand + turn) / denominator * maxPower,
-                    (yCommand + xCommand - turn) / denominator * maxPower);
-            opMode.idle();
+        @Override
+        public MutablePose2d getPoseEstimate(MutablePose2d out) {
+            return DriveSubsystem.this.getPoseEstimate(out);
         }
-        stop();
-        headingHoldTargetRadians = getHeadingRadians();
+
+        @Override
+        public boolean isAtPose(Pose2d pose) {
+            return DriveSubsystem.this.isAtPose(pose);
+        }
+
+        @Override
+        public double getTimeSeconds() {
+            return hardware.getTimestampNanos() / 1e9;
+        }
+    }
+
+    /** one proportional step toward the pose from the current estimate; true once it's inside tolerance */
+    private boolean driveTowardPose(Pose2d targetPose, double maxPower) {
+        MutablePose2d current = poseEstimate;
+
+        pathProfiler.start(pathControlSection);
+
+        double dx = targetPose.x - current.x;
+        double dy = targetPose.y - current.y;
+        double distance = Math.hypot(dx, dy);
+        double headingError = AngleUtil.normalizeRadians(targetPose.heading - current.heading);
+
+        if (distance < RobotConstants.TRAJECTORY_POSITION_TOLERANCE_IN
+                && Math.abs(headingError) < RobotConstants.TRAJECTORY_HEADING_TOLERANCE_RAD) {
+            pathProfiler.stop(pathControlSection);
+            return true;
+        }
+
+        double robotX = dx * Math.cos(-current.heading) - dy * Math.sin(-current.heading);
+        double robotY = dx * Math.sin(-current.heading) + dy * Math.cos(-current.heading);
+
+        double xCommand = MathUtil.clip(robotX * RobotConstants.TRAJECTORY_KP_TRANSLATION, -maxPower, maxPower);
+        double yCommand = MathUtil.clip(robotY * RobotConstants.TRAJECTORY_KP_TRANSLATION, -maxPower, maxPower);
+        double turn = MathUtil.clip(-headingError * RobotConstants.TRAJECTORY_KP_HEADING,
+                -maxPower, maxPower); // positive turn is clockwise
+
+        MecanumKinematics.robotCentric(yCommand, xCommand, turn, wheelPowers);
+        pathProfiler.stop(pathControlSection);
+        pathProfiler.start(pathWriteSection);
+        setWheelPowers(wheelPowers[MecanumKinematics.FRONT_LEFT] * maxPower,
+                wheelPowers[MecanumKinematics.FRONT_RIGHT] * maxPower,
+                wheelPowers[MecanumKinematics.BACK_LEFT] * maxPower,
+                wheelPowers[MecanumKinematics.BACK_RIGHT] * maxPower);
+        pathProfiler.stop(pathWriteSection);
+        return false;
+    }
+
+    /** timing histograms for the trajectory loop (read/odometry/control/write) */
+    public LoopProfiler getPathProfiler() {
+        return pathProfiler;
     }
 
     public void turnAsync(double targetHeadingDeg) {
+        cancelTrajectory();
+        encoderMove = EncoderMove.NONE;
         turnTargetRadians = Math.toRadians(targetHeadingDeg);
         turnInProgress = true;
     }
@@ -201,8 +359,53 @@ public class DriveSubsystem {
         return turnInProgress;
     }
 
-    public void updateAsync(LinearOpMode opMode) {
+    /** non-blocking driveStraightWithHeading(); updateAsync() advances it and stops the drive at the distance */
+    public void driveStraightAsync(double inches, double speed, double holdHeadingDeg) {
+        startEncoderMove(EncoderMove.STRAIGHT, inches, speed, holdHeadingDeg);
+    }
+
+    /** non-blocking strafeWithHeading(), right is positive */
+    public void strafeAsync(double inches, double speed, double holdHeadingDeg) {
+        startEncoderMove(EncoderMove.STRAFE, inches, speed, holdHeadingDeg);
+    }
+
+    public boolean isEncoderMoveInProgress() {
+        return encoderMove != EncoderMove.NONE;
+    }
+
+    /** stops whichever async move is running (path, turn, or encoder move) */
+    public void cancelAsyncMoves() {
+        cancelTrajectory();
+        if (turnInProgress || encoderMove != EncoderMove.NONE) {
+            turnInProgress = false;
+            encoderMove = EncoderMove.NONE;
+            stop();
+        }
+    }
+
+    /**
+     * Non-blocking drive update: call once per loop right after hardware.refresh().
+     * Keeps odometry current and advances whichever async move is running (trajectory or turn),
+     * so slides, intake, and everything else can share the same loop.
+     */
+    public void updateAsync(OpModeControl opMode) {
+        if (trajectoryFollower.isBusy()) {
+            pathProfiler.beginLoop();
+            pathProfiler.start(pathPoseSection);
+            updatePoseEstimate();
+            pathProfiler.stop(pathPoseSection);
+            if (!opMode.opModeIsActive() || !trajectoryFollower.update(segmentDriver)) {
+                trajectoryFollower.cancel();
+                finishTrajectory();
+            }
+            return;
+        }
+
         updatePoseEstimate();
+        if (encoderMove != EncoderMove.NONE && opMode.opModeIsActive()) {
+            updateEncoderMove();
+            return;
+        }
         if (turnInProgress && opMode.opModeIsActive()) {
             double headingError = AngleUtil.normalizeRadians(turnTargetRadians - getHeadingRadians());
             if (Math.abs(headingError) < RobotConstants.TRAJECTORY_HEADING_TOLERANCE_RAD) {
@@ -211,87 +414,188 @@ public class DriveSubsystem {
                 headingHoldTargetRadians = getHeadingRadians();
                 return;
             }
-            double turn = Range.clip(headingError * RobotConstants.TRAJECTORY_KP_HEADING,
-                    -RobotConstants.NORMAL_SPEED, RobotConstants.NORMAL_SPEED);
+            double turn = MathUtil.clip(-headingError * RobotConstants.TRAJECTORY_KP_HEADING,
+                    -RobotConstants.NORMAL_SPEED, RobotConstants.NORMAL_SPEED); // positive turn is clockwise
             setWheelPowers(turn, -turn, turn, -turn);
         }
     }
 
     public void setPoseEstimate(Pose2d pose) {
-        poseEstimate = pose;
-        poseEstimator.reset(pose, getHeadingRadians(), getWheelPositionsInches());
+        poseEstimate.set(pose);
+        poseEstimator.reset(pose, getHeadingRadians(), encoderCountsStale() ? ZERO_WHEELS : readWheelPositionsInches());
+        localizer.reset(pose.x, pose.y, pose.heading,
+                RobotConstants.EKF_START_POSITION_STD_IN, RobotConstants.EKF_START_HEADING_STD_RAD);
+        poseHistory.clear(); // older samples are in the old frame now
+        poseHistory.add(hardware.getTimestampNanos(), pose.x, pose.y, pose.heading);
     }
 
+    /** immutable copy of the current pose; allocates, so loops should use the out-parameter version */
     public Pose2d getPoseEstimate() {
-        return poseEstimate;
+        return poseEstimate.toPose2d();
     }
 
+    public MutablePose2d getPoseEstimate(MutablePose2d out) {
+        return out.set(poseEstimate);
+    }
+
+    /** steady-state this allocates nothing: primitives in, primitives out */
     public void updatePoseEstimate() {
-        poseEstimator.update(getHeadingRadians(), getWheelPositionsInches());
-        poseEstimate = poseEstimator.getPoseEstimate();
+        if (encoderCountsStale()) {
+            return; // already banked, and these counts are from before the reset
+        }
+        poseEstimator.update(getHeadingRadians(), readWheelPositionsInches());
+        localizer.predict(poseEstimator.getLastStrafe(), poseEstimator.getLastForward(),
+                poseEstimator.getLastHeadingChange());
+        localizer.getPoseEstimate(poseEstimate);
+        poseHistory.add(hardware.getTimestampNanos(), poseEstimate.x, poseEstimate.y, poseEstimate.heading);
+    }
+
+    /**
+     * A landmark at field (landmarkX, landmarkY), e.g. a backdrop tag, seen right now at strafe/forward
+     * inches from the robot center. Runs the EKF correction; false if it got gated out as a bad detection.
+     * Only x and y move: the heading stays the IMU's, same as what heading hold, turns, and field-centric use.
+     * The pose history moves along with the correction so getMotionSince() doesn't mistake it for driving.
+     */
+    public boolean addLandmarkMeasurement(double landmarkX, double landmarkY,
+                                          double strafe, double forward, double noiseStd) {
+        if (!localizer.correctWithLandmark(landmarkX, landmarkY, strafe, forward, noiseStd)) {
+            return false;
+        }
+        double beforeX = poseEstimate.x;
+        double beforeY = poseEstimate.y;
+        double beforeHeading = poseEstimate.heading;
+        localizer.getPoseEstimate(poseEstimate);
+        poseHistory.shift(poseEstimate.x - beforeX, poseEstimate.y - beforeY,
+                AngleUtil.normalizeRadians(poseEstimate.heading - beforeHeading));
+        return true;
+    }
+
+    /** wheels + IMU only, no tag corrections; handy next to the fused pose to see how much drift there was */
+    public MutablePose2d getOdometryPose(MutablePose2d out) {
+        return poseEstimator.getPoseEstimate(out);
+    }
+
+    /** 1-sigma position uncertainty of the fused estimate, inches */
+    public double getPositionStdInches() {
+        return localizer.getPositionStd();
+    }
+
+    /** tag measurements the EKF threw out so far */
+    public int getRejectedLandmarkCount() {
+        return localizer.getRejectedCount();
+    }
+
+    /** where the estimate was at timeNanos (HardwareSnapshot clock); false if the history doesn't go back that far */
+    public boolean getPoseAt(long timeNanos, MutablePose2d out) {
+        return poseHistory.getPoseAt(timeNanos, out);
+    }
+
+    /**
+     * How far the robot has moved since timeNanos, in the robot frame it had back then:
+     * x = strafe right, y = forward (inches), heading = turn, CCW positive. Used to bring late
+     * measurements (camera frames) up to now. False if the history doesn't go back that far.
+     */
+    public boolean getMotionSince(long timeNanos, MutablePose2d out) {
+        if (!poseHistory.getPoseAt(timeNanos, pastPose)) {
+            return false;
+        }
+        double dx = poseEstimate.x - pastPose.x;
+        double dy = poseEstimate.y - pastPose.y;
+        double cos = Math.cos(pastPose.heading);
+        double sin = Math.sin(pastPose.heading);
+        out.set(dx * cos + dy * sin, -dx * sin + dy * cos,
+                AngleUtil.normalizeRadians(poseEstimate.heading - pastPose.heading));
+        return true;
     }
 
     /** reset all four drive encoders and prepare for encoder-based motion */
     public void resetDriveEncoders() {
-        frontLeft.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
-        frontRight.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
-        backLeft.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
-        backRight.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+        updatePoseEstimate(); // bank whatever we moved before the counts go back to zero
+        frontLeft.setMode(RunMode.STOP_AND_RESET_ENCODER);
+        frontRight.setMode(RunMode.STOP_AND_RESET_ENCODER);
+        backLeft.setMode(RunMode.STOP_AND_RESET_ENCODER);
+        backRight.setMode(RunMode.STOP_AND_RESET_ENCODER);
+
+        frontLeft.setMode(RunMode.RUN_USING_ENCODER);
+        frontRight.setMode(RunMode.RUN_USING_ENCODER);
+        backLeft.setMode(RunMode.RUN_USING_ENCODER);
+        backRight.setMode(RunMode.RUN_USING_ENCODER);
+        // the snapshot keeps the old counts until the next refresh(); from then on we measure from zero
+        poseEstimator.rebase(getHeadingRadians(), ZERO_WHEELS);
+        encoderResetRefresh = hardware.getRefreshCount();
+    }
 
-        frontLeft.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
-        frontRight.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
-        backLeft.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
-        backRight.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
+    /** true between resetDriveEncoders() and the next hardware.refresh(), while the snapshot has pre-reset counts */
+    private boolean encoderCountsStale() {
+        if (encoderResetRefresh >= 0 && hardware.getRefreshCount() != encoderResetRefresh) {
+            encoderResetRefresh = -1;
+        }
+        return encoderResetRefresh >= 0;
     }
 
     /** encoder + IMU helper to drive forward/backward and hold a heading */
-    public void driveStraightWithHeading(double inches, double speed, double holdHeadingDeg, LinearOpMode opMode) {
-        resetDriveEncoders();
-        int targetTicks = ticksFromInches(Math.abs(inches));
-        double direction = Math.signum(inches);
-        while (opMode.opModeIsActive() && Math.abs(getAverageEncoderPosition()) < targetTicks) {
-            double headingError = Math.toRadians(holdHeadingDeg) - getHeadingRadians();
-            double correction = Range.clip(headingError * RobotConstants.HEADING_HOLD_KP,
-                    -RobotConstants.HEADING_HOLD_MAX_TURN, RobotConstants.HEADING_HOLD_MAX_TURN);
+    public void driveStraightWithHeading(double inches, double speed, double holdHeadingDeg, OpModeControl opMode) {
+        driveStraightAsync(inches, speed, holdHeadingDeg);
+        finishEncoderMove(opMode);
+    }
 
-            setWheelPowers((direction * speed) + correction,
-                    (direction * speed) - correction,
-                    (direction * speed) + correction,
-                    (direction * speed) - correction);
+    /** encoder + IMU helper to strafe while holding heading */
+    public void strafeWithHeading(double inches, double speed, double holdHeadingDeg, OpModeControl opMode) {
+        strafeAsync(inches, speed, holdHeadingDeg);
+        finishEncoderMove(opMode);
+    }
+
+    private void finishEncoderMove(OpModeControl opMode) {
+        while (opMode.opModeIsActive() && isEncoderMoveInProgress()) {
+            hardware.refresh();
+            updateAsync(opMode);
             opMode.idle();
         }
+        encoderMove = EncoderMove.NONE;
         stop();
     }
 
-    /** encoder + IMU helper to strafe while holding heading */
-    public void strafeWithHeading(double inches, double speed, double holdHeadingDeg, LinearOpMode opMode) {
+    private void startEncoderMove(EncoderMove move, double inches, double speed, double holdHeadingDeg) {
+        cancelTrajectory();
+        turnInProgress = false;
         resetDriveEncoders();
-        int targetTicks = ticksFromInches(Math.abs(inches));
-        double direction = Math.signum(inches); // right is positive
-        while (opMode.opModeIsActive() && Math.abs(getAverageEncoderPosition()) < targetTicks) {
-            double headingError = Math.toRadians(holdHeadingDeg) - getHeadingRadians();
-            double correction = Range.clip(headingError * RobotConstants.HEADING_HOLD_KP,
-                    -RobotConstants.HEADING_HOLD_MAX_TURN, RobotConstants.HEADING_HOLD_MAX_TURN);
+        encoderMove = move;
+        encoderMoveTargetTicks = ticksFromInches(Math.abs(inches));
+        encoderMovePower = Math.signum(inches) * speed;
+        encoderMoveHeadingRadians = Math.toRadians(holdHeadingDeg);
+    }
 
-            double base = direction * speed;
-            setWheelPowers(base + correction,
-                    -base - correction,
-                    -base + correction,
-                    base - correction);
-            opMode.idle();
+    private void updateEncoderMove() {
+        if (encoderCountsStale()) {
+            return; // wait for counts from after the reset
+        }
+        if (Math.abs(getAverageEncoderPosition()) >= encoderMoveTargetTicks) {
+            encoderMove = EncoderMove.NONE;
+            stop();
+            return;
+        }
+        double headingError = encoderMoveHeadingRadians - getHeadingRadians();
+        // left-wheels-forward is a clockwise correction, so it opposes the CCW-positive error
+        double correction = MathUtil.clip(-headingError * RobotConstants.HEADING_HOLD_KP,
+                -RobotConstants.HEADING_HOLD_MAX_TURN, RobotConstants.HEADING_HOLD_MAX_TURN);
+        double base = encoderMovePower;
+        if (encoderMove == EncoderMove.STRAIGHT) {
+            setWheelPowers(base + correction, base - correction, base + correction, base - correction);
+        } else {
+            setWheelPowers(base + correction, -base - correction, -base + correction, base - correction);
         }
-        stop();
     }
 
     /** IMU-only turn helper with simple proportional control */
-    public void turnToHeading(double targetHeadingDeg, double maxPower, LinearOpMode opMode) {
+    public void turnToHeading(double targetHeadingDeg, double maxPower, OpModeControl opMode) {
         double targetRad = Math.toRadians(targetHeadingDeg);
         while (opMode.opModeIsActive()) {
+            hardware.refresh();
             double error = targetRad - getHeadingRadians();
             if (Math.abs(error) < Math.toRadians(1.5)) {
                 break;
             }
-            double turn = Range.clip(error * RobotConstants.HEADING_HOLD_KP * 1.5,
+            double turn = MathUtil.clip(-error * RobotConstants.HEADING_HOLD_KP * 1.5,
                     -maxPower, maxPower);
             setWheelPowers(turn, -turn, turn, -turn); // rotate in place
             opMode.idle();
@@ -301,10 +605,14 @@ public class DriveSubsystem {
     }
 
     private void setWheelPowers(double fl, double fr, double bl, double br) {
-        frontLeft.setPower(fl);
-        frontRight.setPower(fr);
-        backLeft.setPower(bl);
-        backRight.setPower(br);
+        // boost for a tired battery, then re-normalize so the wheel ratios (and the path) stay the same
+        double compensation = batteryMonitor != null ? batteryMonitor.getCompensation() : 1.0;
+        double max = Math.max(Math.max(Math.abs(fl), Math.abs(fr)), Math.max(Math.abs(bl), Math.abs(br)));
+        double scale = max * compensation > 1.0 ? 1.0 / max : compensation;
+        frontLeft.setPower(fl * scale);
+        frontRight.setPower(fr * scale);
+        backLeft.setPower(bl * scale);
+        backRight.setPower(br * scale);
     }
 
     private int ticksFromInches(double inches) {
@@ -315,17 +623,19 @@ public class DriveSubsystem {
         return ticks / RobotConstants.DRIVE_TICKS_PER_INCH;
     }
 
-    private double[] getWheelPositionsInches() {
-        return new double[]{
-                ticksToInches(frontLeft.getCurrentPosition()),
-                ticksToInches(frontRight.getCurrentPosition()),
-                ticksToInches(backLeft.getCurrentPosition()),
-                ticksToInches(backRight.getCurrentPosition())
-        };
+    /** fills the shared wheel buffer from the snapshot; the estimator copies it, so reuse is safe */
+    private double[] readWheelPositionsInches() {
+        wheelPositionsInches[0] = ticksToInches(hardware.getDrivePosition(HardwareSnapshot.FRONT_LEFT));
+        wheelPositionsInches[1] = ticksToInches(hardware.getDrivePosition(HardwareSnapshot.FRONT_RIGHT));
+        wheelPositionsInches[2] = ticksToInches(hardware.getDrivePosition(HardwareSnapshot.BACK_LEFT));
+        wheelPositionsInches[3] = ticksToInches(hardware.getDrivePosition(HardwareSnapshot.BACK_RIGHT));
+        return wheelPositionsInches;
     }
 
     private double getAverageEncoderPosition() {
-        return (Math.abs(frontLeft.getCurrentPosition()) + Math.abs(frontRight.getCurrentPosition())
-                + Math.abs(backLeft.getCurrentPosition()) + Math.abs(backRight.getCurrentPosition())) / 4.0;
+        return (Math.abs(hardware.getDrivePosition(HardwareSnapshot.FRONT_LEFT))
+                + Math.abs(hardware.getDrivePosition(HardwareSnapshot.FRONT_RIGHT))
+                + Math.abs(hardware.getDrivePosition(HardwareSnapshot.BACK_LEFT))
+                + Math.abs(hardware.getDrivePosition(HardwareSnapshot.BACK_RIGHT))) / 4.0;
     }
 }
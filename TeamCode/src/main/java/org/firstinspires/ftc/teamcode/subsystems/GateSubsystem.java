@@ -1,9 +1,8 @@
 package org.firstinspires.ftc.teamcode.subsystems;
 
-import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.Servo;
-
 import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.hardware.CachingServo;
+import org.firstinspires.ftc.teamcode.hardware.RobotHardware;
 
 /**
  * Runs the bucket gate servo that keeps samples in place until we want to score.
@@ -11,10 +10,10 @@ import org.firstinspires.ftc.teamcode.RobotConstants;
  * Positions live in RobotConstants so tuning is easy without digging through code.
  */
 public class GateSubsystem {
-    private final Servo gateServo;
+    private final CachingServo gateServo;
 
-    public GateSubsystem(HardwareMap hardwareMap) {
-        gateServo = hardwareMap.get(Servo.class, RobotConstants.GATE_SERVO_NAME);
+    public GateSubsystem(RobotHardware robotHardware) {
+        gateServo = new CachingServo(robotHardware.getServo(RobotConstants.GATE_SERVO_NAME), robotHardware);
     }
 
     public void open() {
@@ -33,4 +32,8 @@ public class GateSubsystem {
     public double getPosition() {
         return gateServo.getPosition();
     }
+
+    public long getSkippedWriteCount() {
+        return gateServo.getSkippedWriteCount();
+    }
 }
@@ -1,10 +1,9 @@
 package org.firstinspires.ftc.teamcode.subsystems;
 
-import com.qualcomm.robotcore.hardware.DcMotor;
-import com.qualcomm.robotcore.hardware.DcMotorSimple;
-import com.qualcomm.robotcore.hardware.HardwareMap;
-
 import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.hardware.BatteryMonitor;
+import org.firstinspires.ftc.teamcode.hardware.CachingMotor;
+import org.firstinspires.ftc.teamcode.hardware.RobotHardware;
 
 /**
  * Handles the intake roller so we can grab or spit out game pieces on command.
@@ -12,20 +11,26 @@ import org.firstinspires.ftc.teamcode.RobotConstants;
  * The motor name comes straight from RobotConstants so it matches the config file.
  */
 public class IntakeSubsystem {
-    private final DcMotor intakeMotor;
+    private final CachingMotor intakeMotor;
+    private BatteryMonitor batteryMonitor; // optional; null means no voltage compensation
+
+    public IntakeSubsystem(RobotHardware robotHardware) {
+        intakeMotor = new CachingMotor(robotHardware.getMotor(RobotConstants.INTAKE_NAME), robotHardware);
+        intakeMotor.setBrake(true);
+        intakeMotor.setReversed(false);
+    }
 
-    public IntakeSubsystem(HardwareMap hardwareMap) {
-        intakeMotor = hardwareMap.get(DcMotor.class, RobotConstants.INTAKE_NAME);
-        intakeMotor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
-        intakeMotor.setDirection(DcMotorSimple.Direction.FORWARD);
+    /** hand in a running monitor so roller speed stays consistent as the battery sags */
+    public void setBatteryMonitor(BatteryMonitor batteryMonitor) {
+        this.batteryMonitor = batteryMonitor;
     }
 
     public void intakeIn() {
-        intakeMotor.setPower(1.0);
+        intakeMotor.setPower(BatteryMonitor.compensate(batteryMonitor, 1.0));
     }
 
     public void intakeOut() {
-        intakeMotor.setPower(-1.0);
+        intakeMotor.setPower(BatteryMonitor.compensate(batteryMonitor, -1.0));
     }
 
     public void stop() {
@@ -35,4 +40,8 @@ public class IntakeSubsystem {
     public double getPower() {
         return intakeMotor.getPower();
     }
+
+    public long getSkippedWriteCount() {
+        return intakeMotor.getSkippedWriteCount();
+    }
 }
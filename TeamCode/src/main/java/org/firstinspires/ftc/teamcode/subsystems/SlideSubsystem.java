@@ -1,23 +1,28 @@
 package org.firstinspires.ftc.teamcode.subsystems;
 
-import com.qualcomm.robotcore.hardware.DcMotor;
-import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
-import com.qualcomm.robotcore.hardware.DcMotorSimple;
-import com.qualcomm.robotcore.hardware.DcMotorEx;
-import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.util.CurrentUnit;
-import com.qualcomm.robotcore.util.ElapsedTime;
-import com.qualcomm.robotcore.util.Range;
-import org.firstinspires.ftc.robotcore.external.Telemetry;
-
 import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.hardware.BatteryMonitor;
+import org.firstinspires.ftc.teamcode.hardware.CachingMotor;
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.hardware.MotorIO.RunMode;
+import org.firstinspires.ftc.teamcode.hardware.RobotHardware;
+import org.firstinspires.ftc.teamcode.trajectory.profile.MotionProfile;
+import org.firstinspires.ftc.teamcode.trajectory.profile.ProfileConstraints;
+import org.firstinspires.ftc.teamcode.util.MathUtil;
+import org.firstinspires.ftc.teamcode.util.TelemetrySink;
+import org.firstinspires.ftc.teamcode.util.TelemetrySource;
 
 /**
  * Manages the dual slide motors so they move together and stop at safe heights.
  * Preset helpers move to common scoring heights, while manualControl lets the driver trim with a stick.
  * Encoder checks keep the slides inside the intake-to-max window to protect the rigging.
+ * Preset moves are run in software instead of RUN_TO_POSITION: a trapezoid profile from where the slides are
+ * to the preset, followed by a PIDF (with gravity feedforward) on each side plus a cross-coupling term that
+ * pulls the two sides back together, so both arrive at the same time without overshooting.
+ * Positions, velocities, currents, and the stall/fault timers all come from the shared HardwareSnapshot,
+ * so refresh it once per loop, then call update() to run the preset moves.
  */
-public class SlideSubsystem {
+public class SlideSubsystem implements TelemetrySource {
     public enum SlidePreset {
         INTAKE,
         LOW,
@@ -25,31 +30,52 @@ public class SlideSubsystem {
         MAX
     }
 
-    private final DcMotorEx leftSlide;
-    private final DcMotorEx rightSlide;
+    // ticks and seconds here, the profile doesn't care about units
+    private static final ProfileConstraints PROFILE_CONSTRAINTS =
+            new ProfileConstraints(RobotConstants.SLIDE_MAX_VELOCITY, RobotConstants.SLIDE_MAX_ACCEL, 0);
+
+    private final CachingMotor leftSlide;
+    private final CachingMotor rightSlide;
+    private final HardwareSnapshot hardware;
+    private final SideController leftController = new SideController();
+    private final SideController rightController = new SideController();
+    private MotionProfile profile; // null = no preset move, manualControl() drives the slides
+    private int profileStartTicks;
+    private double profileDirection;
+    private long profileStartNanos;
+    private double referenceTicks;
+    private BatteryMonitor batteryMonitor; // optional; null means no voltage compensation
     private int targetPositionTicks = RobotConstants.SLIDE_INTAKE;
-    private final ElapsedTime stallTimer = new ElapsedTime();
+    private long stallStartNanos = 0L;
     private boolean stallTimerRunning = false;
-    private long faultTimestampMs = 0L;
+    private long faultTimestampNanos = 0L;
     private boolean faulted = false;
     private String faultReason = "";
     private double lastCommandedPower = 0.0;
 
-    public SlideSubsystem(HardwareMap hardwareMap) {
-        leftSlide = hardwareMap.get(DcMotorEx.class, RobotConstants.LEFT_SLIDE_NAME);
-        rightSlide = hardwareMap.get(DcMotorEx.class, RobotConstants.RIGHT_SLIDE_NAME);
+    public SlideSubsystem(RobotHardware robotHardware, HardwareSnapshot hardware) {
+        this.hardware = hardware;
+        // caching wrappers: manualControl re-sends mode + power every loop, most of it unchanged
+        leftSlide = new CachingMotor(robotHardware.getMotor(RobotConstants.LEFT_SLIDE_NAME), robotHardware);
+        rightSlide = new CachingMotor(robotHardware.getMotor(RobotConstants.RIGHT_SLIDE_NAME), robotHardware);
 
         // flip one side because the slides are mirrored in the real world ->
-        leftSlide.setDirection(DcMotorSimple.Direction.REVERSE);
-        rightSlide.setDirection(DcMotorSimple.Direction.FORWARD);
+        leftSlide.setReversed(true);
+        rightSlide.setReversed(false);
 
-        leftSlide.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
-        rightSlide.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
+        leftSlide.setBrake(true);
+        rightSlide.setBrake(true);
 
         leftSlide.setMode(RunMode.STOP_AND_RESET_ENCODER);
         rightSlide.setMode(RunMode.STOP_AND_RESET_ENCODER);
         leftSlide.setMode(RunMode.RUN_USING_ENCODER);
         rightSlide.setMode(RunMode.RUN_USING_ENCODER);
+        hardware.refresh(); // pick up the freshly zeroed encoders
+    }
+
+    /** hand in a running monitor so slide power (and hold power) stays consistent as the battery sags */
+    public void setBatteryMonitor(BatteryMonitor batteryMonitor) {
+        this.batteryMonitor = batteryMonitor;
     }
 
     public void goToPreset(SlidePreset preset) {
@@ -87,7 +113,53 @@ public class SlideSubsystem {
     }
 
     public boolean isBusy() {
-        return leftSlide.isBusy() || rightSlide.isBusy();
+        return profile != null && !isAtTarget();
+    }
+
+    /**
+     * Runs the preset move (if there is one) for this loop: follows the profile, then holds the preset.
+     * Call once per loop after hardware.refresh(), after anything that might start a move.
+     */
+    public void update() {
+        if (profile == null) {
+            return;
+        }
+        double t = (hardware.getTimestampNanos() - profileStartNanos) / 1e9;
+        referenceTicks = profileStartTicks + profileDirection * profile.getPosition(t);
+        double referenceVelocity = profileDirection * profile.getVelocity(t);
+        double referenceAccel = profileDirection * profile.getAcceleration(t);
+        boolean profileDone = t >= profile.getDuration();
+
+        double leftPower;
+        double rightPower;
+        if (profileDone && targetPositionTicks <= RobotConstants.SLIDE_INTAKE
+                && getAveragePosition() <= RobotConstants.SLIDE_INTAKE + 10) {
+            // resting on the bottom stop, nothing to hold up
+            leftController.reset();
+            rightController.reset();
+            leftPower = 0.0;
+            rightPower = 0.0;
+        } else {
+            double feedforward = RobotConstants.SLIDE_KG + RobotConstants.SLIDE_KV * referenceVelocity
+                    + RobotConstants.SLIDE_KA * referenceAccel;
+            double dt = hardware.getLoopTimeMs() / 1000.0;
+            leftPower = feedforward + leftController.update(referenceTicks, referenceVelocity,
+                    hardware.getLeftSlidePosition(), hardware.getLeftSlideVelocity(), profileDone, dt);
+            rightPower = feedforward + rightController.update(referenceTicks, referenceVelocity,
+                    hardware.getRightSlidePosition(), hardware.getRightSlideVelocity(), profileDone, dt);
+            // whichever side is ahead backs off a little and the other pushes a little harder
+            double skew = RobotConstants.SLIDE_SYNC_KP * (hardware.getLeftSlidePosition() - hardware.getRightSlidePosition());
+            leftPower -= skew;
+            rightPower += skew;
+        }
+
+        double largest = Math.max(Math.abs(leftPower), Math.abs(rightPower));
+        lastCommandedPower = enforceSafety(largest);
+        if (faulted) {
+            return; // triggerFault() already cut power and dropped the move
+        }
+        leftSlide.setPower(BatteryMonitor.compensate(batteryMonitor, MathUtil.clip(leftPower, -1.0, 1.0)));
+        rightSlide.setPower(BatteryMonitor.compensate(batteryMonitor, MathUtil.clip(rightPower, -1.0, 1.0)));
     }
 
     /**
@@ -95,6 +167,7 @@ public class SlideSubsystem {
      * Adds a tiny holding power when centered so the slides do not drift back down.
      */
     public void manualControl(double input) {
+        profile = null;
         attemptRecovery();
         double avgPosition = getAveragePosition();
         double requestedPower = input * RobotConstants.SLIDE_POWER;
@@ -122,20 +195,21 @@ public class SlideSubsystem {
     }
 
     public void stop() {
+        profile = null;
         leftSlide.setPower(0);
         rightSlide.setPower(0);
     }
 
     public int getAveragePosition() {
-        return (leftSlide.getCurrentPosition() + rightSlide.getCurrentPosition()) / 2;
+        return (hardware.getLeftSlidePosition() + hardware.getRightSlidePosition()) / 2;
     }
 
     public int getLeftPosition() {
-        return leftSlide.getCurrentPosition();
+        return hardware.getLeftSlidePosition();
     }
 
     public int getRightPosition() {
-        return rightSlide.getCurrentPosition();
+        return hardware.getRightSlidePosition();
     }
 
     public boolean isAtTarget() {
@@ -147,11 +221,11 @@ public class SlideSubsystem {
     }
 
     public double getAverageCurrent() {
-        return (leftSlide.getCurrent(CurrentUnit.AMPS) + rightSlide.getCurrent(CurrentUnit.AMPS)) / 2.0;
+        return (hardware.getLeftSlideCurrentAmps() + hardware.getRightSlideCurrentAmps()) / 2.0;
     }
 
     public double getAverageVelocity() {
-        return (leftSlide.getVelocity() + rightSlide.getVelocity()) / 2.0;
+        return (hardware.getLeftSlideVelocity() + hardware.getRightSlideVelocity()) / 2.0;
     }
 
     public boolean isFaulted() {
@@ -162,9 +236,14 @@ public class SlideSubsystem {
         return faultReason;
     }
 
-    public void addTelemetry(Telemetry telemetry) {
+    @Override
+    public void addTelemetry(TelemetrySink telemetry) {
         telemetry.addData("Slide target", getTargetPosition());
         telemetry.addData("Slide pos", getAveragePosition());
+        telemetry.addData("Slide L / R", "%d / %d", getLeftPosition(), getRightPosition());
+        if (profile != null) {
+            telemetry.addData("Slide reference", "%.0f", referenceTicks);
+        }
         telemetry.addData("Slide vel (t/s)", "%.1f", getAverageVelocity());
         telemetry.addData("Slide current (A)", "%.1f / %.1f", getAverageCurrent(), RobotConstants.SLIDE_CURRENT_LIMIT_AMPS);
         telemetry.addData("Slide status", faulted ? "FAULT: " + faultReason : "OK");
@@ -178,6 +257,10 @@ public class SlideSubsystem {
         return rightSlide.getPower();
     }
 
+    public long getSkippedWriteCount() {
+        return leftSlide.getSkippedWriteCount() + rightSlide.getSkippedWriteCount();
+    }
+
     private void moveToPosition(int targetTicks) {
         attemptRecovery();
         if (faulted) {
@@ -186,14 +269,18 @@ public class SlideSubsystem {
         }
         targetPositionTicks = enforceLimits(targetTicks);
 
-        leftSlide.setTargetPosition(targetPositionTicks);
-        rightSlide.setTargetPosition(targetPositionTicks);
-
-        leftSlide.setMode(RunMode.RUN_TO_POSITION);
-        rightSlide.setMode(RunMode.RUN_TO_POSITION);
-
-        // FTC SDK runs a built-in P controller in RUN_TO_POSITION; tune power + target values above
-        applyPower(RobotConstants.SLIDE_POWER);
+        // profile from where the slides are now; update() does the rest every loop
+        profileStartTicks = getAveragePosition();
+        profileDirection = Math.signum(targetPositionTicks - profileStartTicks);
+        profile = new MotionProfile(targetPositionTicks - profileStartTicks, PROFILE_CONSTRAINTS);
+        profileStartNanos = hardware.getTimestampNanos();
+        referenceTicks = profileStartTicks;
+        leftController.reset();
+        rightController.reset();
+
+        // raw power, so the hub's own velocity loop doesn't fight the feedforward
+        leftSlide.setMode(RunMode.RUN_WITHOUT_ENCODER);
+        rightSlide.setMode(RunMode.RUN_WITHOUT_ENCODER);
     }
 
     private int enforceLimits(int desiredTicks) {
@@ -210,8 +297,9 @@ public class SlideSubsystem {
         double safePower = applySlowZone(requestedPower);
         safePower = enforceSafety(safePower);
         lastCommandedPower = safePower;
-        leftSlide.setPower(safePower);
-        rightSlide.setPower(safePower);
+        double outputPower = BatteryMonitor.compensate(batteryMonitor, safePower);
+        leftSlide.setPower(outputPower);
+        rightSlide.setPower(outputPower);
     }
 
     private double applySlowZone(double requestedPower) {
@@ -225,12 +313,12 @@ public class SlideSubsystem {
     }
 
     private double enforceSafety(double requestedPower) {
-        double boundedPower = Range.clip(requestedPower, -1.0, 1.0);
-        long now = System.currentTimeMillis();
+        double boundedPower = MathUtil.clip(requestedPower, -1.0, 1.0);
+        long now = hardware.getTimestampNanos();
 
         if (faulted) {
             // keep power cut until the fault clears and currents are calm
-            if ((now - faultTimestampMs) > RobotConstants.SLIDE_FAULT_CLEAR_MS
+            if (nanosToMs(now - faultTimestampNanos) > RobotConstants.SLIDE_FAULT_CLEAR_MS
                     && getAverageCurrent() < RobotConstants.SLIDE_CURRENT_LIMIT_AMPS * RobotConstants.SLIDE_RECOVERY_CURRENT_RATIO) {
                 faulted = false;
                 faultReason = "";
@@ -247,22 +335,21 @@ public class SlideSubsystem {
 
         double avgVelocity = Math.abs(getAverageVelocity());
         double commandedPower = Math.abs(boundedPower);
-        if (commandedPower > RobotConstants.SLIDE_STALL_MIN_POWER) {
+        // sitting on the target is holding, not stalling
+        if (commandedPower > RobotConstants.SLIDE_STALL_MIN_POWER && !isAtTarget()) {
             if (avgVelocity < RobotConstants.SLIDE_STALL_VELOCITY_TICKS_PER_S) {
                 if (!stallTimerRunning) {
-                    stallTimer.reset();
+                    stallStartNanos = now;
                     stallTimerRunning = true;
                 }
-                if (stallTimer.milliseconds() > RobotConstants.SLIDE_STALL_TIMEOUT_MS) {
+                if (nanosToMs(now - stallStartNanos) > RobotConstants.SLIDE_STALL_TIMEOUT_MS) {
                     triggerFault("Slide stall detected");
                     return 0.0;
                 }
             } else {
-                stallTimer.reset();
                 stallTimerRunning = false;
             }
         } else {
-            stallTimer.reset();
             stallTimerRunning = false;
         }
 
@@ -272,9 +359,9 @@ public class SlideSubsystem {
     private void triggerFault(String reason) {
         faulted = true;
         faultReason = reason;
-        faultTimestampMs = System.currentTimeMillis();
-        stallTimer.reset();
+        faultTimestampNanos = hardware.getTimestampNanos();
         stallTimerRunning = false;
+        profile = null; // a preset move doesn't pick back up after a fault, send it again
         leftSlide.setPower(0);
         rightSlide.setPower(0);
     }
@@ -282,4 +369,29 @@ public class SlideSubsystem {
     private void attemptRecovery() {
         enforceSafety(lastCommandedPower);
     }
+
+    private static double nanosToMs(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /** PID part of one side's controller; the integral only builds up once the profile has finished */
+    private static class SideController {
+        private double integral = 0.0;
+
+        double update(double reference, double referenceVelocity, int position, double velocity,
+                      boolean holding, double dt) {
+            double error = reference - position;
+            if (holding) {
+                integral += error * dt;
+                double limit = RobotConstants.SLIDE_MAX_INTEGRAL_POWER / RobotConstants.SLIDE_KI;
+                integral = MathUtil.clip(integral, -limit, limit);
+            }
+            return RobotConstants.SLIDE_KP * error + RobotConstants.SLIDE_KI * integral
+                    + RobotConstants.SLIDE_KD * (referenceVelocity - velocity);
+        }
+
+        void reset() {
+            integral = 0.0;
+        }
+    }
 }
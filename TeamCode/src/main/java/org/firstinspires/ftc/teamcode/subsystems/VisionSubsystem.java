@@ -5,12 +5,17 @@ import android.content.res.Resources;
 import com.acmerobotics.dashboard.FtcDashboard;
 import com.acmerobotics.dashboard.config.Config;
 import com.qualcomm.robotcore.external.Telemetry;
-import com.qualcomm.robotcore.external.hardware.camera.controls.ExposureControl;
-import com.qualcomm.robotcore.external.hardware.camera.controls.WhiteBalanceControl;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.WebcamName;
 
 import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.vision.BackdropTarget;
+import org.firstinspires.ftc.teamcode.vision.CameraControlManager;
+import org.firstinspires.ftc.teamcode.vision.DetectedMotif;
+import org.firstinspires.ftc.teamcode.vision.LatestFrameBuffer;
+import org.firstinspires.ftc.teamcode.vision.SleeveClassifier;
+import org.firstinspires.ftc.teamcode.vision.TagRoiTracker;
+import org.firstinspires.ftc.teamcode.vision.VisionSource;
 import org.openftc.apriltag.AprilTagDetection;
 import org.openftc.apriltag.AprilTagDetectorJNI;
 import org.openftc.easyopencv.OpenCvCamera;
@@ -18,35 +23,27 @@ import org.openftc.easyopencv.OpenCvCameraFactory;
 import org.openftc.easyopencv.OpenCvCameraRotation;
 import org.openftc.easyopencv.OpenCvPipeline;
 import org.openftc.easyopencv.OpenCvWebcam;
-import org.opencv.core.Core;
+import org.openftc.easyopencv.TimestampedOpenCvPipeline;
 import org.opencv.core.Mat;
-import org.opencv.core.MatOfPoint;
 import org.opencv.core.Point;
 import org.opencv.core.Rect;
 import org.opencv.core.Scalar;
 import org.opencv.imgproc.Imgproc;
 
 import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 /**
  * EasyOpenCV-backed vision helper that streams from a webcam and classifies the sleeve/signal motif.
- * The pipeline uses simple color thresholds in three regions of interest and reports MOTIF_A/B/C.
+ * The pipeline counts pixels inside the color thresholds in three regions of interest and reports MOTIF_A/B/C.
  * Replace the thresholds/ROIs as you tune on the real field — the public API stays the same.
  */
 @Config
-public class VisionSubsystem {
-
-    public enum DetectedMotif {
-        MOTIF_A,
-        MOTIF_B,
-        MOTIF_C
-    }
+public class VisionSubsystem implements VisionSource {
 
     private final OpenCvWebcam webcam;
     private final SleevePipeline pipeline;
     private final AprilTagPipeline aprilTagPipeline;
+    private final CameraControlManager cameraControls;
     private final Telemetry telemetry;
     private volatile String cameraStatus = "Not started";
 
@@ -73,11 +70,15 @@ public class VisionSubsystem {
     public static double FY = 578.272;
     public static double CX = 402.145;
     public static double CY = 221.506;
-    public static double TAG_DECIMATION = 2.0;
+    public static double TAG_DECIMATION = 2.0; // while searching; tracking picks its own from the tag size
     public static int TAG_ROI_X = 40;
     public static int TAG_ROI_Y = 120;
     public static int TAG_ROI_WIDTH = 560;
     public static int TAG_ROI_HEIGHT = 240;
+    public static double TAG_TRACK_MARGIN = 1.0;        // tag widths of room around a tracked tag for motion
+    public static int TAG_TRACK_MISSES = 3;             // missed frames before going back to the full search ROI
+    public static double TAG_MIN_DECIMATED_PIXELS = 24; // tag width left after decimation that still detects well
+    public static int TAG_MAX_DECIMATION = 4;
 
     // Camera control toggles
     public static boolean USE_MANUAL_EXPOSURE = true;
@@ -87,7 +88,8 @@ public class VisionSubsystem {
 
     // Filtering knobs
     public static double SCORE_SMOOTHING = 0.6; // closer to 1.0 = more smoothing
-    public static double CONTOUR_WEIGHT = 0.35; // fraction of score that comes from contour area
+    public static int SLEEVE_SAMPLE_STEP = 2; // score every Nth row and column; 2 = a quarter of the pixels
+    public static boolean DRAW_SLEEVE_OVERLAY = true; // ROI boxes + scores on the preview; off saves frame time
 
     public VisionSubsystem(HardwareMap hardwareMap) {
         this(hardwareMap, null);
@@ -103,6 +105,7 @@ public class VisionSubsystem {
         pipeline = new SleevePipeline();
         webcam.setPipeline(pipeline);
         aprilTagPipeline = new AprilTagPipeline();
+        cameraControls = new CameraControlManager(webcam);
     }
 
     /** start streaming to the RC phone and begin detecting motifs */
@@ -111,6 +114,7 @@ public class VisionSubsystem {
             @Override
             public void onOpened() {
                 webcam.startStreaming(640, 480, OpenCvCameraRotation.UPRIGHT);
+                cameraControls.invalidate(); // fresh device, push every setting again
                 applyCameraControls();
                 cameraStatus = "Streaming";
                 pushTelemetry("Camera opened and streaming");
@@ -126,25 +130,36 @@ public class VisionSubsystem {
 
     /** stop streaming to free the camera for other OpModes */
     public void stop() {
+        cameraControls.shutdown();
+        aprilTagPipeline.stopWorker(); // waits for the worker, it's still holding a frame until it exits
         webcam.stopStreaming();
         webcam.closeCameraDeviceAsync(() -> { });
     }
 
     /** latest classification from the pipeline; safe to call from any OpMode loop */
+    @Override
     public DetectedMotif getCurrentMotif() {
         return pipeline.getCurrentMotif();
     }
 
     /** latest AprilTag target pose (if any) */
+    @Override
     public BackdropTarget getBackdropTarget(DetectedMotif desired) {
         return aprilTagPipeline.getBestTargetFor(desired);
     }
 
+    @Override
+    public BackdropTarget getLatestBackdropTag() {
+        return aprilTagPipeline.getLatestTarget();
+    }
+
     /** switch from the sleeve pipeline to the AprilTag pipeline for backdrop alignment */
+    @Override
     public void useAprilTags() {
         if (webcam != null) {
+            aprilTagPipeline.restartTracking();
+            aprilTagPipeline.startWorker();
             webcam.setPipeline(aprilTagPipeline);
-            aprilTagPipeline.updateDecimation();
         }
     }
 
@@ -155,38 +170,54 @@ public class VisionSubsystem {
         }
     }
 
+    /** capture -> detection done for the newest tag result, NaN until there is one */
+    public double getTagLatencyMs() {
+        return aprilTagPipeline.getLatencyMs();
+    }
+
+    /** frames/s the tag worker actually gets through, vs getCameraFps() coming in */
+    public double getTagDetectionFps() {
+        return aprilTagPipeline.getDetectionFps();
+    }
+
+    /** camera frames the tag worker skipped because a newer one showed up first */
+    public long getDroppedTagFrames() {
+        return aprilTagPipeline.getDroppedFrames();
+    }
+
+    /** e.g. "tracking 180x150 @3x" or "searching 560x240 @2x", for seeing what the tag tracker is doing */
+    public String getTagTrackingStatus() {
+        return aprilTagPipeline.getTrackingStatus();
+    }
+
+    public double getCameraFps() {
+        return webcam.getFps();
+    }
+
     /** latest camera state for telemetry */
     public String getCameraStatus() {
         return cameraStatus;
     }
 
     /**
-     * Apply manual exposure/white balance controls. Safe to call repeatedly (e.g. after slider tweaks).
+     * Apply manual exposure/white balance controls. Safe to call every loop (e.g. after slider tweaks):
+     * only values that changed are sent, and the USB writes happen off the OpMode thread.
      */
     public void applyCameraControls() {
         if (webcam == null || !webcam.isStreaming()) {
             return;
         }
+        cameraControls.request(USE_MANUAL_EXPOSURE, EXPOSURE_MS, USE_MANUAL_WHITE_BALANCE, WHITE_BALANCE_KELVIN);
+    }
 
-        if (USE_MANUAL_EXPOSURE) {
-            try {
-                ExposureControl exposureControl = webcam.getExposureControl();
-                exposureControl.setMode(ExposureControl.Mode.Manual);
-                exposureControl.setExposure((long) EXPOSURE_MS, TimeUnit.MILLISECONDS);
-            } catch (RuntimeException e) {
-                pushTelemetry("Exposure control failed: " + e.getMessage());
-            }
-        }
+    /** how long the last camera control write took, for spotting USB latency spikes */
+    public double getCameraControlWriteMs() {
+        return cameraControls.getLastWriteMs();
+    }
 
-        if (USE_MANUAL_WHITE_BALANCE) {
-            try {
-                WhiteBalanceControl wbControl = webcam.getWhiteBalanceControl();
-                wbControl.setMode(WhiteBalanceControl.Mode.MANUAL);
-                wbControl.setWhiteBalanceTemperature(WHITE_BALANCE_KELVIN);
-            } catch (RuntimeException e) {
-                pushTelemetry("White balance control failed: " + e.getMessage());
-            }
-        }
+    /** last camera control failure, or null if everything went through */
+    public String getCameraControlError() {
+        return cameraControls.getLastError();
     }
 
     private void pushTelemetry(String message) {
@@ -204,37 +235,63 @@ public class VisionSubsystem {
     /**
      * Example pipeline that checks three side-by-side ROIs for dominant color.
      * Tune the HSV bounds for your sleeve/signal art and adjust the rectangles to match the frame.
+     * The bounds become a SleeveClassifier lookup table (rebuilt only when one changes), and the three ROIs
+     * share a row band, so each sampled row is copied out of the frame once and all three get scored from it
+     * straight off the RGB pixels. SLEEVE_SAMPLE_STEP skips rows and columns for a cheaper, coarser count.
      */
     private static class SleevePipeline extends OpenCvPipeline {
-        private DetectedMotif currentMotif = DetectedMotif.MOTIF_A;
+        private static final Scalar LEFT_COLOR = new Scalar(255, 0, 0);
+        private static final Scalar CENTER_COLOR = new Scalar(0, 255, 0);
+        private static final Scalar RIGHT_COLOR = new Scalar(0, 0, 255);
+        private static final Scalar TEXT_COLOR = new Scalar(255, 255, 255);
+        private static final Scalar SCORE_COLOR = new Scalar(255, 255, 0);
+        private static final Point MOTIF_TEXT_ORIGIN = new Point(20, 40);
+        private static final Point SCORE_TEXT_ORIGIN = new Point(20, 70);
+
+        private volatile DetectedMotif currentMotif = DetectedMotif.MOTIF_A;
         private double leftAvg = 0;
         private double centerAvg = 0;
         private double rightAvg = 0;
 
-        private Rect clampRect(Rect roi, Mat input) {
-            int x = Math.max(0, roi.x);
-            int y = Math.max(0, roi.y);
-            int width = Math.min(roi.width, input.width() - x);
-            int height = Math.min(roi.height, input.height() - y);
-            return new Rect(x, y, Math.max(0, width), Math.max(0, height));
-        }
+        private final SleeveClassifier classifier = new SleeveClassifier(4);
+        private byte[] rowBuffer = new byte[0];
+        private final Rect leftRect = new Rect();
+        private final Rect centerRect = new Rect();
+        private final Rect rightRect = new Rect();
+
+        private final StringBuilder scoreText = new StringBuilder(32);
 
         @Override
         public Mat processFrame(Mat input) {
-            Mat hsv = new Mat();
-            Imgproc.cvtColor(input, hsv, Imgproc.COLOR_RGB2HSV);
-
-            Rect leftRoi = clampRect(new Rect(LEFT_X, ROI_Y, ROI_WIDTH, ROI_HEIGHT), hsv);
-            Rect centerRoi = clampRect(new Rect(CENTER_X, ROI_Y, ROI_WIDTH, ROI_HEIGHT), hsv);
-            Rect rightRoi = clampRect(new Rect(RIGHT_X, ROI_Y, ROI_WIDTH, ROI_HEIGHT), hsv);
-
-            double leftScore = computeScore(hsv.submat(leftRoi));
-            double centerScore = computeScore(hsv.submat(centerRoi));
-            double rightScore = computeScore(hsv.submat(rightRoi));
+            refreshBounds();
+            int frameWidth = input.width();
+            int channels = input.channels();
+            if (rowBuffer.length != frameWidth * channels) {
+                rowBuffer = new byte[frameWidth * channels];
+            }
+            clampRoi(leftRect, LEFT_X, input);
+            clampRoi(centerRect, CENTER_X, input);
+            clampRoi(rightRect, RIGHT_X, input);
+
+            // one pass down the shared band; every ROI gets the same rows
+            int step = Math.max(1, SLEEVE_SAMPLE_STEP);
+            int top = Math.max(0, ROI_Y);
+            int bottom = Math.min(input.height(), ROI_Y + ROI_HEIGHT);
+            int leftCount = 0;
+            int centerCount = 0;
+            int rightCount = 0;
+            for (int row = top; row < bottom; row += step) {
+                input.get(row, 0, rowBuffer);
+                leftCount += classifier.countMatches(rowBuffer, leftRect.x, leftRect.width, channels, step);
+                centerCount += classifier.countMatches(rowBuffer, centerRect.x, centerRect.width, channels, step);
+                rightCount += classifier.countMatches(rowBuffer, rightRect.x, rightRect.width, channels, step);
+            }
 
-            leftAvg = smooth(leftAvg, leftScore);
-            centerAvg = smooth(centerAvg, centerScore);
-            rightAvg = smooth(rightAvg, rightScore);
+            // same units as the old mask sums (255 per matching pixel), scaled back up for the skipped pixels
+            double scale = 255.0 * step * step;
+            leftAvg = smooth(leftAvg, leftCount * scale);
+            centerAvg = smooth(centerAvg, centerCount * scale);
+            rightAvg = smooth(rightAvg, rightCount * scale);
 
             // choose the brightest ROI as the detected motif
             if (leftAvg > centerAvg && leftAvg > rightAvg) {
@@ -245,68 +302,37 @@ public class VisionSubsystem {
                 currentMotif = DetectedMotif.MOTIF_C;
             }
 
-            // draw debug overlays so tuning is easier on the RC preview
-            Imgproc.rectangle(input, leftRoi, new Scalar(255, 0, 0), 2);
-            Imgproc.rectangle(input, centerRoi, new Scalar(0, 255, 0), 2);
-            Imgproc.rectangle(input, rightRoi, new Scalar(0, 0, 255), 2);
-            Imgproc.putText(input, currentMotif.name(), new Point(20, 40),
-                    Imgproc.FONT_HERSHEY_SIMPLEX, 1.0, new Scalar(255, 255, 255), 2);
-            Imgproc.putText(input, String.format("L%.0f C%.0f R%.0f", leftAvg, centerAvg, rightAvg),
-                    new Point(20, 70), Imgproc.FONT_HERSHEY_SIMPLEX, 0.6, new Scalar(255, 255, 0), 2);
+            // draw debug overlays so tuning is easier on the RC preview (flip off for matches)
+            if (DRAW_SLEEVE_OVERLAY) {
+                Imgproc.rectangle(input, leftRect, LEFT_COLOR, 2);
+                Imgproc.rectangle(input, centerRect, CENTER_COLOR, 2);
+                Imgproc.rectangle(input, rightRect, RIGHT_COLOR, 2);
+                Imgproc.putText(input, currentMotif.name(), MOTIF_TEXT_ORIGIN,
+                        Imgproc.FONT_HERSHEY_SIMPLEX, 1.0, TEXT_COLOR, 2);
+                scoreText.setLength(0);
+                scoreText.append('L').append(Math.round(leftAvg))
+                        .append(" C").append(Math.round(centerAvg))
+                        .append(" R").append(Math.round(rightAvg));
+                Imgproc.putText(input, scoreText.toString(), SCORE_TEXT_ORIGIN,
+                        Imgproc.FONT_HERSHEY_SIMPLEX, 0.6, SCORE_COLOR, 2);
+            }
 
-            hsv.release();
             return input;
         }
 
-        private double computeScore(Mat roi) {
-            // blend multiple colors so different sleeve palettes still classify
-            Scalar lowerBlue = new Scalar(LOWER_BLUE);
-            Scalar upperBlue = new Scalar(UPPER_BLUE);
-            Scalar lowerGreen = new Scalar(LOWER_GREEN);
-            Scalar upperGreen = new Scalar(UPPER_GREEN);
-            Scalar lowerRed1 = new Scalar(LOWER_RED1);
-            Scalar upperRed1 = new Scalar(UPPER_RED1);
-            Scalar lowerRed2 = new Scalar(LOWER_RED2);
-            Scalar upperRed2 = new Scalar(UPPER_RED2);
-
-            Mat blueMask = new Mat();
-            Mat greenMask = new Mat();
-            Mat redMask = new Mat();
-            Mat redMask2 = new Mat();
-            Mat combinedMask = new Mat();
-            Core.inRange(roi, lowerBlue, upperBlue, blueMask);
-            Core.inRange(roi, lowerGreen, upperGreen, greenMask);
-            Core.inRange(roi, lowerRed1, upperRed1, redMask);
-            Core.inRange(roi, lowerRed2, upperRed2, redMask2);
-
-            Core.add(blueMask, greenMask, combinedMask);
-            Core.add(combinedMask, redMask, combinedMask);
-            Core.add(combinedMask, redMask2, combinedMask);
-
-            double pixelSum = Core.sumElems(combinedMask).val[0];
-            double contourScore = computeContourArea(combinedMask);
-            double score = pixelSum * (1 - CONTOUR_WEIGHT) + contourScore * CONTOUR_WEIGHT;
-
-            blueMask.release();
-            greenMask.release();
-            redMask.release();
-            redMask2.release();
-            combinedMask.release();
-            roi.release();
-            return score;
+        /** the classifier only rebuilds its table if one of these actually changed */
+        private void refreshBounds() {
+            classifier.setRange(0, LOWER_BLUE, UPPER_BLUE);
+            classifier.setRange(1, LOWER_GREEN, UPPER_GREEN);
+            classifier.setRange(2, LOWER_RED1, UPPER_RED1);
+            classifier.setRange(3, LOWER_RED2, UPPER_RED2);
         }
 
-        private double computeContourArea(Mat mask) {
-            List<MatOfPoint> contours = new ArrayList<>();
-            Mat hierarchy = new Mat();
-            Imgproc.findContours(mask, contours, hierarchy, Imgproc.RETR_EXTERNAL, Imgproc.CHAIN_APPROX_SIMPLE);
-            double maxArea = 0;
-            for (MatOfPoint contour : contours) {
-                maxArea = Math.max(maxArea, Imgproc.contourArea(contour));
-                contour.release();
-            }
-            hierarchy.release();
-            return maxArea;
+        private void clampRoi(Rect rect, int x, Mat frame) {
+            rect.x = Math.max(0, Math.min(x, frame.width()));
+            rect.y = Math.max(0, Math.min(ROI_Y, frame.height()));
+            rect.width = Math.max(0, Math.min(ROI_WIDTH - (rect.x - x), frame.width() - rect.x));
+            rect.height = Math.max(0, Math.min(ROI_HEIGHT - (rect.y - ROI_Y), frame.height() - rect.y));
         }
 
         private double smooth(double previous, double current) {
@@ -321,85 +347,232 @@ public class VisionSubsystem {
         }
     }
 
-    /** Pose/offset helper for aligning to the backdrop tag columns */
-    public static class BackdropTarget {
-        public final int tagId;
-        public final double rangeMeters;
-        public final double lateralMeters;
-        public final double headingErrorRad;
-        public final double xPixelError;
-
-        public BackdropTarget(int tagId, double rangeMeters, double lateralMeters,
-                              double headingErrorRad, double xPixelError) {
-            this.tagId = tagId;
-            this.rangeMeters = rangeMeters;
-            this.lateralMeters = lateralMeters;
-            this.headingErrorRad = headingErrorRad;
-            this.xPixelError = xPixelError;
-        }
-
-        public double getLateralInches() {
-            return lateralMeters * 39.3701;
-        }
-
-        public double getRangeInches() {
-            return rangeMeters * 39.3701;
+    /**
+     * Cached submat header for one ROI. The header is only rebuilt when the (clamped) rectangle
+     * or the parent frame size changes, so steady-state frames reuse the same view.
+     */
+    private static class RoiView {
+        final Rect rect = new Rect();
+        private Mat view;
+        private Mat parent;
+        private int parentWidth = -1;
+        private int parentHeight = -1;
+
+        /** returns the submat for this ROI, or null if it falls completely off the frame */
+        Mat update(Mat frame, int x, int y, int width, int height) {
+            int clampedX = Math.max(0, x);
+            int clampedY = Math.max(0, y);
+            int clampedWidth = Math.max(0, Math.min(width, frame.width() - clampedX));
+            int clampedHeight = Math.max(0, Math.min(height, frame.height() - clampedY));
+
+            boolean changed = view == null || parent != frame
+                    || parentWidth != frame.width() || parentHeight != frame.height()
+                    || rect.x != clampedX || rect.y != clampedY
+                    || rect.width != clampedWidth || rect.height != clampedHeight;
+            if (changed) {
+                rect.x = clampedX;
+                rect.y = clampedY;
+                rect.width = clampedWidth;
+                rect.height = clampedHeight;
+                parent = frame;
+                parentWidth = frame.width();
+                parentHeight = frame.height();
+                if (view != null) {
+                    view.release();
+                    view = null;
+                }
+                if (clampedWidth > 0 && clampedHeight > 0) {
+                    view = frame.submat(rect);
+                }
+            }
+            return view;
         }
     }
 
-    /** AprilTag pipeline focused on backdrop tags 1-3 with ROI filtering */
-    private static class AprilTagPipeline extends OpenCvPipeline {
+    /**
+     * AprilTag pipeline focused on backdrop tags 1-3 with ROI filtering.
+     * The camera thread only crops + grays the frame and drops it into a LatestFrameBuffer; the JNI detector
+     * runs on its own worker, so a slow detection skips stale frames instead of holding up the next frame and
+     * the preview. Each result remembers which frame it came from and how long it took.
+     * Once a tag is found, TagRoiTracker shrinks the crop around it and raises decimation for big (close) tags,
+     * which is most of the backdrop approach, so each detection has far fewer pixels to chew through.
+     */
+    private static class AprilTagPipeline extends TimestampedOpenCvPipeline {
+        private static final Scalar ROI_COLOR = new Scalar(255, 128, 0);
+        private static final Scalar TAG_COLOR = new Scalar(0, 255, 255);
+
         private final long nativeApriltagPtr;
-        private final Mat gray = new Mat();
-        private volatile AprilTagDetection latestDetection;
+        private final LatestFrameBuffer<TagFrame> frames =
+                new LatestFrameBuffer<>(new TagFrame(), new TagFrame(), new TagFrame());
+        private final RoiView tagRoi = new RoiView();
+        private final TagRoiTracker tracker = new TagRoiTracker(); // camera thread only
+        private long lastTrackedSequence = -1;
+        private final Point tagCenter = new Point();
+        private final Point labelOrigin = new Point();
+        private int labelId = -1;
+        private String label = ""; // "id:<labelId>", only rebuilt when a different tag shows up
+        private long nextSequence = 0;
+
+        private volatile TagResult latestResult;
+        private volatile boolean restartTracking = true;
+        private volatile boolean trackingTag = false;
+        private volatile int roiWidth = 0;
+        private volatile int roiHeight = 0;
+        private volatile double frameDecimation = 0;
+        private volatile double detectionFps = 0.0;
+        private volatile boolean running = false;
+        private Thread worker;
 
         AprilTagPipeline() {
             nativeApriltagPtr = AprilTagDetectorJNI.createApriltagDetector(
                     AprilTagDetectorJNI.TagFamily.TAG_36h11.string, 3, 3);
-            updateDecimation();
         }
 
         @Override
-        public Mat processFrame(Mat input) {
-            Rect roi = clampRect(new Rect(TAG_ROI_X, TAG_ROI_Y, TAG_ROI_WIDTH, TAG_ROI_HEIGHT), input);
-            if (roi.width <= 0 || roi.height <= 0) {
-                return input;
-            }
-            Mat cropped = input.submat(roi);
-            Imgproc.cvtColor(cropped, gray, Imgproc.COLOR_RGB2GRAY);
-
-            double roiCx = CX - roi.x;
-            double roiCy = CY - roi.y;
-            ArrayList<AprilTagDetection> detections = AprilTagDetectorJNI.runAprilTagDetectorSimple(
-                    nativeApriltagPtr, gray, TAG_SIZE_METERS, FX, FY, roiCx, roiCy);
-
-            cropped.release();
-
-            latestDetection = chooseBackdropDetection(detections);
-
-            // Draw ROI for dashboard/preview feedback
-            Imgproc.rectangle(input, roi, new Scalar(255, 128, 0), 2);
-            if (latestDetection != null) {
-                Point center = new Point(latestDetection.center.x + roi.x, latestDetection.center.y + roi.y);
-                Imgproc.circle(input, center, 6, new Scalar(0, 255, 255), -1);
-                Imgproc.putText(input, String.format("id:%d", latestDetection.id),
-                        new Point(center.x - 20, center.y - 10), Imgproc.FONT_HERSHEY_SIMPLEX, 0.5,
-                        new Scalar(0, 255, 255), 2);
+        public Mat processFrame(Mat input, long captureTimeNanos) {
+            TagResult result = latestResult;
+            updateTracker(result, input);
+            Mat cropped = tagRoi.update(input, tracker.getX(), tracker.getY(), tracker.getWidth(), tracker.getHeight());
+            if (cropped != null) {
+                TagFrame frame = frames.beginWrite();
+                Imgproc.cvtColor(cropped, frame.gray, Imgproc.COLOR_RGB2GRAY);
+                frame.roiX = tagRoi.rect.x;
+                frame.roiY = tagRoi.rect.y;
+                frame.decimation = tracker.getDecimation();
+                frame.captureTimeNanos = captureTimeNanos;
+                frame.sequence = nextSequence++;
+                frames.publish();
+                // Draw ROI for dashboard/preview feedback (after the copy so the box never reaches the detector)
+                Imgproc.rectangle(input, tagRoi.rect, ROI_COLOR, 2);
             }
 
+            // whatever the worker found last, which may be a frame or two behind this one
+            if (result != null && result.detection != null) {
+                tagCenter.x = result.detection.center.x + result.roiX;
+                tagCenter.y = result.detection.center.y + result.roiY;
+                labelOrigin.x = tagCenter.x - 20;
+                labelOrigin.y = tagCenter.y - 10;
+                Imgproc.circle(input, tagCenter, 6, TAG_COLOR, -1);
+                if (result.detection.id != labelId) {
+                    labelId = result.detection.id;
+                    label = "id:" + labelId;
+                }
+                Imgproc.putText(input, label, labelOrigin,
+                        Imgproc.FONT_HERSHEY_SIMPLEX, 0.5, TAG_COLOR, 2);
+            }
             return input;
         }
 
-        private Rect clampRect(Rect roi, Mat input) {
-            int x = Math.max(0, roi.x);
-            int y = Math.max(0, roi.y);
-            int width = Math.min(roi.width, input.width() - x);
-            int height = Math.min(roi.height, input.height() - y);
-            return new Rect(x, y, Math.max(0, width), Math.max(0, height));
+        /** feed the tracker each worker result once, then let it pick this frame's crop and decimation */
+        private void updateTracker(TagResult result, Mat input) {
+            if (restartTracking) {
+                restartTracking = false;
+                tracker.reset();
+                lastTrackedSequence = result != null ? result.sequence : -1; // don't re-track an old result
+            }
+            if (result != null && result.sequence != lastTrackedSequence) {
+                lastTrackedSequence = result.sequence;
+                AprilTagDetection detection = result.detection;
+                if (detection != null && detection.corners != null && detection.corners.length > 0) {
+                    double minX = Double.POSITIVE_INFINITY;
+                    double minY = Double.POSITIVE_INFINITY;
+                    double maxX = Double.NEGATIVE_INFINITY;
+                    double maxY = Double.NEGATIVE_INFINITY;
+                    for (Point corner : detection.corners) {
+                        minX = Math.min(minX, corner.x);
+                        minY = Math.min(minY, corner.y);
+                        maxX = Math.max(maxX, corner.x);
+                        maxY = Math.max(maxY, corner.y);
+                    }
+                    tracker.onDetection(minX + result.roiX, minY + result.roiY, maxX + result.roiX, maxY + result.roiY);
+                } else {
+                    tracker.onMiss();
+                }
+            }
+            tracker.setTuning(TAG_TRACK_MARGIN, TAG_TRACK_MISSES, TAG_MIN_DECIMATED_PIXELS, TAG_MAX_DECIMATION);
+            tracker.update(input.width(), input.height(),
+                    TAG_ROI_X, TAG_ROI_Y, TAG_ROI_WIDTH, TAG_ROI_HEIGHT, TAG_DECIMATION);
+            trackingTag = tracker.isTracking();
+            roiWidth = tracker.getWidth();
+            roiHeight = tracker.getHeight();
+            frameDecimation = tracker.getDecimation();
+        }
+
+        synchronized void startWorker() {
+            if (worker != null) {
+                return;
+            }
+            running = true;
+            worker = new Thread(this::detectLoop, "AprilTagWorker");
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        /**
+         * returns once the worker is gone, so nothing is still detecting on a frame when the camera gets torn down.
+         * It wakes within the 100 ms take() timeout, or as soon as a detection that's already running finishes.
+         */
+        synchronized void stopWorker() {
+            running = false;
+            if (worker == null) {
+                return;
+            }
+            worker.interrupt();
+            boolean interrupted = false;
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            worker = null;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void detectLoop() {
+            long windowStart = System.nanoTime();
+            int windowCount = 0;
+            double appliedDecimation = -1;
+            while (running) {
+                TagFrame frame;
+                try {
+                    frame = frames.take(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (frame == null) {
+                    continue; // camera not streaming this pipeline right now
+                }
+                if (frame.decimation != appliedDecimation) {
+                    appliedDecimation = frame.decimation;
+                    AprilTagDetectorJNI.setApriltagDetectorDecimation(nativeApriltagPtr, appliedDecimation);
+                }
+
+                long start = System.nanoTime();
+                ArrayList<AprilTagDetection> detections = AprilTagDetectorJNI.runAprilTagDetectorSimple(
+                        nativeApriltagPtr, frame.gray, TAG_SIZE_METERS, FX, FY, CX - frame.roiX, CY - frame.roiY);
+                long done = System.nanoTime();
+                latestResult = new TagResult(chooseBackdropDetection(detections), frame.roiX, frame.roiY,
+                        frame.captureTimeNanos, frame.sequence,
+                        (done - start) / 1e6, (done - frame.captureTimeNanos) / 1e6);
+
+                windowCount++;
+                if (done - windowStart >= 1_000_000_000L) {
+                    detectionFps = windowCount * 1e9 / (done - windowStart);
+                    windowStart = done;
+                    windowCount = 0;
+                }
+            }
         }
 
         private AprilTagDetection chooseBackdropDetection(ArrayList<AprilTagDetection> detections) {
             AprilTagDetection best = null;
+            if (detections == null) {
+                return null;
+            }
             for (AprilTagDetection detection : detections) {
                 if (detection.id < 1 || detection.id > 3) {
                     continue;
@@ -412,26 +585,81 @@ public class VisionSubsystem {
         }
 
         public BackdropTarget getBestTargetFor(DetectedMotif desired) {
-            AprilTagDetection detection = latestDetection;
-            if (detection == null) {
-                return null;
-            }
+            // whatever tag is in view wins, the routines strafe off its lateral to reach their column
+            return getLatestTarget();
+        }
 
-            int expectedId = desired == DetectedMotif.MOTIF_A ? 1
-                    : desired == DetectedMotif.MOTIF_B ? 2 : 3;
-            if (detection.id != expectedId) {
-                // still return the seen tag, but note mismatch via heading/offset
-            }
+        /** the worker builds it once per frame, so polling this every loop doesn't allocate */
+        public BackdropTarget getLatestTarget() {
+            TagResult result = latestResult;
+            return result != null ? result.target : null;
+        }
+
+        /** newest result's capture -> done time, or NaN before the first one */
+        double getLatencyMs() {
+            TagResult result = latestResult;
+            return result != null ? result.latencyMs : Double.NaN;
+        }
+
+        double getDetectionFps() {
+            return detectionFps;
+        }
+
+        long getDroppedFrames() {
+            return frames.getDroppedCount();
+        }
 
+        String getTrackingStatus() {
+            return String.format("%s %dx%d @%.0fx", trackingTag ? "tracking" : "searching",
+                    roiWidth, roiHeight, frameDecimation);
+        }
+
+        /** start over from the full search ROI on the next frame (picked up by the camera thread) */
+        void restartTracking() {
+            restartTracking = true;
+        }
+    }
+
+    /** one cropped gray frame on its way to the worker; three of these rotate through the buffer */
+    private static class TagFrame {
+        final Mat gray = new Mat();
+        int roiX;
+        int roiY;
+        double decimation; // the worker sets the (not thread safe) native detector to this before detecting
+        long captureTimeNanos;
+        long sequence;
+    }
+
+    /** what the worker made of one frame; detection is null if no backdrop tag was in it */
+    private static class TagResult {
+        final AprilTagDetection detection;
+        final int roiX;
+        final int roiY;
+        final long captureTimeNanos;
+        final long sequence;
+        final double processingMs;
+        final double latencyMs;
+        final BackdropTarget target; // null along with detection
+
+        TagResult(AprilTagDetection detection, int roiX, int roiY, long captureTimeNanos, long sequence,
+                  double processingMs, double latencyMs) {
+            this.detection = detection;
+            this.roiX = roiX;
+            this.roiY = roiY;
+            this.captureTimeNanos = captureTimeNanos;
+            this.sequence = sequence;
+            this.processingMs = processingMs;
+            this.latencyMs = latencyMs;
+            target = detection != null ? toTarget() : null;
+        }
+
+        private BackdropTarget toTarget() {
             double lateral = detection.pose.x;
             double range = Math.hypot(detection.pose.x, detection.pose.z);
             double headingError = detection.pose.yaw;
-            double pixelOffset = detection.center.x - CX;
-            return new BackdropTarget(detection.id, range, lateral, headingError, pixelOffset);
-        }
-
-        public void updateDecimation() {
-            AprilTagDetectorJNI.setApriltagDetectorDecimation(nativeApriltagPtr, TAG_DECIMATION);
+            double pixelOffset = detection.center.x + roiX - CX;
+            return new BackdropTarget(detection.id, range, lateral, headingError, pixelOffset,
+                    captureTimeNanos, sequence, processingMs, latencyMs);
         }
     }
 }
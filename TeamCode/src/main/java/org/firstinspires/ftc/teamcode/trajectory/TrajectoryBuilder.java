@@ -1,43 +1,161 @@
 package org.firstinspires.ftc.teamcode.trajectory;
 
 import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+import org.firstinspires.ftc.teamcode.trajectory.profile.ProfileConstraints;
 import org.firstinspires.ftc.teamcode.trajectory.segments.HolonomicMoveSegment;
+import org.firstinspires.ftc.teamcode.trajectory.segments.ProfiledMoveSegment;
+import org.firstinspires.ftc.teamcode.trajectory.segments.PurePursuitSegment;
+import org.firstinspires.ftc.teamcode.trajectory.segments.SplineSegment;
 import org.firstinspires.ftc.teamcode.trajectory.segments.TrajectorySegment;
+import org.firstinspires.ftc.teamcode.trajectory.spline.QuinticHermiteSpline;
+import org.firstinspires.ftc.teamcode.trajectory.spline.SplinePath;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Fluent builder for stringing together simple holonomic trajectory segments.
+ * Back-to-back splineTo() calls merge into one SplineSegment so the robot flows through the knots;
+ * anything else in between ends the run. Back-to-back lineThrough() calls do the same for straight legs,
+ * chaining into one PurePursuitSegment that only stops at the last waypoint. Tangents use the same angle convention as heading
+ * (0 = toward +y, counter-clockwise positive), so for a robot driving forward tangent == heading.
  */
 public class TrajectoryBuilder {
     private final List<TrajectorySegment> segments = new ArrayList<>();
     private final Pose2d startPose;
     private Pose2d currentPose;
+    private double currentTangent; // direction we're travelling at currentPose
+
+    // splines waiting to be merged into one segment
+    private final List<QuinticHermiteSpline> pendingSplines = new ArrayList<>();
+    private final List<Double> pendingHeadings = new ArrayList<>();
+    private ProfileConstraints pendingConstraints;
+
+    // straight legs waiting to be chained into one pure pursuit segment
+    private final List<Pose2d> pendingWaypoints = new ArrayList<>();
+    private final List<ProfileConstraints> pendingLegConstraints = new ArrayList<>();
 
     public TrajectoryBuilder(Pose2d startPose) {
         this.startPose = startPose;
         this.currentPose = startPose;
+        this.currentTangent = startPose.heading;
     }
 
     public TrajectoryBuilder lineTo(Pose2d targetPose, double maxPower) {
+        flushPending();
         segments.add(new HolonomicMoveSegment(targetPose, maxPower));
-        currentPose = targetPose;
+        moveTo(targetPose);
         return this;
     }
 
+    /** straight line on a velocity/accel/jerk-limited profile instead of the P controller */
+    public TrajectoryBuilder lineTo(Pose2d targetPose, ProfileConstraints constraints) {
+        flushPending();
+        segments.add(new ProfiledMoveSegment(currentPose, targetPose, constraints));
+        moveTo(targetPose);
+        return this;
+    }
+
+    /**
+     * Straight leg to waypoint that the robot rolls through instead of stopping at, as long as the next call
+     * is another lineThrough(). The last one in a row is where it actually settles. A leg with no length
+     * (turn in place) falls back to lineTo().
+     */
+    public TrajectoryBuilder lineThrough(Pose2d waypoint, ProfileConstraints constraints) {
+        flushSplines();
+        if (Math.hypot(waypoint.x - currentPose.x, waypoint.y - currentPose.y) < 1e-9) {
+            return lineTo(waypoint, constraints);
+        }
+        if (pendingWaypoints.isEmpty()) {
+            pendingWaypoints.add(currentPose);
+        }
+        pendingWaypoints.add(waypoint);
+        pendingLegConstraints.add(constraints);
+        moveTo(waypoint);
+        return this;
+    }
+
+    public TrajectoryBuilder strafeTo(double x, double y, ProfileConstraints constraints) {
+        return lineTo(new Pose2d(x, y, currentPose.heading), constraints);
+    }
+
     public TrajectoryBuilder strafeTo(double x, double y, double maxPower) {
         return lineTo(new Pose2d(x, y, currentPose.heading), maxPower);
     }
 
-    public TrajectoryBuilder splineTo(Pose2d targetPose, double midPointFraction, double maxPower) {
-        double midX = currentPose.x + (targetPose.x - currentPose.x) * midPointFraction;
-        double midY = currentPose.y + (targetPose.y - currentPose.y) * midPointFraction;
-        lineTo(new Pose2d(midX, midY, targetPose.heading), maxPower);
-        return lineTo(targetPose, maxPower);
+    /** direction the next spline leaves in; only matters after a stop, since a moving robot keeps its tangent */
+    public TrajectoryBuilder setTangent(double tangentRadians) {
+        flushPending();
+        currentTangent = tangentRadians;
+        return this;
+    }
+
+    /**
+     * Quintic spline to targetPose, arriving while travelling along endTangent. The heading blends to
+     * targetPose.heading on its own, so the robot can face one way and drive another.
+     * Consecutive calls with the same constraints become one continuous segment.
+     */
+    public TrajectoryBuilder splineTo(Pose2d targetPose, double endTangent, ProfileConstraints constraints) {
+        flushWaypoints();
+        if (!pendingSplines.isEmpty() && constraints != pendingConstraints) {
+            flushSplines();
+        }
+        if (pendingSplines.isEmpty()) {
+            pendingHeadings.add(currentPose.heading);
+            pendingConstraints = constraints;
+        }
+        // derivative magnitude = chord length keeps the curve from looping or going flat; zero second
+        // derivative at the knots means curvature is continuous (zero) where pieces meet
+        double chord = Math.hypot(targetPose.x - currentPose.x, targetPose.y - currentPose.y);
+        pendingSplines.add(new QuinticHermiteSpline(
+                currentPose.x, currentPose.y,
+                -Math.sin(currentTangent) * chord, Math.cos(currentTangent) * chord, 0, 0,
+                targetPose.x, targetPose.y,
+                -Math.sin(endTangent) * chord, Math.cos(endTangent) * chord, 0, 0));
+        pendingHeadings.add(targetPose.heading);
+        currentPose = targetPose;
+        currentTangent = endTangent;
+        return this;
     }
 
     public Trajectory build() {
+        flushPending();
         return new Trajectory(startPose, new ArrayList<>(segments));
     }
+
+    private void moveTo(Pose2d targetPose) {
+        double dx = targetPose.x - currentPose.x;
+        double dy = targetPose.y - currentPose.y;
+        if (Math.hypot(dx, dy) > 1e-9) {
+            currentTangent = Math.atan2(-dx, dy); // inverse of (-sin, cos)
+        }
+        currentPose = targetPose;
+    }
+
+    private void flushPending() {
+        flushSplines();
+        flushWaypoints();
+    }
+
+    private void flushSplines() {
+        if (pendingSplines.isEmpty()) {
+            return;
+        }
+        double[] headings = new double[pendingHeadings.size()];
+        for (int i = 0; i < headings.length; i++) {
+            headings[i] = pendingHeadings.get(i);
+        }
+        segments.add(new SplineSegment(new SplinePath(pendingSplines), headings, pendingConstraints));
+        pendingSplines.clear();
+        pendingHeadings.clear();
+    }
+
+    private void flushWaypoints() {
+        if (pendingWaypoints.isEmpty()) {
+            return;
+        }
+        segments.add(new PurePursuitSegment(new ArrayList<>(pendingWaypoints), new ArrayList<>(pendingLegConstraints)));
+        pendingWaypoints.clear();
+        pendingLegConstraints.clear();
+    }
 }
@@ -0,0 +1,34 @@
+package org.firstinspires.ftc.teamcode.trajectory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Named trajectories built ahead of time (during init) so nothing is generated once the match clock runs.
+ * After start it's just a HashMap lookup. A missing name is a programming mistake, so get() fails loudly.
+ */
+public class TrajectoryCache {
+    private final Map<String, Trajectory> trajectories = new HashMap<>();
+
+    public void put(String name, Trajectory trajectory) {
+        if (trajectories.put(name, trajectory) != null) {
+            throw new IllegalArgumentException("Trajectory " + name + " was built twice");
+        }
+    }
+
+    public Trajectory get(String name) {
+        Trajectory trajectory = trajectories.get(name);
+        if (trajectory == null) {
+            throw new IllegalArgumentException("No cached trajectory named " + name);
+        }
+        return trajectory;
+    }
+
+    public boolean contains(String name) {
+        return trajectories.containsKey(name);
+    }
+
+    public int size() {
+        return trajectories.size();
+    }
+}
@@ -0,0 +1,61 @@
+package org.firstinspires.ftc.teamcode.trajectory;
+
+import org.firstinspires.ftc.teamcode.trajectory.segments.SegmentDriver;
+import org.firstinspires.ftc.teamcode.trajectory.segments.TrajectorySegment;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Walks a trajectory one control step at a time instead of blocking until it's done,
+ * so the loop calling update() can keep the slides, intake, and telemetry going while the robot drives.
+ */
+public class TrajectoryFollower {
+    private List<TrajectorySegment> segments = Collections.emptyList();
+    private int segmentIndex = 0;
+    private boolean segmentStarted = false;
+
+    public void start(Trajectory trajectory) {
+        segments = trajectory.getSegments();
+        segmentIndex = 0;
+        segmentStarted = false;
+    }
+
+    /**
+     * One control step on the current segment. A segment that finishes hands straight over to the next
+     * one in the same call, so no loop is wasted between segments. Returns false once everything is done.
+     */
+    public boolean update(SegmentDriver driver) {
+        while (segmentIndex < segments.size()) {
+            TrajectorySegment segment = segments.get(segmentIndex);
+            if (!segmentStarted) {
+                segment.start(driver);
+                segmentStarted = true;
+            }
+            if (!segment.update(driver)) {
+                return true;
+            }
+            segmentIndex++;
+            segmentStarted = false;
+        }
+        return false;
+    }
+
+    public boolean isBusy() {
+        return segmentIndex < segments.size();
+    }
+
+    /** drop whatever's left; the caller is in charge of stopping the motors */
+    public void cancel() {
+        segmentIndex = segments.size();
+    }
+
+    /** index of the segment being driven right now, handy for telemetry */
+    public int getSegmentIndex() {
+        return segmentIndex;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+}
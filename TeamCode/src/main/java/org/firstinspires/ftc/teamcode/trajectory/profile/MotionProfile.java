@@ -0,0 +1,148 @@
+package org.firstinspires.ftc.teamcode.trajectory.profile;
+
+/**
+ * Rest-to-rest S-curve (jerk-limited) motion profile over a distance, precomputed once at build time.
+ * It's stored as up to seven constant-jerk phases: jerk up, hold accel, jerk down, cruise, then the mirror
+ * image to stop. With jerk unlimited the jerk phases collapse to nothing and it's a normal trapezoid.
+ * Short moves that can't reach the velocity (or even the acceleration) limit get their peaks lowered, so
+ * the profile always ends exactly at the distance with zero velocity and no overshoot.
+ * Sampling is a scan over at most seven phases and allocates nothing.
+ */
+public class MotionProfile {
+    private static final int PHASES = 7;
+
+    private final double distance;
+    private final double duration;
+    // per phase: start time, length, jerk, and the state (accel, velocity, position) at the start
+    private final double[] phaseStart = new double[PHASES];
+    private final double[] phaseLength = new double[PHASES];
+    private final double[] phaseJerk = new double[PHASES];
+    private final double[] startAccel = new double[PHASES];
+    private final double[] startVelocity = new double[PHASES];
+    private final double[] startPosition = new double[PHASES];
+
+    public MotionProfile(double distance, ProfileConstraints constraints) {
+        this.distance = Math.abs(distance);
+        double maxJerk = constraints.maxJerk;
+        double accel = constraints.maxAcceleration;
+        double velocity = constraints.maxVelocity;
+        boolean jerkLimited = maxJerk > 0;
+
+        // highest speed the distance allows: the accel half alone covers v * accelTime / 2
+        if (velocity * accelTime(velocity, accel, maxJerk) > this.distance) {
+            velocity = peakVelocityForDistance(this.distance, accel, maxJerk);
+        }
+        // if we never hit max accel on the way up, the peak accel is whatever the jerk gets to
+        double jerkTime = 0.0;
+        double holdTime;
+        if (jerkLimited) {
+            if (velocity < accel * accel / maxJerk) {
+                jerkTime = Math.sqrt(velocity / maxJerk);
+                accel = maxJerk * jerkTime;
+                holdTime = 0.0;
+            } else {
+                jerkTime = accel / maxJerk;
+                holdTime = velocity / accel - jerkTime;
+            }
+        } else {
+            holdTime = velocity / accel;
+        }
+        double rampTime = 2 * jerkTime + holdTime;
+        double cruiseTime = velocity > 0 ? (this.distance - velocity * rampTime) / velocity : 0.0;
+        cruiseTime = Math.max(0.0, cruiseTime);
+
+        double[] lengths = {jerkTime, holdTime, jerkTime, cruiseTime, jerkTime, holdTime, jerkTime};
+        double[] jerks = {maxJerk, 0, -maxJerk, 0, -maxJerk, 0, maxJerk};
+        // without a jerk limit accel just steps; give the hold phases their accel directly
+        double[] accelOverride = jerkLimited ? null : new double[] {0, accel, 0, 0, 0, -accel, 0};
+
+        double t = 0, a = 0, v = 0, p = 0;
+        for (int i = 0; i < PHASES; i++) {
+            if (accelOverride != null) {
+                a = accelOverride[i];
+            }
+            double length = lengths[i];
+            double jerk = jerkLimited ? jerks[i] : 0.0;
+            phaseStart[i] = t;
+            phaseLength[i] = length;
+            phaseJerk[i] = jerk;
+            startAccel[i] = a;
+            startVelocity[i] = v;
+            startPosition[i] = p;
+            p += v * length + a * length * length / 2.0 + jerk * length * length * length / 6.0;
+            v += a * length + jerk * length * length / 2.0;
+            a += jerk * length;
+            t += length;
+        }
+        duration = t;
+    }
+
+    /** time to go from rest to v (and, by symmetry, back down) */
+    private static double accelTime(double v, double accel, double jerk) {
+        if (jerk <= 0) {
+            return v / accel;
+        }
+        if (v >= accel * accel / jerk) {
+            return v / accel + accel / jerk;
+        }
+        return 2.0 * Math.sqrt(v / jerk);
+    }
+
+    /** peak velocity for a move too short to cruise: solves v * accelTime(v) = distance */
+    private static double peakVelocityForDistance(double distance, double accel, double jerk) {
+        if (jerk <= 0) {
+            return Math.sqrt(distance * accel);
+        }
+        double b = accel * accel / jerk;
+        double v = (-b + Math.sqrt(b * b + 4.0 * accel * distance)) / 2.0;
+        if (v >= b) {
+            return v;
+        }
+        // never reaches max accel: v * 2 * sqrt(v / jerk) = distance
+        return Math.cbrt(distance * distance * jerk / 4.0);
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public double getDuration() {
+        return duration;
+    }
+
+    public double getPosition(double t) {
+        if (t >= duration) {
+            return distance;
+        }
+        int i = phaseAt(t);
+        double dt = Math.max(0.0, t - phaseStart[i]);
+        return startPosition[i] + startVelocity[i] * dt + startAccel[i] * dt * dt / 2.0
+                + phaseJerk[i] * dt * dt * dt / 6.0;
+    }
+
+    public double getVelocity(double t) {
+        if (t >= duration || t <= 0) {
+            return 0.0;
+        }
+        int i = phaseAt(t);
+        double dt = t - phaseStart[i];
+        return startVelocity[i] + startAccel[i] * dt + phaseJerk[i] * dt * dt / 2.0;
+    }
+
+    public double getAcceleration(double t) {
+        if (t >= duration || t < 0) {
+            return 0.0;
+        }
+        int i = phaseAt(t);
+        return startAccel[i] + phaseJerk[i] * (t - phaseStart[i]);
+    }
+
+    private int phaseAt(double t) {
+        for (int i = PHASES - 1; i > 0; i--) {
+            if (t >= phaseStart[i] && phaseLength[i] > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
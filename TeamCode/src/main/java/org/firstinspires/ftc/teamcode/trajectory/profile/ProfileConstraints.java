@@ -0,0 +1,25 @@
+package org.firstinspires.ftc.teamcode.trajectory.profile;
+
+/**
+ * Velocity / acceleration / jerk limits for a motion profile, in inches and seconds.
+ * A jerk of 0 means "don't limit jerk", which gives a plain trapezoid.
+ */
+public class ProfileConstraints {
+    public final double maxVelocity;
+    public final double maxAcceleration;
+    public final double maxJerk;
+
+    public ProfileConstraints(double maxVelocity, double maxAcceleration, double maxJerk) {
+        if (maxVelocity <= 0 || maxAcceleration <= 0 || maxJerk < 0) {
+            throw new IllegalArgumentException("Profile limits must be positive (jerk may be 0 for unlimited)");
+        }
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.maxJerk = maxJerk;
+    }
+
+    /** same accel/jerk, slower top speed; handy for the careful last few inches into the backdrop */
+    public ProfileConstraints scaledVelocity(double scale) {
+        return new ProfileConstraints(maxVelocity * scale, maxAcceleration, maxJerk);
+    }
+}
@@ -1,9 +1,6 @@
 package org.firstinspires.ftc.teamcode.trajectory.segments;
 
-import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
-
 import org.firstinspires.ftc.teamcode.geometry.Pose2d;
-import org.firstinspires.ftc.teamcode.subsystems.DriveSubsystem;
 
 /**
  * Straight-line move segment that leverages the drive pose estimator for feedback.
@@ -18,8 +15,13 @@ public class HolonomicMoveSegment implements TrajectorySegment {
     }
 
     @Override
-    public void follow(DriveSubsystem drive, LinearOpMode opMode) {
-        drive.driveToPose(targetPose, maxPower, opMode);
+    public void start(SegmentDriver driver) {
+        // plain P-to-pose, nothing to set up
+    }
+
+    @Override
+    public boolean update(SegmentDriver driver) {
+        return driver.driveTowardPose(targetPose, maxPower);
     }
 
     @Override
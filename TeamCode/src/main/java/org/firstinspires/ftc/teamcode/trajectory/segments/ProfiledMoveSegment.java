@@ -0,0 +1,88 @@
+package org.firstinspires.ftc.teamcode.trajectory.segments;
+
+import org.firstinspires.ftc.teamcode.geometry.AngleUtil;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+import org.firstinspires.ftc.teamcode.trajectory.profile.MotionProfile;
+import org.firstinspires.ftc.teamcode.trajectory.profile.ProfileConstraints;
+
+/**
+ * Straight-line move that rides a precomputed S-curve profile instead of a P controller.
+ * Each step the reference pose/velocity/acceleration is sampled at the elapsed time and handed to the
+ * driver for feedforward + feedback, so it accelerates hard, cruises, and brakes without overshooting.
+ * Heading is blended along with the distance covered. Once the profile runs out it holds the end pose
+ * until inside tolerance (or SETTLE_TIMEOUT_S passes, so a bumped robot can't stall the auto).
+ * Paths get built ahead of time, so the robot may not be sitting on startPose (an AprilTag nudge, a bump);
+ * whatever offset it starts with is faded out over the move instead of yanked out on the first loop.
+ */
+public class ProfiledMoveSegment implements TrajectorySegment {
+    public static final double SETTLE_TIMEOUT_S = 0.5;
+
+    private final Pose2d startPose;
+    private final Pose2d targetPose;
+    private final MotionProfile profile;
+    private final double directionX;
+    private final double directionY;
+    private final double headingChange;
+    private final MutablePose2d startEstimate = new MutablePose2d();
+    private double startTimeSeconds;
+    private double offsetX;
+    private double offsetY;
+    private double offsetHeading;
+
+    public ProfiledMoveSegment(Pose2d startPose, Pose2d targetPose, ProfileConstraints constraints) {
+        this.startPose = startPose;
+        this.targetPose = targetPose;
+        double dx = targetPose.x - startPose.x;
+        double dy = targetPose.y - startPose.y;
+        double distance = Math.hypot(dx, dy);
+        profile = new MotionProfile(distance, constraints);
+        directionX = distance > 1e-9 ? dx / distance : 0.0;
+        directionY = distance > 1e-9 ? dy / distance : 0.0;
+        headingChange = AngleUtil.normalizeRadians(targetPose.heading - startPose.heading);
+    }
+
+    @Override
+    public void start(SegmentDriver driver) {
+        startTimeSeconds = driver.getTimeSeconds();
+        driver.getPoseEstimate(startEstimate);
+        offsetX = startEstimate.x - startPose.x;
+        offsetY = startEstimate.y - startPose.y;
+        offsetHeading = AngleUtil.normalizeRadians(startEstimate.heading - startPose.heading);
+    }
+
+    @Override
+    public boolean update(SegmentDriver driver) {
+        double t = driver.getTimeSeconds() - startTimeSeconds;
+        double duration = profile.getDuration();
+        if (t >= duration && (driver.isAtPose(targetPose) || t > duration + SETTLE_TIMEOUT_S)) {
+            return true;
+        }
+
+        double distance = profile.getDistance();
+        double s = profile.getPosition(t);
+        double v = profile.getVelocity(t);
+        double a = profile.getAcceleration(t);
+        double fraction = distance > 1e-9 ? s / distance : 1.0;
+        double fractionRate = distance > 1e-9 ? v / distance : 0.0;
+        double remaining = 1.0 - fraction; // share of the start offset still left in the reference
+
+        driver.followReference(startPose.x + directionX * s + offsetX * remaining,
+                startPose.y + directionY * s + offsetY * remaining,
+                startPose.heading + headingChange * fraction + offsetHeading * remaining,
+                directionX * v - offsetX * fractionRate,
+                directionY * v - offsetY * fractionRate,
+                (headingChange - offsetHeading) * fractionRate,
+                directionX * a, directionY * a);
+        return false;
+    }
+
+    @Override
+    public Pose2d getTargetPose() {
+        return targetPose;
+    }
+
+    public double getDuration() {
+        return profile.getDuration();
+    }
+}
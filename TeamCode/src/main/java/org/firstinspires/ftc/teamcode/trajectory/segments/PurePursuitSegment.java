@@ -0,0 +1,198 @@
+package org.firstinspires.ftc.teamcode.trajectory.segments;
+
+import org.firstinspires.ftc.teamcode.geometry.AngleUtil;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+import org.firstinspires.ftc.teamcode.trajectory.profile.ProfileConstraints;
+
+import java.util.List;
+
+/**
+ * Pure pursuit through a chain of straight legs: every loop the robot finds where it is along the path,
+ * picks the point LOOKAHEAD_IN further on, and drives at it. The middle waypoints get rounded off instead
+ * of stopped at, and since it always steers from wherever the robot actually is, a start offset or a bump
+ * just gets absorbed. Speed is planned from the path: ramp up at the accel limit, ease off before slower
+ * legs and corners (a corner cut with lookahead L and turn θ is roughly a radius L / 2sin(θ/2) arc), and
+ * brake for the end. No jerk limit here, corners are where the time goes. Within SETTLE_RADIUS_IN of the end
+ * it switches to holding the final pose, same settle rule as ProfiledMoveSegment.
+ */
+public class PurePursuitSegment implements TrajectorySegment {
+    public static final double LOOKAHEAD_IN = 8.0;
+    public static final double SETTLE_RADIUS_IN = 1.0;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+    private final double[] lengthAtWaypoint;
+    private final double[] legMaxVelocity;
+    private final double[] waypointMaxVelocity; // speed allowed going through each middle waypoint
+    private final double maxAcceleration;
+    private final Pose2d targetPose;
+    private final MutablePose2d pose = new MutablePose2d();
+
+    private int legIndex;
+    private double speed;
+    private double lastTimeSeconds;
+    private boolean settling;
+    private double settleStartSeconds;
+    private double lookaheadX;
+    private double lookaheadY;
+
+    /**
+     * waypoints includes the start pose; constraints.get(i) limits the leg from waypoint i to i + 1.
+     * Legs need some length, turning in place is ProfiledMoveSegment's job.
+     */
+    public PurePursuitSegment(List<Pose2d> waypoints, List<ProfileConstraints> constraints) {
+        int legs = waypoints.size() - 1;
+        if (legs < 1 || constraints.size() != legs) {
+            throw new IllegalArgumentException("Need at least two waypoints and one constraint per leg");
+        }
+        xs = new double[legs + 1];
+        ys = new double[legs + 1];
+        headings = new double[legs + 1];
+        lengthAtWaypoint = new double[legs + 1];
+        legMaxVelocity = new double[legs];
+        waypointMaxVelocity = new double[legs + 1];
+        double minAcceleration = Double.POSITIVE_INFINITY;
+        for (int i = 0; i <= legs; i++) {
+            Pose2d waypoint = waypoints.get(i);
+            xs[i] = waypoint.x;
+            ys[i] = waypoint.y;
+            headings[i] = waypoint.heading;
+            if (i > 0) {
+                double legLength = Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+                if (legLength < 1e-9) {
+                    throw new IllegalArgumentException("Pure pursuit legs can't be zero length");
+                }
+                lengthAtWaypoint[i] = lengthAtWaypoint[i - 1] + legLength;
+                ProfileConstraints leg = constraints.get(i - 1);
+                legMaxVelocity[i - 1] = leg.maxVelocity;
+                minAcceleration = Math.min(minAcceleration, leg.maxAcceleration);
+            }
+        }
+        maxAcceleration = minAcceleration;
+
+        for (int i = 1; i < legs; i++) {
+            double inX = (xs[i] - xs[i - 1]) / (lengthAtWaypoint[i] - lengthAtWaypoint[i - 1]);
+            double inY = (ys[i] - ys[i - 1]) / (lengthAtWaypoint[i] - lengthAtWaypoint[i - 1]);
+            double outX = (xs[i + 1] - xs[i]) / (lengthAtWaypoint[i + 1] - lengthAtWaypoint[i]);
+            double outY = (ys[i + 1] - ys[i]) / (lengthAtWaypoint[i + 1] - lengthAtWaypoint[i]);
+            double turn = Math.abs(Math.atan2(inX * outY - inY * outX, inX * outX + inY * outY));
+            double cornerSpeed = turn > 1e-6
+                    ? Math.sqrt(maxAcceleration * LOOKAHEAD_IN / (2.0 * Math.sin(turn / 2.0)))
+                    : Double.POSITIVE_INFINITY;
+            waypointMaxVelocity[i] = Math.min(cornerSpeed, legMaxVelocity[i]);
+        }
+        targetPose = waypoints.get(legs);
+    }
+
+    @Override
+    public void start(SegmentDriver driver) {
+        legIndex = 0;
+        speed = 0.0;
+        settling = false;
+        lastTimeSeconds = driver.getTimeSeconds();
+    }
+
+    @Override
+    public boolean update(SegmentDriver driver) {
+        double now = driver.getTimeSeconds();
+        double dt = Math.max(0.0, now - lastTimeSeconds);
+        lastTimeSeconds = now;
+        driver.getPoseEstimate(pose);
+
+        if (settling) {
+            if (driver.isAtPose(targetPose) || now - settleStartSeconds > ProfiledMoveSegment.SETTLE_TIMEOUT_S) {
+                return true;
+            }
+            driver.followReference(targetPose.x, targetPose.y, targetPose.heading, 0, 0, 0, 0, 0);
+            return false;
+        }
+
+        // closest point on this leg or the next; never look back so a crossing path can't rewind us
+        int lastLeg = legIndex + 1 < legMaxVelocity.length ? legIndex + 1 : legIndex;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        double legFraction = 0.0;
+        for (int leg = legIndex; leg <= lastLeg; leg++) {
+            double legX = xs[leg + 1] - xs[leg];
+            double legY = ys[leg + 1] - ys[leg];
+            double legLengthSquared = legX * legX + legY * legY;
+            double fraction = ((pose.x - xs[leg]) * legX + (pose.y - ys[leg]) * legY) / legLengthSquared;
+            fraction = Math.max(0.0, Math.min(1.0, fraction));
+            double distance = Math.hypot(xs[leg] + legX * fraction - pose.x, ys[leg] + legY * fraction - pose.y);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                legIndex = leg;
+                legFraction = fraction;
+            }
+        }
+        double legLength = lengthAtWaypoint[legIndex + 1] - lengthAtWaypoint[legIndex];
+        double s = lengthAtWaypoint[legIndex] + legLength * legFraction;
+        double remaining = lengthAtWaypoint[lengthAtWaypoint.length - 1] - s;
+        if (remaining < SETTLE_RADIUS_IN) {
+            settling = true;
+            settleStartSeconds = now;
+            driver.followReference(targetPose.x, targetPose.y, targetPose.heading, 0, 0, 0, 0, 0);
+            return false;
+        }
+
+        // fastest we can go and still get down to every speed limit ahead of us in time
+        double speedLimit = Math.min(legMaxVelocity[legIndex], Math.sqrt(2.0 * maxAcceleration * remaining));
+        for (int waypoint = legIndex + 1; waypoint < legMaxVelocity.length; waypoint++) {
+            double distance = lengthAtWaypoint[waypoint] - s;
+            double limit = waypointMaxVelocity[waypoint];
+            speedLimit = Math.min(speedLimit, Math.sqrt(limit * limit + 2.0 * maxAcceleration * distance));
+        }
+        double newSpeed = Math.min(speedLimit, speed + maxAcceleration * dt);
+        double acceleration = dt > 1e-9
+                ? Math.max(-maxAcceleration, Math.min(maxAcceleration, (newSpeed - speed) / dt))
+                : 0.0;
+        speed = newSpeed;
+
+        pointAtLength(s + LOOKAHEAD_IN);
+        double towardX = lookaheadX - pose.x;
+        double towardY = lookaheadY - pose.y;
+        double towardLength = Math.hypot(towardX, towardY);
+        if (towardLength < 1e-9) {
+            towardX = xs[legIndex + 1] - xs[legIndex];
+            towardY = ys[legIndex + 1] - ys[legIndex];
+            towardLength = legLength;
+        }
+        double directionX = towardX / towardLength;
+        double directionY = towardY / towardLength;
+
+        double headingChange = AngleUtil.normalizeRadians(headings[legIndex + 1] - headings[legIndex]);
+        // lookahead does the steering, the feedback on the closest path point just tidies up drift sideways
+        double onPathX = xs[legIndex] + (xs[legIndex + 1] - xs[legIndex]) * legFraction;
+        double onPathY = ys[legIndex] + (ys[legIndex + 1] - ys[legIndex]) * legFraction;
+        driver.followReference(onPathX, onPathY, headings[legIndex] + headingChange * legFraction,
+                directionX * speed, directionY * speed, headingChange / legLength * speed,
+                directionX * acceleration, directionY * acceleration);
+        return false;
+    }
+
+    private void pointAtLength(double length) {
+        int last = lengthAtWaypoint.length - 1;
+        if (length >= lengthAtWaypoint[last]) {
+            lookaheadX = xs[last];
+            lookaheadY = ys[last];
+            return;
+        }
+        int leg = legIndex;
+        while (lengthAtWaypoint[leg + 1] < length) {
+            leg++;
+        }
+        double fraction = (length - lengthAtWaypoint[leg]) / (lengthAtWaypoint[leg + 1] - lengthAtWaypoint[leg]);
+        lookaheadX = xs[leg] + (xs[leg + 1] - xs[leg]) * fraction;
+        lookaheadY = ys[leg] + (ys[leg + 1] - ys[leg]) * fraction;
+    }
+
+    @Override
+    public Pose2d getTargetPose() {
+        return targetPose;
+    }
+
+    public double getLength() {
+        return lengthAtWaypoint[lengthAtWaypoint.length - 1];
+    }
+}
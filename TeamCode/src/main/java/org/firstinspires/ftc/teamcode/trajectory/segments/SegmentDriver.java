@@ -0,0 +1,30 @@
+package org.firstinspires.ftc.teamcode.trajectory.segments;
+
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+
+/**
+ * Whatever actually moves the robot for a segment. DriveSubsystem hands one in while following,
+ * which keeps the trajectory classes free of SDK types so they also compile off-robot.
+ */
+public interface SegmentDriver {
+    /** one control step toward the pose; returns true (and writes nothing) once it's within tolerance */
+    boolean driveTowardPose(Pose2d targetPose, double maxPower);
+
+    /**
+     * One control step tracking a moving reference, all in the field frame (inches, radians, per second):
+     * feedforward from the reference velocity/acceleration plus feedback on how far we are from it.
+     */
+    void followReference(double x, double y, double heading,
+                         double velocityX, double velocityY, double angularVelocity,
+                         double accelX, double accelY);
+
+    /** copies the current pose estimate into out without allocating */
+    MutablePose2d getPoseEstimate(MutablePose2d out);
+
+    /** true when the current estimate is inside the position + heading tolerances of the pose */
+    boolean isAtPose(Pose2d pose);
+
+    /** the drive's clock in seconds; comes from the hardware snapshot so the sim runs on sim time */
+    double getTimeSeconds();
+}
@@ -0,0 +1,100 @@
+package org.firstinspires.ftc.teamcode.trajectory.segments;
+
+import org.firstinspires.ftc.teamcode.geometry.AngleUtil;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+import org.firstinspires.ftc.teamcode.trajectory.profile.MotionProfile;
+import org.firstinspires.ftc.teamcode.trajectory.profile.ProfileConstraints;
+import org.firstinspires.ftc.teamcode.trajectory.spline.SplinePath;
+
+/**
+ * Rides one S-curve profile along a whole chain of splines, so there's no stop at the knots.
+ * Each step: profile distance -> arc-length table -> point, tangent, and curvature on the spline, then
+ * feedforward along the tangent plus the v²·κ sideways push a curve needs. Top speed is capped so that push
+ * never beats the accel limit in the tightest bend. Heading blends knot to knot, independent of the tangent,
+ * since it's a holonomic drive. Same settle-at-the-end rule and start-offset fade as ProfiledMoveSegment.
+ */
+public class SplineSegment implements TrajectorySegment {
+    private final SplinePath path;
+    private final double[] knotHeadings;
+    private final MotionProfile profile;
+    private final Pose2d targetPose;
+    private final MutablePose2d startEstimate = new MutablePose2d();
+    private double startTimeSeconds;
+    private double offsetX;
+    private double offsetY;
+    private double offsetHeading;
+
+    /** knotHeadings: robot heading at the start of each piece plus one for the very end */
+    public SplineSegment(SplinePath path, double[] knotHeadings, ProfileConstraints constraints) {
+        if (knotHeadings.length != path.getPieceCount() + 1) {
+            throw new IllegalArgumentException("Need one heading per knot (pieces + 1)");
+        }
+        this.path = path;
+        this.knotHeadings = knotHeadings.clone();
+        double maxCurvature = path.getMaxCurvature();
+        if (maxCurvature > 1e-9) {
+            double cornerSpeed = Math.sqrt(constraints.maxAcceleration / maxCurvature);
+            if (cornerSpeed < constraints.maxVelocity) {
+                constraints = constraints.scaledVelocity(cornerSpeed / constraints.maxVelocity);
+            }
+        }
+        profile = new MotionProfile(path.getLength(), constraints);
+        double end = path.getPieceCount();
+        targetPose = new Pose2d(path.getX(end), path.getY(end), knotHeadings[knotHeadings.length - 1]);
+    }
+
+    @Override
+    public void start(SegmentDriver driver) {
+        startTimeSeconds = driver.getTimeSeconds();
+        driver.getPoseEstimate(startEstimate);
+        offsetX = startEstimate.x - path.getX(0);
+        offsetY = startEstimate.y - path.getY(0);
+        offsetHeading = AngleUtil.normalizeRadians(startEstimate.heading - knotHeadings[0]);
+    }
+
+    @Override
+    public boolean update(SegmentDriver driver) {
+        double t = driver.getTimeSeconds() - startTimeSeconds;
+        double duration = profile.getDuration();
+        if (t >= duration && (driver.isAtPose(targetPose) || t > duration + ProfiledMoveSegment.SETTLE_TIMEOUT_S)) {
+            return true;
+        }
+
+        double s = profile.getPosition(t);
+        double v = profile.getVelocity(t);
+        double a = profile.getAcceleration(t);
+        double u = path.parameterAtLength(s);
+        double tangentX = path.getTangentX(u);
+        double tangentY = path.getTangentY(u);
+        double centripetal = v * v * path.getCurvature(u); // toward the left normal (-ty, tx) when positive
+
+        // heading: linear between the knots this piece starts and ends on
+        int piece = Math.min((int) u, path.getPieceCount() - 1);
+        double pieceStart = path.getLengthAtKnot(piece);
+        double pieceLength = path.getLengthAtKnot(piece + 1) - pieceStart;
+        double headingChange = AngleUtil.normalizeRadians(knotHeadings[piece + 1] - knotHeadings[piece]);
+        double fraction = pieceLength > 1e-9 ? (s - pieceStart) / pieceLength : 1.0;
+        double headingRate = pieceLength > 1e-9 ? headingChange * v / pieceLength : 0.0;
+
+        double totalLength = path.getLength();
+        double remaining = totalLength > 1e-9 ? 1.0 - s / totalLength : 0.0;
+        double remainingRate = totalLength > 1e-9 ? v / totalLength : 0.0;
+
+        driver.followReference(path.getX(u) + offsetX * remaining, path.getY(u) + offsetY * remaining,
+                knotHeadings[piece] + headingChange * fraction + offsetHeading * remaining,
+                tangentX * v - offsetX * remainingRate, tangentY * v - offsetY * remainingRate,
+                headingRate - offsetHeading * remainingRate,
+                tangentX * a - tangentY * centripetal, tangentY * a + tangentX * centripetal);
+        return false;
+    }
+
+    @Override
+    public Pose2d getTargetPose() {
+        return targetPose;
+    }
+
+    public double getDuration() {
+        return profile.getDuration();
+    }
+}
@@ -1,14 +1,17 @@
 package org.firstinspires.ftc.teamcode.trajectory.segments;
 
-import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import org.firstinspires.ftc.teamcode.geometry.Pose2d;
-import org.firstinspires.ftc.teamcode.subsystems.DriveSubsystem;
 
 /**
  * Represents a unit of motion inside a trajectory.
+ * update() is a single control step, so a segment never blocks the loop that's driving it.
  */
 public interface TrajectorySegment {
-    void follow(DriveSubsystem drive, LinearOpMode opMode);
+    /** called right before the first update(); timed segments grab their start time here */
+    void start(SegmentDriver driver);
+
+    /** run one control step; returns true once the segment is finished */
+    boolean update(SegmentDriver driver);
 
     Pose2d getTargetPose();
 }
@@ -0,0 +1,66 @@
+package org.firstinspires.ftc.teamcode.trajectory.spline;
+
+/**
+ * One 2D quintic Hermite piece, parameterized over t in [0, 1].
+ * Built from position, first derivative, and second derivative at both ends, so neighbouring pieces that
+ * share their end values join with matching tangent and curvature (no corner, no stop).
+ */
+public class QuinticHermiteSpline {
+    private final double[] xCoefficients;
+    private final double[] yCoefficients;
+
+    public QuinticHermiteSpline(double x0, double y0, double dx0, double dy0, double ddx0, double ddy0,
+                                double x1, double y1, double dx1, double dy1, double ddx1, double ddy1) {
+        xCoefficients = coefficients(x0, dx0, ddx0, x1, dx1, ddx1);
+        yCoefficients = coefficients(y0, dy0, ddy0, y1, dy1, ddy1);
+    }
+
+    /** c0..c5 of the polynomial that hits p/v/a at t = 0 and t = 1 */
+    private static double[] coefficients(double p0, double v0, double a0, double p1, double v1, double a1) {
+        return new double[] {
+                p0,
+                v0,
+                a0 / 2.0,
+                -10 * p0 - 6 * v0 - 1.5 * a0 + 0.5 * a1 - 4 * v1 + 10 * p1,
+                15 * p0 + 8 * v0 + 1.5 * a0 - a1 + 7 * v1 - 15 * p1,
+                -6 * p0 - 3 * v0 - 0.5 * a0 + 0.5 * a1 - 3 * v1 + 6 * p1
+        };
+    }
+
+    public double getX(double t) {
+        return value(xCoefficients, t);
+    }
+
+    public double getY(double t) {
+        return value(yCoefficients, t);
+    }
+
+    public double getDx(double t) {
+        return derivative(xCoefficients, t);
+    }
+
+    public double getDy(double t) {
+        return derivative(yCoefficients, t);
+    }
+
+    public double getDdx(double t) {
+        return secondDerivative(xCoefficients, t);
+    }
+
+    public double getDdy(double t) {
+        return secondDerivative(yCoefficients, t);
+    }
+
+    // Horner's rule all the way down, no powers
+    private static double value(double[] c, double t) {
+        return c[0] + t * (c[1] + t * (c[2] + t * (c[3] + t * (c[4] + t * c[5]))));
+    }
+
+    private static double derivative(double[] c, double t) {
+        return c[1] + t * (2 * c[2] + t * (3 * c[3] + t * (4 * c[4] + t * 5 * c[5])));
+    }
+
+    private static double secondDerivative(double[] c, double t) {
+        return 2 * c[2] + t * (6 * c[3] + t * (12 * c[4] + t * 20 * c[5]));
+    }
+}
@@ -0,0 +1,125 @@
+package org.firstinspires.ftc.teamcode.trajectory.spline;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A chain of spline pieces plus an arc-length lookup table built once up front.
+ * Followers work in distance along the path; parameterAtLength() turns that back into the spline
+ * parameter with a binary search over the table, so a lookup is O(log n) and allocates nothing.
+ * The parameter u runs 0..pieceCount: the integer part picks the piece, the fraction is its t.
+ */
+public class SplinePath {
+    public static final int SAMPLES_PER_PIECE = 128; // chord error is way under a tenth of an inch at this
+
+    private final QuinticHermiteSpline[] pieces;
+    private final double[] cumulativeLength; // arc length at u = i / SAMPLES_PER_PIECE
+    private final double maxCurvature;
+
+    public SplinePath(List<QuinticHermiteSpline> pieces) {
+        if (pieces.isEmpty()) {
+            throw new IllegalArgumentException("A spline path needs at least one piece");
+        }
+        this.pieces = pieces.toArray(new QuinticHermiteSpline[0]);
+        int samples = this.pieces.length * SAMPLES_PER_PIECE;
+        cumulativeLength = new double[samples + 1];
+
+        double length = 0.0;
+        double curvature = 0.0;
+        double lastX = getX(0);
+        double lastY = getY(0);
+        for (int i = 1; i <= samples; i++) {
+            double u = (double) i / SAMPLES_PER_PIECE;
+            double x = getX(u);
+            double y = getY(u);
+            length += Math.hypot(x - lastX, y - lastY);
+            cumulativeLength[i] = length;
+            curvature = Math.max(curvature, Math.abs(getCurvature(u)));
+            lastX = x;
+            lastY = y;
+        }
+        maxCurvature = curvature;
+    }
+
+    public double getLength() {
+        return cumulativeLength[cumulativeLength.length - 1];
+    }
+
+    public int getPieceCount() {
+        return pieces.length;
+    }
+
+    /** arc length at the start of a piece (index == getPieceCount() gives the full length) */
+    public double getLengthAtKnot(int index) {
+        return cumulativeLength[index * SAMPLES_PER_PIECE];
+    }
+
+    /** largest |curvature| seen while sampling, in 1/inches; used to cap speed through the tightest bend */
+    public double getMaxCurvature() {
+        return maxCurvature;
+    }
+
+    /** spline parameter u at a distance along the path, clamped to the ends */
+    public double parameterAtLength(double length) {
+        if (length <= 0) {
+            return 0.0;
+        }
+        int last = cumulativeLength.length - 1;
+        if (length >= cumulativeLength[last]) {
+            return pieces.length;
+        }
+        int index = Arrays.binarySearch(cumulativeLength, length);
+        if (index >= 0) {
+            return (double) index / SAMPLES_PER_PIECE;
+        }
+        int upper = -index - 1;
+        int lower = upper - 1;
+        double span = cumulativeLength[upper] - cumulativeLength[lower];
+        double fraction = span > 0 ? (length - cumulativeLength[lower]) / span : 0.0;
+        return (lower + fraction) / SAMPLES_PER_PIECE;
+    }
+
+    public double getX(double u) {
+        int piece = pieceAt(u);
+        return pieces[piece].getX(u - piece);
+    }
+
+    public double getY(double u) {
+        int piece = pieceAt(u);
+        return pieces[piece].getY(u - piece);
+    }
+
+    /** unit tangent, x component */
+    public double getTangentX(double u) {
+        int piece = pieceAt(u);
+        double t = u - piece;
+        double dx = pieces[piece].getDx(t);
+        return dx / Math.hypot(dx, pieces[piece].getDy(t));
+    }
+
+    /** unit tangent, y component */
+    public double getTangentY(double u) {
+        int piece = pieceAt(u);
+        double t = u - piece;
+        double dy = pieces[piece].getDy(t);
+        return dy / Math.hypot(pieces[piece].getDx(t), dy);
+    }
+
+    /** signed curvature (1/inches), positive when the path bends counter-clockwise */
+    public double getCurvature(double u) {
+        int piece = pieceAt(u);
+        double t = u - piece;
+        QuinticHermiteSpline spline = pieces[piece];
+        double dx = spline.getDx(t);
+        double dy = spline.getDy(t);
+        double speed = Math.hypot(dx, dy);
+        if (speed < 1e-9) {
+            return 0.0;
+        }
+        return (dx * spline.getDdy(t) - dy * spline.getDdx(t)) / (speed * speed * speed);
+    }
+
+    private int pieceAt(double u) {
+        return Math.max(0, Math.min(pieces.length - 1, (int) u));
+    }
+}
@@ -0,0 +1,29 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+/** copies the SDK gamepad into a GamepadState once per loop, so the whole loop sees one consistent read */
+public final class FtcGamepadReader {
+    private FtcGamepadReader() { }
+
+    public static void read(Gamepad gamepad, GamepadState out) {
+        out.leftStickX = gamepad.left_stick_x;
+        out.leftStickY = gamepad.left_stick_y;
+        out.rightStickX = gamepad.right_stick_x;
+        out.rightStickY = gamepad.right_stick_y;
+        out.leftTrigger = gamepad.left_trigger;
+        out.rightTrigger = gamepad.right_trigger;
+        out.a = gamepad.a;
+        out.b = gamepad.b;
+        out.x = gamepad.x;
+        out.y = gamepad.y;
+        out.dpadUp = gamepad.dpad_up;
+        out.dpadDown = gamepad.dpad_down;
+        out.dpadLeft = gamepad.dpad_left;
+        out.dpadRight = gamepad.dpad_right;
+        out.leftBumper = gamepad.left_bumper;
+        out.rightBumper = gamepad.right_bumper;
+        out.start = gamepad.start;
+        out.back = gamepad.back;
+    }
+}
@@ -0,0 +1,34 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import com.acmerobotics.dashboard.FtcDashboard;
+import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
+import com.qualcomm.robotcore.util.RobotLog;
+
+/**
+ * The SDK-facing half of LoopProfiler: FtcDashboard graphs and the robot log.
+ */
+public final class FtcProfilerOutput {
+    private FtcProfilerOutput() { }
+
+    /** same numbers as LoopProfiler.addTelemetry, as FtcDashboard graph keys */
+    public static void sendToDashboard(LoopProfiler profiler) {
+        FtcDashboard dashboard = FtcDashboard.getInstance();
+        if (dashboard == null) {
+            return;
+        }
+        TelemetryPacket packet = new TelemetryPacket();
+        packet.put("loop hz", profiler.getLoopHz());
+        for (int i = 0; i <= profiler.getSectionCount(); i++) {
+            String name = profiler.getSectionName(i);
+            packet.put(name + " p50 ms", profiler.getPercentileMs(i, 0.5));
+            packet.put(name + " p95 ms", profiler.getPercentileMs(i, 0.95));
+            packet.put(name + " max ms", profiler.getMaxMs(i));
+        }
+        dashboard.sendTelemetryPacket(packet);
+    }
+
+    /** goes to the robot log so the summary survives after the DS screen clears */
+    public static void logSummary(String tag, LoopProfiler profiler) {
+        RobotLog.i(tag + " loop profile\n" + profiler.summary());
+    }
+}
@@ -0,0 +1,27 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/** hands TelemetrySink calls straight to the Driver Station telemetry */
+public class FtcTelemetrySink implements TelemetrySink {
+    private final Telemetry telemetry;
+
+    public FtcTelemetrySink(Telemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    @Override
+    public void addData(String caption, Object value) {
+        telemetry.addData(caption, value);
+    }
+
+    @Override
+    public void addData(String caption, String format, Object... args) {
+        telemetry.addData(caption, format, args);
+    }
+
+    @Override
+    public void update() {
+        telemetry.update();
+    }
+}
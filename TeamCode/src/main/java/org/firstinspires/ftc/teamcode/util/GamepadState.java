@@ -0,0 +1,75 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/**
+ * Plain copy of one gamepad for a single loop, no SDK in it, so the code that reads sticks and buttons can
+ * be fed from a recording too. FtcGamepadReader fills it from the real Gamepad. Same sign conventions as the
+ * SDK: sticks -1..1 with up on the stick negative, triggers 0..1.
+ */
+public class GamepadState {
+    private static final int A = 1;
+    private static final int B = 1 << 1;
+    private static final int X = 1 << 2;
+    private static final int Y = 1 << 3;
+    private static final int DPAD_UP = 1 << 4;
+    private static final int DPAD_DOWN = 1 << 5;
+    private static final int DPAD_LEFT = 1 << 6;
+    private static final int DPAD_RIGHT = 1 << 7;
+    private static final int LEFT_BUMPER = 1 << 8;
+    private static final int RIGHT_BUMPER = 1 << 9;
+    private static final int START = 1 << 10;
+    private static final int BACK = 1 << 11;
+
+    public float leftStickX;
+    public float leftStickY;
+    public float rightStickX;
+    public float rightStickY;
+    public float leftTrigger;
+    public float rightTrigger;
+
+    public boolean a;
+    public boolean b;
+    public boolean x;
+    public boolean y;
+    public boolean dpadUp;
+    public boolean dpadDown;
+    public boolean dpadLeft;
+    public boolean dpadRight;
+    public boolean leftBumper;
+    public boolean rightBumper;
+    public boolean start;
+    public boolean back;
+
+    /** every button as one bit, for recordings */
+    public int getButtons() {
+        return (a ? A : 0) | (b ? B : 0) | (x ? X : 0) | (y ? Y : 0)
+                | (dpadUp ? DPAD_UP : 0) | (dpadDown ? DPAD_DOWN : 0)
+                | (dpadLeft ? DPAD_LEFT : 0) | (dpadRight ? DPAD_RIGHT : 0)
+                | (leftBumper ? LEFT_BUMPER : 0) | (rightBumper ? RIGHT_BUMPER : 0)
+                | (start ? START : 0) | (back ? BACK : 0);
+    }
+
+    public void setButtons(int buttons) {
+        a = (buttons & A) != 0;
+        b = (buttons & B) != 0;
+        x = (buttons & X) != 0;
+        y = (buttons & Y) != 0;
+        dpadUp = (buttons & DPAD_UP) != 0;
+        dpadDown = (buttons & DPAD_DOWN) != 0;
+        dpadLeft = (buttons & DPAD_LEFT) != 0;
+        dpadRight = (buttons & DPAD_RIGHT) != 0;
+        leftBumper = (buttons & LEFT_BUMPER) != 0;
+        rightBumper = (buttons & RIGHT_BUMPER) != 0;
+        start = (buttons & START) != 0;
+        back = (buttons & BACK) != 0;
+    }
+
+    public void copyFrom(GamepadState other) {
+        leftStickX = other.leftStickX;
+        leftStickY = other.leftStickY;
+        rightStickX = other.rightStickX;
+        rightStickY = other.rightStickY;
+        leftTrigger = other.leftTrigger;
+        rightTrigger = other.rightTrigger;
+        setButtons(other.getButtons());
+    }
+}
@@ -0,0 +1,193 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import java.util.Arrays;
+
+/**
+ * Times named chunks of a loop so we can see where the milliseconds actually go.
+ * Register sections once during init with addSection(), wrap code in start(id)/stop(id),
+ * and call beginLoop() at the top of every loop. A section timed more than once in a loop is summed,
+ * and each loop's total lands in a fixed-bucket histogram, so recording never allocates;
+ * only the telemetry/summary formatting does. Dashboard graphs and the robot log live in FtcProfilerOutput
+ * so this class has no SDK imports and works in the simulator too.
+ */
+public class LoopProfiler implements TelemetrySource {
+    public static final int MAX_SECTIONS = 16;
+
+    // 0.1 ms buckets up to 10 ms, 1 ms buckets up to 100 ms, then one overflow bucket
+    private static final long FINE_BUCKET_NANOS = 100_000L;
+    private static final long COARSE_BUCKET_NANOS = 1_000_000L;
+    private static final int FINE_BUCKETS = 100;
+    private static final int COARSE_BUCKETS = 90;
+    private static final int BUCKET_COUNT = FINE_BUCKETS + COARSE_BUCKETS + 1;
+    private static final long FINE_LIMIT_NANOS = FINE_BUCKETS * FINE_BUCKET_NANOS;
+
+    private static final double LOOP_HZ_SMOOTHING = 0.1;
+
+    private final String[] names = new String[MAX_SECTIONS + 1];
+    private final int[][] histograms = new int[MAX_SECTIONS + 1][BUCKET_COUNT];
+    private final long[] sampleCounts = new long[MAX_SECTIONS + 1];
+    private final long[] maxNanos = new long[MAX_SECTIONS + 1];
+    private final long[] startNanos = new long[MAX_SECTIONS + 1];
+    private final long[] pendingNanos = new long[MAX_SECTIONS + 1];
+    private final boolean[] touched = new boolean[MAX_SECTIONS + 1];
+    private int sectionCount = 0;
+
+    // slot 0 is reserved for the whole loop
+    private static final int LOOP = 0;
+    private long loopStartNanos = 0;
+    private double smoothedLoopNanos = 0;
+
+    public LoopProfiler() {
+        names[LOOP] = "loop";
+    }
+
+    /** register a section during init; the returned id is what start()/stop() take */
+    public int addSection(String name) {
+        if (sectionCount >= MAX_SECTIONS) {
+            throw new IllegalStateException("LoopProfiler only holds " + MAX_SECTIONS + " sections");
+        }
+        sectionCount++;
+        names[sectionCount] = name;
+        return sectionCount;
+    }
+
+    public void beginLoop() {
+        flushSections();
+
+        long now = System.nanoTime();
+        if (loopStartNanos != 0) {
+            // measure start-to-start so every bit of the loop counts, including idle()
+            long period = now - loopStartNanos;
+            record(LOOP, period);
+            smoothedLoopNanos = smoothedLoopNanos == 0 ? period
+                    : smoothedLoopNanos + (period - smoothedLoopNanos) * LOOP_HZ_SMOOTHING;
+        }
+        loopStartNanos = now;
+    }
+
+    /**
+     * Call when a loop exits for a while (e.g. a blocking path finished) so the gap before the
+     * next beginLoop() isn't counted as one giant loop.
+     */
+    public void finishLoops() {
+        flushSections();
+        loopStartNanos = 0;
+    }
+
+    public void start(int section) {
+        startNanos[section] = System.nanoTime();
+    }
+
+    public void stop(int section) {
+        pendingNanos[section] += System.nanoTime() - startNanos[section];
+        touched[section] = true;
+    }
+
+    /** smoothed loop rate from the start-to-start period */
+    public double getLoopHz() {
+        return smoothedLoopNanos <= 0 ? 0.0 : 1e9 / smoothedLoopNanos;
+    }
+
+    /** p-th percentile (0-1) of a section in milliseconds, rounded up to its bucket edge */
+    public double getPercentileMs(int section, double percentile) {
+        long count = sampleCounts[section];
+        if (count == 0) {
+            return 0.0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        int[] histogram = histograms[section];
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= target) {
+                return Math.min(bucketUpperNanos(bucket), maxNanos[section]) / 1e6;
+            }
+        }
+        return maxNanos[section] / 1e6;
+    }
+
+    public double getMaxMs(int section) {
+        return maxNanos[section] / 1e6;
+    }
+
+    public void reset() {
+        for (int i = 0; i <= sectionCount; i++) {
+            Arrays.fill(histograms[i], 0);
+            sampleCounts[i] = 0;
+            maxNanos[i] = 0;
+            pendingNanos[i] = 0;
+            touched[i] = false;
+        }
+        loopStartNanos = 0;
+        smoothedLoopNanos = 0;
+    }
+
+    /** number of registered sections; ids run 1..getSectionCount(), 0 is the whole loop */
+    public int getSectionCount() {
+        return sectionCount;
+    }
+
+    public String getSectionName(int section) {
+        return names[section];
+    }
+
+    /** one line per section plus loop rate */
+    @Override
+    public void addTelemetry(TelemetrySink telemetry) {
+        telemetry.addData("Loop (Hz)", "%.1f", getLoopHz());
+        for (int i = 0; i <= sectionCount; i++) {
+            telemetry.addData("t " + names[i], "p50 %.2f p95 %.2f max %.2f ms",
+                    getPercentileMs(i, 0.5), getPercentileMs(i, 0.95), getMaxMs(i));
+        }
+    }
+
+    /** end-of-OpMode dump, one line per section */
+    public String summary() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("loop %.1f Hz over %d loops%n", getLoopHz(), sampleCounts[LOOP]));
+        for (int i = 0; i <= sectionCount; i++) {
+            builder.append(String.format("%-12s n=%-6d p50 %.2f  p95 %.2f  max %.2f ms%n", names[i],
+                    sampleCounts[i], getPercentileMs(i, 0.5), getPercentileMs(i, 0.95), getMaxMs(i)));
+        }
+        return builder.toString();
+    }
+
+    private void flushSections() {
+        for (int i = 1; i <= sectionCount; i++) {
+            if (touched[i]) {
+                record(i, pendingNanos[i]);
+                pendingNanos[i] = 0;
+                touched[i] = false;
+            }
+        }
+    }
+
+    private void record(int section, long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        histograms[section][bucketFor(nanos)]++;
+        sampleCounts[section]++;
+        if (nanos > maxNanos[section]) {
+            maxNanos[section] = nanos;
+        }
+    }
+
+    private static int bucketFor(long nanos) {
+        if (nanos < FINE_LIMIT_NANOS) {
+            return (int) (nanos / FINE_BUCKET_NANOS);
+        }
+        long coarse = (nanos - FINE_LIMIT_NANOS) / COARSE_BUCKET_NANOS;
+        return coarse < COARSE_BUCKETS ? FINE_BUCKETS + (int) coarse : BUCKET_COUNT - 1;
+    }
+
+    private static long bucketUpperNanos(int bucket) {
+        if (bucket < FINE_BUCKETS) {
+            return (bucket + 1) * FINE_BUCKET_NANOS;
+        }
+        if (bucket < FINE_BUCKETS + COARSE_BUCKETS) {
+            return FINE_LIMIT_NANOS + (bucket - FINE_BUCKETS + 1) * COARSE_BUCKET_NANOS;
+        }
+        return Long.MAX_VALUE;
+    }
+}
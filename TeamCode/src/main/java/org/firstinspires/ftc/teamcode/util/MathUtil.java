@@ -0,0 +1,10 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/** small SDK-free stand-ins for com.qualcomm.robotcore.util.Range so shared code also runs in the sim */
+public final class MathUtil {
+    private MathUtil() { }
+
+    public static double clip(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
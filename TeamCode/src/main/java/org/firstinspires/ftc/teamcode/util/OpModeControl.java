@@ -0,0 +1,15 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/**
+ * What the blocking drive helpers and auto routines need from the OpMode that runs them.
+ * LinearOpMode already has all three methods, so an OpMode just adds "implements OpModeControl";
+ * the simulator implements them by stepping simulated time instead of waiting on the real clock.
+ */
+public interface OpModeControl {
+    boolean opModeIsActive();
+
+    /** give the rest of the system a turn; called once per loop iteration */
+    void idle();
+
+    void sleep(long milliseconds);
+}
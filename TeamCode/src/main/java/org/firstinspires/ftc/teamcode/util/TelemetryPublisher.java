@@ -0,0 +1,134 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/**
+ * Rate-limited telemetry: the loop drops plain values into fixed slots every iteration (array writes, no
+ * strings), and publish() only formats and sends them when a frame is due, e.g. 10 times a second instead
+ * of at loop rate. Register slots once during init with addSlot() like LoopProfiler sections; each slot has a
+ * caption and a format with up to four values. Subsystems that already report through addTelemetry() can be
+ * added as sources and are only asked for their lines when a frame goes out.
+ */
+public class TelemetryPublisher {
+    public static final int MAX_SLOTS = 32;
+    public static final int MAX_SOURCES = 8;
+    private static final int MAX_VALUES = 4;
+
+    private final long periodNanos;
+    private final String[] captions = new String[MAX_SLOTS];
+    private final String[] formats = new String[MAX_SLOTS];
+    private final double[][] numbers = new double[MAX_SLOTS][MAX_VALUES];
+    private final Object[][] texts = new Object[MAX_SLOTS][MAX_VALUES];
+    private final boolean[] isText = new boolean[MAX_SLOTS];
+    private final int[] valueCounts = new int[MAX_SLOTS];
+    private final TelemetrySource[] sources = new TelemetrySource[MAX_SOURCES];
+    private int slotCount = 0;
+    private int sourceCount = 0;
+
+    private boolean published = false;
+    private long lastPublishNanos;
+    private long publishCount = 0;
+
+    public TelemetryPublisher(long periodMs) {
+        periodNanos = periodMs * 1_000_000L;
+    }
+
+    /** register a line during init; the returned id is what the setters take */
+    public int addSlot(String caption, String format) {
+        if (slotCount >= MAX_SLOTS) {
+            throw new IllegalStateException("TelemetryPublisher only holds " + MAX_SLOTS + " slots");
+        }
+        captions[slotCount] = caption;
+        formats[slotCount] = format;
+        return slotCount++;
+    }
+
+    /** lines this source adds go out after the slots, each time a frame is published */
+    public void addSource(TelemetrySource source) {
+        if (sourceCount >= MAX_SOURCES) {
+            throw new IllegalStateException("TelemetryPublisher only holds " + MAX_SOURCES + " sources");
+        }
+        sources[sourceCount++] = source;
+    }
+
+    public void set(int slot, double value) {
+        numbers[slot][0] = value;
+        setNumbers(slot, 1);
+    }
+
+    public void set(int slot, double first, double second) {
+        numbers[slot][0] = first;
+        numbers[slot][1] = second;
+        setNumbers(slot, 2);
+    }
+
+    public void set(int slot, double first, double second, double third, double fourth) {
+        numbers[slot][0] = first;
+        numbers[slot][1] = second;
+        numbers[slot][2] = third;
+        numbers[slot][3] = fourth;
+        setNumbers(slot, 4);
+    }
+
+    public void set(int slot, boolean value) {
+        setText(slot, value ? Boolean.TRUE : Boolean.FALSE);
+    }
+
+    /**
+     * Enums, status strings and the like: only the reference is kept, toString() happens at publish time.
+     * A null value hides the line until something else gets set.
+     */
+    public void setText(int slot, Object value) {
+        texts[slot][0] = value;
+        isText[slot] = true;
+        valueCounts[slot] = 1;
+    }
+
+    public void setText(int slot, Object first, Object second) {
+        texts[slot][0] = first;
+        texts[slot][1] = second;
+        isText[slot] = true;
+        valueCounts[slot] = 2;
+    }
+
+    public boolean isDue(long nowNanos) {
+        return !published || nowNanos - lastPublishNanos >= periodNanos;
+    }
+
+    /**
+     * Formats every slot that has a value plus the sources into the sink and sends the frame, if one is due.
+     * Returns whether it did, so other rate-limited output (dashboard packets) can ride along.
+     */
+    public boolean publish(long nowNanos, TelemetrySink telemetry) {
+        if (!isDue(nowNanos)) {
+            return false;
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            int count = valueCounts[slot];
+            if (count == 0 || (isText[slot] && texts[slot][0] == null)) {
+                continue;
+            }
+            Object[] args = new Object[count];
+            for (int i = 0; i < count; i++) {
+                args[i] = isText[slot] ? texts[slot][i] : numbers[slot][i];
+            }
+            telemetry.addData(captions[slot], formats[slot], args);
+        }
+        for (int i = 0; i < sourceCount; i++) {
+            sources[i].addTelemetry(telemetry);
+        }
+        telemetry.update();
+        published = true;
+        lastPublishNanos = nowNanos;
+        publishCount++;
+        return true;
+    }
+
+    /** frames actually sent, to compare against the loop count */
+    public long getPublishCount() {
+        return publishCount;
+    }
+
+    private void setNumbers(int slot, int count) {
+        isText[slot] = false;
+        valueCounts[slot] = count;
+    }
+}
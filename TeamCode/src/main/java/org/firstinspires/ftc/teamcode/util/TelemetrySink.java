@@ -0,0 +1,13 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/**
+ * The bits of the SDK Telemetry we use, without the SDK, so subsystems and auto routines can report
+ * the same way on the robot (FtcTelemetrySink) and in the simulator.
+ */
+public interface TelemetrySink {
+    void addData(String caption, Object value);
+
+    void addData(String caption, String format, Object... args);
+
+    void update();
+}
@@ -0,0 +1,6 @@
+package org.firstinspires.ftc.teamcode.util;
+
+/** something that knows how to report itself; TelemetryPublisher calls it only when a frame actually goes out */
+public interface TelemetrySource {
+    void addTelemetry(TelemetrySink telemetry);
+}
@@ -0,0 +1,44 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free, latest-wins handoff from one writer thread to one reader thread. Three buffers rotate through a
+ * single atomic: the writer fills its own buffer and swaps it into the middle, the reader swaps the middle out
+ * when it has something new. Neither side ever blocks or waits on the other, and nothing is allocated after
+ * construction. The writer has to fill in the whole buffer every time; it gets back whatever stale one was
+ * in the middle.
+ */
+public class TripleBuffer<T> {
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final Object[] buffers;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int writeIndex = 0; // only touched by the writer
+    private int readIndex = 2;  // only touched by the reader
+
+    public TripleBuffer(T first, T second, T third) {
+        buffers = new Object[] {first, second, third};
+    }
+
+    /** writer side: the buffer to fill in before publish() */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+
+    /** writer side: make the filled buffer the newest one */
+    public void publish() {
+        writeIndex = middle.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+    }
+
+    /** reader side: the newest published buffer (or the same one as last time if nothing new came in) */
+    @SuppressWarnings("unchecked")
+    public T read() {
+        if ((middle.get() & FRESH) != 0) {
+            readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+        }
+        return (T) buffers[readIndex];
+    }
+}
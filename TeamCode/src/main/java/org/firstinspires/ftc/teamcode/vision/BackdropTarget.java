@@ -0,0 +1,62 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+
+/**
+ * Pose/offset helper for aligning to the backdrop tag columns.
+ * Also says which camera frame it came from: captureTimeNanos is on the System.nanoTime() clock (same as
+ * RobotHardware.nanoTime() on the robot), latencyMs is capture -> result ready, processingMs just the detector.
+ */
+public class BackdropTarget {
+    private static final double INCHES_PER_METER = 39.3701;
+
+    public final int tagId;
+    public final double rangeMeters;
+    public final double lateralMeters;
+    public final double headingErrorRad;
+    public final double xPixelError;
+    public final long captureTimeNanos;
+    public final long frameSequence;
+    public final double processingMs;
+    public final double latencyMs;
+
+    public BackdropTarget(int tagId, double rangeMeters, double lateralMeters,
+                          double headingErrorRad, double xPixelError,
+                          long captureTimeNanos, long frameSequence, double processingMs, double latencyMs) {
+        this.tagId = tagId;
+        this.rangeMeters = rangeMeters;
+        this.lateralMeters = lateralMeters;
+        this.headingErrorRad = headingErrorRad;
+        this.xPixelError = xPixelError;
+        this.captureTimeNanos = captureTimeNanos;
+        this.frameSequence = frameSequence;
+        this.processingMs = processingMs;
+        this.latencyMs = latencyMs;
+    }
+
+    public double getLateralInches() {
+        return lateralMeters * INCHES_PER_METER;
+    }
+
+    public double getRangeInches() {
+        return rangeMeters * INCHES_PER_METER;
+    }
+
+    /**
+     * Where the tag would be after the robot strafed/drove/turned this much since the frame was captured (robot
+     * frame at capture time, inches and CCW radians): lateral inches go in out.x, forward inches in out.y, and
+     * out.heading is left alone. Writes into out instead of making a new target so it can run every frame.
+     */
+    public MutablePose2d getOffsetAfterMoving(double strafeInches, double forwardInches, double turnRadians,
+                                              MutablePose2d out) {
+        double lateral = getLateralInches();
+        double range = getRangeInches();
+        double relativeX = lateral - strafeInches;
+        double relativeY = Math.sqrt(Math.max(0.0, range * range - lateral * lateral)) - forwardInches;
+        double cos = Math.cos(turnRadians);
+        double sin = Math.sin(turnRadians);
+        out.x = relativeX * cos + relativeY * sin;
+        out.y = -relativeX * sin + relativeY * cos;
+        return out;
+    }
+}
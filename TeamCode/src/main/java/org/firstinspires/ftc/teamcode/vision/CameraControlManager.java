@@ -0,0 +1,195 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import com.qualcomm.robotcore.external.hardware.camera.controls.ExposureControl;
+import com.qualcomm.robotcore.external.hardware.camera.controls.WhiteBalanceControl;
+
+import org.openftc.easyopencv.OpenCvWebcam;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers which exposure/white-balance values the webcam already has and only sends the ones that changed.
+ * The USB control transfers run on a small background thread, so calling request() every loop is just a
+ * few field compares on the OpMode thread. Timing of the last write is kept around for telemetry.
+ */
+public class CameraControlManager {
+    private final OpenCvWebcam webcam;
+    private final Object lock = new Object();
+
+    // what the OpMode last asked for (guarded by lock)
+    private boolean requestedManualExposure;
+    private long requestedExposureMs;
+    private boolean requestedManualWhiteBalance;
+    private int requestedWhiteBalanceKelvin;
+    private boolean hasRequest = false;
+
+    // what we know the camera actually has (only touched by the worker)
+    private boolean exposureApplied = false;
+    private long appliedExposureMs;
+    private boolean whiteBalanceApplied = false;
+    private int appliedWhiteBalanceKelvin;
+
+    private volatile boolean invalidated = true;
+    private volatile double lastWriteMs = 0.0;
+    private volatile double maxWriteMs = 0.0;
+    private volatile int writeCount = 0;
+    private volatile String lastError = null;
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public CameraControlManager(OpenCvWebcam webcam) {
+        this.webcam = webcam;
+    }
+
+    /**
+     * Ask for these settings. Cheap to call every loop; the worker only wakes up when something changed.
+     */
+    public void request(boolean manualExposure, double exposureMs, boolean manualWhiteBalance, int whiteBalanceKelvin) {
+        long exposure = (long) exposureMs;
+        synchronized (lock) {
+            if (hasRequest && !invalidated
+                    && requestedManualExposure == manualExposure && requestedExposureMs == exposure
+                    && requestedManualWhiteBalance == manualWhiteBalance
+                    && requestedWhiteBalanceKelvin == whiteBalanceKelvin) {
+                return;
+            }
+            requestedManualExposure = manualExposure;
+            requestedExposureMs = exposure;
+            requestedManualWhiteBalance = manualWhiteBalance;
+            requestedWhiteBalanceKelvin = whiteBalanceKelvin;
+            hasRequest = true;
+            ensureWorker();
+            lock.notifyAll();
+        }
+    }
+
+    /** forget what the camera has (e.g. it was just reopened) so the next request rewrites everything */
+    public void invalidate() {
+        synchronized (lock) {
+            invalidated = true;
+            lock.notifyAll();
+        }
+    }
+
+    public void shutdown() {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+    }
+
+    /** how long the most recent batch of control writes took */
+    public double getLastWriteMs() {
+        return lastWriteMs;
+    }
+
+    /** worst write batch so far, the number that actually matters for loop spikes */
+    public double getMaxWriteMs() {
+        return maxWriteMs;
+    }
+
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    /** last control failure, or null if the last write went through */
+    public String getLastError() {
+        return lastError;
+    }
+
+    private void ensureWorker() {
+        if (worker == null) {
+            worker = new Thread(this::workerLoop, "CameraControls");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void workerLoop() {
+        while (true) {
+            boolean manualExposure;
+            long exposureMs;
+            boolean manualWhiteBalance;
+            int whiteBalanceKelvin;
+            synchronized (lock) {
+                while (running && !hasPendingWork()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                if (invalidated) {
+                    exposureApplied = false;
+                    whiteBalanceApplied = false;
+                    invalidated = false;
+                }
+                manualExposure = requestedManualExposure;
+                exposureMs = requestedExposureMs;
+                manualWhiteBalance = requestedManualWhiteBalance;
+                whiteBalanceKelvin = requestedWhiteBalanceKelvin;
+            }
+            write(manualExposure, exposureMs, manualWhiteBalance, whiteBalanceKelvin);
+        }
+    }
+
+    /** called with the lock held */
+    private boolean hasPendingWork() {
+        if (!hasRequest) {
+            return false;
+        }
+        if (invalidated) {
+            return true;
+        }
+        boolean exposureDirty = requestedManualExposure
+                && (!exposureApplied || appliedExposureMs != requestedExposureMs);
+        boolean whiteBalanceDirty = requestedManualWhiteBalance
+                && (!whiteBalanceApplied || appliedWhiteBalanceKelvin != requestedWhiteBalanceKelvin);
+        return exposureDirty || whiteBalanceDirty;
+    }
+
+    private void write(boolean manualExposure, long exposureMs, boolean manualWhiteBalance, int whiteBalanceKelvin) {
+        if (!webcam.isStreaming()) {
+            // nothing to talk to yet; wait for the next request/invalidate after the camera opens
+            synchronized (lock) {
+                hasRequest = false;
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        String error = null;
+        if (manualExposure && (!exposureApplied || appliedExposureMs != exposureMs)) {
+            try {
+                ExposureControl exposureControl = webcam.getExposureControl();
+                exposureControl.setMode(ExposureControl.Mode.Manual);
+                exposureControl.setExposure(exposureMs, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                error = "Exposure control failed: " + e.getMessage();
+            }
+            // mark it applied even on failure so a broken control doesn't spin the worker
+            appliedExposureMs = exposureMs;
+            exposureApplied = true;
+        }
+        if (manualWhiteBalance && (!whiteBalanceApplied || appliedWhiteBalanceKelvin != whiteBalanceKelvin)) {
+            try {
+                WhiteBalanceControl wbControl = webcam.getWhiteBalanceControl();
+                wbControl.setMode(WhiteBalanceControl.Mode.MANUAL);
+                wbControl.setWhiteBalanceTemperature(whiteBalanceKelvin);
+            } catch (RuntimeException e) {
+                error = "White balance control failed: " + e.getMessage();
+            }
+            appliedWhiteBalanceKelvin = whiteBalanceKelvin;
+            whiteBalanceApplied = true;
+        }
+
+        double elapsedMs = (System.nanoTime() - start) / 1e6;
+        lastWriteMs = elapsedMs;
+        maxWriteMs = Math.max(maxWriteMs, elapsedMs);
+        writeCount++;
+        lastError = error;
+    }
+}
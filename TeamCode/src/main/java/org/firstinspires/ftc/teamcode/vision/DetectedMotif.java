@@ -0,0 +1,8 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+/** sleeve/signal classification the autos branch on */
+public enum DetectedMotif {
+    MOTIF_A,
+    MOTIF_B,
+    MOTIF_C
+}
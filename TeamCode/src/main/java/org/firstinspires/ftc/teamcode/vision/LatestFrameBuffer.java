@@ -0,0 +1,69 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+/**
+ * Single-slot, latest-wins handoff between a producer (the camera callback) and one consumer thread.
+ * Three buffers rotate: the producer fills one, one waits in the slot, the consumer works on the third.
+ * Publishing while the slot is still full just swaps the stale frame out (counted as dropped), so the
+ * producer never blocks and the consumer always gets the newest frame. Nothing is allocated after construction.
+ */
+public class LatestFrameBuffer<T> {
+    private static final int NONE = -1;
+
+    private final Object[] buffers;
+    private int writing = NONE;
+    private int pending = NONE;
+    private int reading = NONE;
+    private long droppedCount = 0;
+
+    public LatestFrameBuffer(T first, T second, T third) {
+        buffers = new Object[] {first, second, third};
+    }
+
+    /** buffer for the producer to fill; hand it back with publish() */
+    @SuppressWarnings("unchecked")
+    public synchronized T beginWrite() {
+        writing = 0;
+        while (writing == pending || writing == reading) {
+            writing++;
+        }
+        return (T) buffers[writing];
+    }
+
+    /** makes the buffer from beginWrite() the newest frame, bumping out any frame nobody picked up */
+    public synchronized void publish() {
+        if (writing == NONE) {
+            throw new IllegalStateException("publish() without beginWrite()");
+        }
+        if (pending != NONE) {
+            droppedCount++;
+        }
+        pending = writing;
+        writing = NONE;
+        notifyAll();
+    }
+
+    /**
+     * Gives the previous frame back and waits up to timeoutMs for a new one.
+     * Returns null on timeout; the returned buffer is the caller's until the next take().
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T take(long timeoutMs) throws InterruptedException {
+        reading = NONE;
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (pending == NONE) {
+            long waitMs = deadline - System.currentTimeMillis();
+            if (waitMs <= 0) {
+                return null;
+            }
+            wait(waitMs);
+        }
+        reading = pending;
+        pending = NONE;
+        return (T) buffers[reading];
+    }
+
+    /** frames that were replaced before the consumer got to them */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+}
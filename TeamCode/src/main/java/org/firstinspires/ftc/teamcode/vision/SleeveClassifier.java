@@ -0,0 +1,112 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import java.util.Arrays;
+
+/**
+ * Lookup-table version of "is this pixel one of the sleeve colors": the HSV boxes get baked into a table
+ * indexed straight by RGB (5 bits per channel, 32 KB), so scoring a pixel is a shift, an or, and one array read,
+ * with no HSV conversion or mask images in between. The table is only rebuilt when a bound actually changes,
+ * and each cell is tested at its center color with the same 8-bit HSV formula OpenCV uses, so the answers
+ * match Core.inRange on the HSV frame apart from pixels right at a bound.
+ */
+public class SleeveClassifier {
+    private static final int BITS = 5;
+    private static final int LEVELS = 1 << BITS;
+    private static final int SHIFT = 8 - BITS;
+
+    private final byte[] table = new byte[LEVELS * LEVELS * LEVELS];
+    private final double[][] lowers;
+    private final double[][] uppers;
+    private boolean dirty = true;
+    private int rebuildCount = 0;
+
+    /** rangeCount HSV boxes (OpenCV 8-bit units: H 0-180, S and V 0-255); a pixel matches if it's in any of them */
+    public SleeveClassifier(int rangeCount) {
+        lowers = new double[rangeCount][3];
+        uppers = new double[rangeCount][3];
+    }
+
+    /** copies the bounds in; only marks the table stale if something changed, so it's fine to call every frame */
+    public void setRange(int index, double[] lower, double[] upper) {
+        if (!Arrays.equals(lowers[index], lower) || !Arrays.equals(uppers[index], upper)) {
+            System.arraycopy(lower, 0, lowers[index], 0, 3);
+            System.arraycopy(upper, 0, uppers[index], 0, 3);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Counts matching pixels in one row of packed 8-bit RGB or RGBA, starting at pixel firstPixel and taking
+     * every step-th pixel out of pixelCount.
+     */
+    public int countMatches(byte[] row, int firstPixel, int pixelCount, int channels, int step) {
+        if (dirty) {
+            rebuild();
+        }
+        int matches = 0;
+        int end = (firstPixel + pixelCount) * channels;
+        int stride = channels * step;
+        for (int i = firstPixel * channels; i < end; i += stride) {
+            int r = (row[i] & 0xFF) >> SHIFT;
+            int g = (row[i + 1] & 0xFF) >> SHIFT;
+            int b = (row[i + 2] & 0xFF) >> SHIFT;
+            matches += table[(r << (2 * BITS)) | (g << BITS) | b];
+        }
+        return matches;
+    }
+
+    /** how many times the table has been rebuilt, to check dashboard edits are the only thing triggering it */
+    public int getRebuildCount() {
+        return rebuildCount;
+    }
+
+    private void rebuild() {
+        int halfStep = 1 << (SHIFT - 1);
+        for (int r = 0; r < LEVELS; r++) {
+            for (int g = 0; g < LEVELS; g++) {
+                for (int b = 0; b < LEVELS; b++) {
+                    int red = (r << SHIFT) + halfStep;
+                    int green = (g << SHIFT) + halfStep;
+                    int blue = (b << SHIFT) + halfStep;
+                    table[(r << (2 * BITS)) | (g << BITS) | b] = matchesAny(red, green, blue) ? (byte) 1 : 0;
+                }
+            }
+        }
+        dirty = false;
+        rebuildCount++;
+    }
+
+    private boolean matchesAny(int red, int green, int blue) {
+        // cv::cvtColor RGB2HSV for 8-bit images: H in degrees / 2, S and V scaled to 0-255, rounded
+        int max = Math.max(red, Math.max(green, blue));
+        int min = Math.min(red, Math.min(green, blue));
+        double diff = max - min;
+        double saturation = max == 0 ? 0 : Math.round(255.0 * diff / max);
+        double hueDegrees;
+        if (diff == 0) {
+            hueDegrees = 0;
+        } else if (max == red) {
+            hueDegrees = 60.0 * (green - blue) / diff;
+        } else if (max == green) {
+            hueDegrees = 120.0 + 60.0 * (blue - red) / diff;
+        } else {
+            hueDegrees = 240.0 + 60.0 * (red - green) / diff;
+        }
+        if (hueDegrees < 0) {
+            hueDegrees += 360.0;
+        }
+        double hue = Math.round(hueDegrees / 2.0);
+        if (hue >= 180) {
+            hue -= 180;
+        }
+
+        for (int i = 0; i < lowers.length; i++) {
+            if (hue >= lowers[i][0] && hue <= uppers[i][0]
+                    && saturation >= lowers[i][1] && saturation <= uppers[i][1]
+                    && max >= lowers[i][2] && max <= uppers[i][2]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+/**
+ * Where the backdrop tags sit in an auto's field frame, by tag id. Each routine makes its own because the
+ * frame starts at that routine's start pose. Plain arrays so lookups in the drive loop don't allocate.
+ */
+public class TagLayout {
+    private static final int MAX_ID = 10;
+
+    private final double[] xs = new double[MAX_ID + 1];
+    private final double[] ys = new double[MAX_ID + 1];
+    private final boolean[] known = new boolean[MAX_ID + 1];
+
+    /** three tags left to right starting at firstId, spaced apart along x and centered on centerX, all at y */
+    public static TagLayout backdrop(int firstId, double centerX, double y, double spacing) {
+        TagLayout layout = new TagLayout();
+        for (int i = 0; i < 3; i++) {
+            layout.set(firstId + i, centerX + (i - 1) * spacing, y);
+        }
+        return layout;
+    }
+
+    public TagLayout set(int id, double x, double y) {
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Tag id out of range: " + id);
+        }
+        xs[id] = x;
+        ys[id] = y;
+        known[id] = true;
+        return this;
+    }
+
+    public boolean has(int id) {
+        return id >= 0 && id <= MAX_ID && known[id];
+    }
+
+    public double getX(int id) {
+        return xs[id];
+    }
+
+    public double getY(int id) {
+        return ys[id];
+    }
+}
@@ -0,0 +1,111 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+/**
+ * Picks the crop and decimation for the next AprilTag frame from where the last tag was.
+ * While a tag is being seen the crop hugs its box (plus a margin in tag widths for motion) and decimation
+ * goes up with how big the tag looks, since a close tag survives heavy downsampling. Each miss widens the
+ * margin and steps decimation back down; after enough misses in a row it drops back to the full search region.
+ * Single-threaded on purpose: the camera thread owns it and feeds it results as the worker finishes them.
+ */
+public class TagRoiTracker {
+    private double marginTagWidths = 1.0;
+    private int missesBeforeSearch = 3;
+    private double minDecimatedTagPixels = 24.0;
+    private int maxDecimation = 4;
+
+    private boolean tracking = false;
+    private int misses = 0;
+    private double boxMinX;
+    private double boxMinY;
+    private double boxMaxX;
+    private double boxMaxY;
+
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private double decimation;
+
+    /**
+     * marginTagWidths: extra room around the tag on each side. minDecimatedTagPixels: how wide the tag still
+     * has to be after decimation for the detector to find it reliably. Cheap enough to call every frame.
+     */
+    public void setTuning(double marginTagWidths, int missesBeforeSearch, double minDecimatedTagPixels, int maxDecimation) {
+        this.marginTagWidths = marginTagWidths;
+        this.missesBeforeSearch = missesBeforeSearch;
+        this.minDecimatedTagPixels = minDecimatedTagPixels;
+        this.maxDecimation = Math.max(1, maxDecimation);
+    }
+
+    /** tag corners' bounding box in full-frame pixels */
+    public void onDetection(double minX, double minY, double maxX, double maxY) {
+        tracking = true;
+        misses = 0;
+        boxMinX = minX;
+        boxMinY = minY;
+        boxMaxX = maxX;
+        boxMaxY = maxY;
+    }
+
+    public void onMiss() {
+        if (tracking && ++misses > missesBeforeSearch) {
+            tracking = false;
+        }
+    }
+
+    /** back to searching the whole region, e.g. when the pipeline gets switched in */
+    public void reset() {
+        tracking = false;
+        misses = 0;
+    }
+
+    /** works out the crop and decimation for the next frame; read them back with the getters */
+    public void update(int frameWidth, int frameHeight,
+                       int searchX, int searchY, int searchWidth, int searchHeight, double searchDecimation) {
+        if (!tracking) {
+            x = searchX;
+            y = searchY;
+            width = searchWidth;
+            height = searchHeight;
+            decimation = searchDecimation;
+            return;
+        }
+        double tagSize = Math.max(boxMaxX - boxMinX, boxMaxY - boxMinY);
+        double margin = tagSize * marginTagWidths * (1 + misses);
+        int left = (int) Math.max(0, Math.floor(boxMinX - margin));
+        int top = (int) Math.max(0, Math.floor(boxMinY - margin));
+        int right = (int) Math.min(frameWidth, Math.ceil(boxMaxX + margin));
+        int bottom = (int) Math.min(frameHeight, Math.ceil(boxMaxY + margin));
+        x = left;
+        y = top;
+        width = Math.max(0, right - left);
+        height = Math.max(0, bottom - top);
+
+        int sizeDecimation = (int) Math.floor(tagSize / minDecimatedTagPixels);
+        decimation = Math.max(1, Math.min(maxDecimation, sizeDecimation - misses));
+    }
+
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public double getDecimation() {
+        return decimation;
+    }
+}
@@ -0,0 +1,18 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+/**
+ * What the auto routines read from vision after the start button. VisionSubsystem is the real camera;
+ * the simulator plugs in a fixed answer.
+ */
+public interface VisionSource {
+    DetectedMotif getCurrentMotif();
+
+    /** switch over to backdrop tag detection */
+    void useAprilTags();
+
+    /** latest backdrop tag for this motif, or null if nothing is in view */
+    BackdropTarget getBackdropTarget(DetectedMotif desired);
+
+    /** whichever backdrop tag the camera saw most recently, for localization; null if nothing is in view */
+    BackdropTarget getLatestBackdropTag();
+}
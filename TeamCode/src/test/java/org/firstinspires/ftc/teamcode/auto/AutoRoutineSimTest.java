@@ -0,0 +1,103 @@
+package org.firstinspires.ftc.teamcode.auto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.sim.MecanumDriveSim;
+import org.firstinspires.ftc.teamcode.sim.SimOpMode;
+import org.firstinspires.ftc.teamcode.sim.SimRobotHardware;
+import org.firstinspires.ftc.teamcode.sim.SimTelemetry;
+import org.firstinspires.ftc.teamcode.sim.SimVision;
+import org.firstinspires.ftc.teamcode.trajectory.TrajectoryCache;
+import org.firstinspires.ftc.teamcode.vision.DetectedMotif;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Every auto, every motif, start to finish on the simulated robot (what "gradle -p sim run" prints, as asserts).
+ * Each one has to finish inside the auto period without faulting the slides, and odometry has to end up
+ * where the robot really is. Swapped odometry axes, backwards heading loops, and dropping the pose on an
+ * encoder reset all show up here as a timeout or a pose that's way off.
+ */
+public class AutoRoutineSimTest {
+    private static final double POSE_TOLERANCE_IN = 1.0;
+    private static final double HEADING_TOLERANCE_DEG = 3.0;
+
+    private static TrajectoryCache trajectories;
+
+    @BeforeClass
+    public static void buildTrajectories() {
+        trajectories = new TrajectoryCache();
+        RightAutoRoutine.buildTrajectories(trajectories);
+        LeftAutoRoutine.buildTrajectories(trajectories);
+        CenterAutoRoutine.buildTrajectories(trajectories);
+    }
+
+    @Test
+    public void rightFinishes() {
+        for (DetectedMotif motif : DetectedMotif.values()) {
+            runRight(motif, false, false);
+            runRight(motif, false, true);
+        }
+    }
+
+    @Test
+    public void rightMirroredFinishes() {
+        for (DetectedMotif motif : DetectedMotif.values()) {
+            runRight(motif, true, false);
+            runRight(motif, true, true);
+        }
+    }
+
+    @Test
+    public void leftFinishes() {
+        for (DetectedMotif motif : DetectedMotif.values()) {
+            Rig rig = new Rig(motif);
+            new LeftAutoRoutine(rig.robot, trajectories, rig.opMode, rig.telemetry).run();
+            rig.check("left " + motif);
+        }
+    }
+
+    @Test
+    public void centerFinishes() {
+        for (DetectedMotif motif : DetectedMotif.values()) {
+            Rig rig = new Rig(motif);
+            new CenterAutoRoutine(rig.robot, trajectories, rig.opMode, rig.telemetry).run();
+            rig.check("center " + motif);
+        }
+    }
+
+    private static void runRight(DetectedMotif motif, boolean mirrored, boolean cycle) {
+        Rig rig = new Rig(motif);
+        new RightAutoRoutine(rig.robot, trajectories, rig.opMode, rig.telemetry, mirrored, cycle).run();
+        rig.check((mirrored ? "right-mirrored " : "right ") + motif + (cycle ? " cycle" : ""));
+    }
+
+    /** one fresh sim robot, set up the way HeadlessAutoRunner does it */
+    private static class Rig {
+        final SimRobotHardware sim = new SimRobotHardware();
+        final AutoRobot robot;
+        final SimOpMode opMode = new SimOpMode(sim);
+        final SimTelemetry telemetry = new SimTelemetry();
+
+        Rig(DetectedMotif motif) {
+            robot = new AutoRobot(sim, new SimVision(motif));
+            robot.gate.close();
+        }
+
+        void check(String name) {
+            robot.drive.stop();
+            assertTrue(name + " ran out of time: " + telemetry.getLastFrame(), opMode.opModeIsActive());
+            assertFalse(name + " faulted the slides: " + robot.slides.getFaultReason(), robot.slides.isFaulted());
+
+            MutablePose2d estimate = robot.drive.getPoseEstimate(new MutablePose2d());
+            MecanumDriveSim truth = sim.getDrive();
+            assertEquals(name + " odometry x", truth.getX(), estimate.x, POSE_TOLERANCE_IN);
+            assertEquals(name + " odometry y", truth.getY(), estimate.y, POSE_TOLERANCE_IN);
+            assertEquals(name + " odometry heading", Math.toDegrees(truth.getHeading()),
+                    Math.toDegrees(estimate.heading), HEADING_TOLERANCE_DEG);
+        }
+    }
+}
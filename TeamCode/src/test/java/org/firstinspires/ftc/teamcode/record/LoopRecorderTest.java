@@ -0,0 +1,51 @@
+package org.firstinspires.ftc.teamcode.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Record, stop, read back: every frame getFrameCount() counted has to be in the file, the last one included.
+ * The writer spins (flush period 0) so it's racing stop() as hard as it can.
+ */
+public class LoopRecorderTest {
+    private static final int RECORDINGS = 2000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void stopWritesEveryFrame() throws IOException {
+        File file = folder.newFile("loop.bin");
+        LoopFrame read = new LoopFrame();
+        for (int run = 0; run < RECORDINGS; run++) {
+            LoopRecorder recorder = new LoopRecorder(64, 0);
+            recorder.start(file);
+            int frames = 1 + run % 20;
+            for (int i = 0; i < frames; i++) {
+                recorder.nextFrame();
+                recorder.getFrame().timestampNanos = i;
+            }
+            recorder.stop(); // commits the last one
+            assertNull(recorder.getError());
+            assertEquals(frames, recorder.getFrameCount());
+
+            try (LoopRecordingReader reader = new LoopRecordingReader(file)) {
+                for (int i = 0; i < frames; i++) {
+                    assertTrue("run " + run + " lost frame " + i + " of " + frames, reader.next(read));
+                    assertEquals(i, read.timestampNanos);
+                }
+                assertFalse(reader.next(read));
+                assertEquals(recorder.getFrameCount(), reader.getFramesRead());
+            }
+        }
+    }
+}
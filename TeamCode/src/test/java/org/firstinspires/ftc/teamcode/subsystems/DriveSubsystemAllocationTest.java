@@ -0,0 +1,59 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import static org.junit.Assert.assertEquals;
+
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.sim.SimOpMode;
+import org.firstinspires.ftc.teamcode.sim.SimRobotHardware;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * updatePoseEstimate() runs every loop (odometry, EKF predict, pose history), so it has to stay allocation-free.
+ * Only the updatePoseEstimate() calls are counted; the sim step and refresh in between aren't on the hook.
+ * The JIT can still allocate once in a while (a late recompile), so this takes the quietest of a few runs;
+ * a real allocation in the loop shows up in every one of them.
+ */
+public class DriveSubsystemAllocationTest {
+    private static final int WARMUP_UPDATES = 20_000; // long enough for the JIT and to wrap the pose history
+    private static final int MEASURED_UPDATES = 10_000;
+    private static final int MEASURED_RUNS = 5;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long threadId = Thread.currentThread().getId();
+
+    @Test
+    public void updatePoseEstimateAllocatesNothing() {
+        SimRobotHardware sim = new SimRobotHardware();
+        HardwareSnapshot hardware = new HardwareSnapshot(sim);
+        DriveSubsystem drive = new DriveSubsystem(sim, hardware);
+        drive.drive(0.3, 0.5, 0.2, false); // an arc, so every update sees wheel and heading changes
+
+        run(sim, hardware, drive, WARMUP_UPDATES);
+        run(sim, hardware, null, WARMUP_UPDATES);
+        long fewest = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long overhead = run(sim, hardware, null, MEASURED_UPDATES); // whatever the counter itself costs
+            long allocated = run(sim, hardware, drive, MEASURED_UPDATES);
+            fewest = Math.min(fewest, Math.max(0, allocated - overhead));
+        }
+        assertEquals("bytes allocated by " + MEASURED_UPDATES + " updatePoseEstimate() calls", 0, fewest);
+    }
+
+    /** bytes allocated between the counter reads around each update (drive null = nothing between them) */
+    private long run(SimRobotHardware sim, HardwareSnapshot hardware, DriveSubsystem drive, int updates) {
+        long total = 0;
+        for (int i = 0; i < updates; i++) {
+            sim.step(SimOpMode.DEFAULT_LOOP_SECONDS);
+            hardware.refresh();
+            long before = threads.getThreadAllocatedBytes(threadId);
+            if (drive != null) {
+                drive.updatePoseEstimate();
+            }
+            total += threads.getThreadAllocatedBytes(threadId) - before;
+        }
+        return total;
+    }
+}
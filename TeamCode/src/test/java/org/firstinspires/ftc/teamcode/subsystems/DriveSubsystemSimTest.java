@@ -0,0 +1,156 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.sim.MecanumDriveSim;
+import org.firstinspires.ftc.teamcode.sim.SimOpMode;
+import org.firstinspires.ftc.teamcode.sim.SimRobotHardware;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drive behavior on the simulated robot, checked against where the sim says the robot really is.
+ * Each of these would have caught one of the bugs the first sim runs turned up: odometry with forward and
+ * strafe swapped, heading loops that turned the wrong way, and encoder moves that threw away the pose.
+ */
+public class DriveSubsystemSimTest {
+    private static final double POSE_TOLERANCE_IN = 1.0;
+    private static final double HEADING_TOLERANCE_DEG = 3.0; // the turn helpers stop within 1.5, plus coasting
+
+    private SimRobotHardware sim;
+    private HardwareSnapshot hardware;
+    private DriveSubsystem drive;
+    private SimOpMode opMode;
+    private final MutablePose2d pose = new MutablePose2d();
+
+    @Before
+    public void setUp() {
+        sim = new SimRobotHardware();
+        hardware = new HardwareSnapshot(sim);
+        drive = new DriveSubsystem(sim, hardware);
+        opMode = new SimOpMode(sim);
+        drive.resetHeading();
+        drive.enableHeadingHold(false);
+    }
+
+    @Test
+    public void drivingForwardMovesAlongY() {
+        runDrive(0.0, 0.5, 0.0, 1.5);
+        MecanumDriveSim truth = sim.getDrive();
+        assertTrue("robot should have driven forward, truth y " + truth.getY(), truth.getY() > 12.0);
+        assertEquals("no sideways motion", 0.0, truth.getX(), POSE_TOLERANCE_IN);
+        assertPoseMatchesTruth();
+    }
+
+    @Test
+    public void strafingRightMovesAlongX() {
+        runDrive(0.5, 0.0, 0.0, 1.5);
+        MecanumDriveSim truth = sim.getDrive();
+        assertTrue("robot should have strafed right, truth x " + truth.getX(), truth.getX() > 8.0);
+        assertEquals("no forward motion", 0.0, truth.getY(), POSE_TOLERANCE_IN);
+        assertPoseMatchesTruth();
+    }
+
+    @Test
+    public void turnToHeadingTurnsTheRightWay() {
+        // it runs on the (gentle) heading hold gain, so give it a few seconds and check which way it went
+        drive.turnToHeading(90, 0.5, new SimOpMode(sim, SimOpMode.DEFAULT_LOOP_SECONDS, 4.0));
+        double afterLeft = Math.toDegrees(sim.getDrive().getHeading());
+        assertTrue("should have turned CCW toward 90, heading " + afterLeft, afterLeft > 10.0 && afterLeft < 91.5);
+
+        drive.turnToHeading(-45, 0.5, new SimOpMode(sim, SimOpMode.DEFAULT_LOOP_SECONDS, 8.0));
+        double afterRight = Math.toDegrees(sim.getDrive().getHeading());
+        assertTrue("should have turned CW toward -45, heading " + afterRight, afterRight < afterLeft - 10.0);
+    }
+
+    @Test
+    public void turnAsyncTurnsTheRightWay() {
+        drive.turnAsync(60);
+        while (opMode.opModeIsActive() && drive.isTurnInProgress()) {
+            hardware.refresh();
+            drive.updateAsync(opMode);
+            opMode.idle();
+        }
+        assertEquals(60.0, Math.toDegrees(sim.getDrive().getHeading()), HEADING_TOLERANCE_DEG);
+    }
+
+    @Test
+    public void headingHoldTurnsBackTowardTarget() {
+        drive.enableHeadingHold(true);
+        runDrive(0.0, 0.0, 0.0, 0.1); // locks the hold target at 0
+        sim.getDrive().setPose(0, 0, Math.toRadians(20)); // knocked 20 deg CCW
+        runDrive(0.0, 0.0, 0.0, 0.1);
+        // clockwise correction: left wheels forward, right wheels back
+        assertTrue("front left " + drive.getFrontLeftPower(), drive.getFrontLeftPower() > 0);
+        assertTrue("front right " + drive.getFrontRightPower(), drive.getFrontRightPower() < 0);
+        runDrive(0.0, 0.0, 0.0, 2.0);
+        double heading = Math.toDegrees(sim.getDrive().getHeading());
+        assertTrue("heading should be back toward 0, was " + heading, heading < 19.0 && heading > -1.0);
+    }
+
+    @Test
+    public void encoderMoveCorrectsTheRightWay() {
+        // knocked 30 deg CCW before the move; much less and the (gentle) correction is under the motor write threshold
+        sim.getDrive().setPose(0, 0, Math.toRadians(30));
+        drive.driveStraightAsync(24, 0.5, 0);
+        for (int i = 0; i < 5; i++) {
+            hardware.refresh();
+            drive.updateAsync(opMode);
+            opMode.idle();
+        }
+        // clockwise correction on top of driving forward: left wheels faster than right
+        assertTrue("left " + drive.getFrontLeftPower() + " right " + drive.getFrontRightPower(),
+                drive.getFrontLeftPower() > drive.getFrontRightPower());
+        assertTrue(drive.getBackLeftPower() > drive.getBackRightPower());
+    }
+
+    @Test
+    public void encoderMovesHoldHeadingAndKeepThePose() {
+        // each helper zeroes the encoders; odometry has to carry on from where the last move ended
+        drive.driveStraightWithHeading(24, 0.5, 0, opMode);
+        drive.strafeWithHeading(12, 0.5, 0, opMode);
+        drive.driveStraightWithHeading(12, 0.5, 0, opMode);
+        settle();
+
+        MecanumDriveSim truth = sim.getDrive();
+        assertEquals(0.0, Math.toDegrees(truth.getHeading()), HEADING_TOLERANCE_DEG);
+        assertTrue("should have covered about 36 in forward, truth y " + truth.getY(), truth.getY() > 30.0);
+        assertTrue("should have covered about 12 in sideways, truth x " + truth.getX(), truth.getX() > 9.0);
+        assertPoseMatchesTruth();
+    }
+
+    /** stick inputs for a while, one drive() per simulated loop */
+    private void runDrive(double x, double y, double rotation, double seconds) {
+        double end = sim.getTimeSeconds() + seconds;
+        while (sim.getTimeSeconds() < end) {
+            hardware.refresh();
+            drive.drive(x, y, rotation, false);
+            opMode.idle();
+        }
+    }
+
+    /** let the robot coast to a stop with odometry still running */
+    private void settle() {
+        drive.stop();
+        double end = sim.getTimeSeconds() + 1.0;
+        while (sim.getTimeSeconds() < end) {
+            hardware.refresh();
+            drive.updatePoseEstimate();
+            opMode.idle();
+        }
+        hardware.refresh();
+        drive.updatePoseEstimate();
+    }
+
+    private void assertPoseMatchesTruth() {
+        drive.getPoseEstimate(pose);
+        MecanumDriveSim truth = sim.getDrive();
+        assertEquals("odometry x", truth.getX(), pose.x, POSE_TOLERANCE_IN);
+        assertEquals("odometry y", truth.getY(), pose.y, POSE_TOLERANCE_IN);
+        assertEquals("odometry heading", Math.toDegrees(truth.getHeading()), Math.toDegrees(pose.heading),
+                HEADING_TOLERANCE_DEG);
+    }
+}
@@ -0,0 +1,62 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.sim.SimOpMode;
+import org.firstinspires.ftc.teamcode.sim.SimRobotHardware;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Slide presets on the simulated robot. Holding a preset needs power with the slides not moving, which the
+ * stall check used to call a stall, so the slides faulted a second or so after every preset move.
+ */
+public class SlideSubsystemSimTest {
+    private SimRobotHardware sim;
+    private HardwareSnapshot hardware;
+    private SlideSubsystem slides;
+    private SimOpMode opMode;
+
+    @Before
+    public void setUp() {
+        sim = new SimRobotHardware();
+        hardware = new HardwareSnapshot(sim);
+        slides = new SlideSubsystem(sim, hardware);
+        opMode = new SimOpMode(sim);
+    }
+
+    @Test
+    public void holdingAPresetIsNotAStall() {
+        slides.goToHigh();
+        runFor(4.0); // a couple of seconds to get there, the rest just holding
+        assertFalse("faulted holding high: " + slides.getFaultReason(), slides.isFaulted());
+        assertTrue("should be at high", slides.isAtTarget());
+    }
+
+    @Test
+    public void presetMovesStillWorkAfterAHold() {
+        slides.goToHigh();
+        runFor(4.0);
+        slides.goToLow();
+        runFor(3.0);
+        assertFalse("faulted after going to low: " + slides.getFaultReason(), slides.isFaulted());
+        assertTrue("should be at low", slides.isAtTarget());
+        slides.goToIntake();
+        runFor(3.0);
+        assertFalse("faulted after going to intake: " + slides.getFaultReason(), slides.isFaulted());
+        assertTrue("should be at intake", slides.isAtTarget());
+    }
+
+    /** refresh, update, step, like a TeleOp loop; fails as soon as anything faults */
+    private void runFor(double seconds) {
+        double end = sim.getTimeSeconds() + seconds;
+        while (sim.getTimeSeconds() < end) {
+            hardware.refresh();
+            slides.update();
+            assertFalse("faulted at t=" + sim.getTimeSeconds() + ": " + slides.getFaultReason(), slides.isFaulted());
+            opMode.idle();
+        }
+    }
+}
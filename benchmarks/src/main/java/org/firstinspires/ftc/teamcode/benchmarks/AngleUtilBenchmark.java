@@ -0,0 +1,55 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.geometry.AngleUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AngleUtil.normalizeRadians on typical loop-to-loop heading deltas and on big wound-up angles,
+ * since the while-loop version gets slower the further out of range the input is.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AngleUtilBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final double[] smallAngles = new double[SAMPLES];
+    private final double[] largeAngles = new double[SAMPLES];
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            smallAngles[i] = (random.nextDouble() * 4.0 - 2.0) * Math.PI;   // within ±2π
+            largeAngles[i] = (random.nextDouble() * 40.0 - 20.0) * Math.PI; // ±10 turns
+        }
+    }
+
+    @Benchmark
+    public double normalizeSmall() {
+        index = (index + 1) & (SAMPLES - 1);
+        return AngleUtil.normalizeRadians(smallAngles[index]);
+    }
+
+    @Benchmark
+    public double normalizeLarge() {
+        index = (index + 1) & (SAMPLES - 1);
+        return AngleUtil.normalizeRadians(largeAngles[index]);
+    }
+}
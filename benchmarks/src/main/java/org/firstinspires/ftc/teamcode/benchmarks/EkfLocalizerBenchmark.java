@@ -0,0 +1,54 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.drive.EkfLocalizer;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EkfLocalizer's per-loop cost: an odometry predict alone, and a predict plus a backdrop tag correction
+ * (the worst case, a new tag frame every loop). Both should be ~0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EkfLocalizerBenchmark {
+    private final MutablePose2d out = new MutablePose2d();
+    private EkfLocalizer localizer;
+
+    @Setup
+    public void setup() {
+        localizer = new EkfLocalizer(0.2, 0.0005, 9.21);
+        localizer.reset(0, 0, 0, 1.0, Math.toRadians(2.0));
+    }
+
+    @Benchmark
+    public MutablePose2d predict() {
+        // roughly one 10 ms loop of driving forward with a little strafe and turn
+        localizer.predict(0.05, 0.3, 0.002);
+        return localizer.getPoseEstimate(out);
+    }
+
+    @Benchmark
+    public MutablePose2d predictAndCorrect() {
+        localizer.predict(0.05, 0.3, 0.002);
+        // a tag 12 in ahead of wherever the filter thinks it is, so the gate never rejects it
+        localizer.getPoseEstimate(out);
+        localizer.correctWithLandmark(out.x - 12.0 * Math.sin(out.heading), out.y + 12.0 * Math.cos(out.heading),
+                0.0, 12.0, 1.0);
+        return localizer.getPoseEstimate(out);
+    }
+}
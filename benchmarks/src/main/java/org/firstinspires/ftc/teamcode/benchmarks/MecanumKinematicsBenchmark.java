@@ -0,0 +1,56 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.drive.MecanumKinematics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The mecanum mixing DriveSubsystem.drive() and driveToPose() run every loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MecanumKinematicsBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final double[] sticks = new double[SAMPLES * 4];
+    private final double[] wheelPowers = new double[4];
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        for (int i = 0; i < sticks.length; i++) {
+            sticks[i] = random.nextDouble() * 2.0 - 1.0;
+        }
+    }
+
+    @Benchmark
+    public double[] fieldCentric() {
+        index = (index + 4) & (sticks.length - 1);
+        MecanumKinematics.fieldCentric(sticks[index], sticks[index + 1], sticks[index + 2],
+                sticks[index + 3] * Math.PI, wheelPowers);
+        return wheelPowers;
+    }
+
+    @Benchmark
+    public double[] robotCentric() {
+        index = (index + 4) & (sticks.length - 1);
+        MecanumKinematics.robotCentric(sticks[index], sticks[index + 1], sticks[index + 2], wheelPowers);
+        return wheelPowers;
+    }
+}
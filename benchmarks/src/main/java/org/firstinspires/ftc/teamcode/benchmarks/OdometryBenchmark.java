@@ -0,0 +1,54 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.drive.OdometryPoseEstimator;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OdometryPoseEstimator.update() fed the same reused wheel buffer DriveSubsystem uses,
+ * so gc.alloc.rate.norm should read ~0 B/op for the steady-state path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OdometryBenchmark {
+    private final double[] wheelPositions = new double[4];
+    private final MutablePose2d out = new MutablePose2d();
+    private OdometryPoseEstimator estimator;
+    private double heading = 0.0;
+
+    @Setup
+    public void setup() {
+        estimator = new OdometryPoseEstimator(new Pose2d(0, 0, 0), 0.0, wheelPositions);
+    }
+
+    @Benchmark
+    public MutablePose2d update() {
+        // gentle forward + strafe + turn, roughly one 10 ms loop worth of motion
+        wheelPositions[0] += 0.30;
+        wheelPositions[1] += 0.26;
+        wheelPositions[2] += 0.24;
+        wheelPositions[3] += 0.28;
+        heading += 0.002;
+        if (heading > Math.PI) {
+            heading -= 2.0 * Math.PI;
+        }
+        estimator.update(heading, wheelPositions);
+        return estimator.getPoseEstimate(out);
+    }
+}
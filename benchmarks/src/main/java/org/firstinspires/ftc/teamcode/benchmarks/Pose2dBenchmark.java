@@ -0,0 +1,52 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable Pose2d math next to the MutablePose2d equivalent, so the allocation cost of
+ * the immutable API shows up in gc.alloc.rate.norm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Pose2dBenchmark {
+    private Pose2d pose = new Pose2d(12.0, -4.0, 0.3);
+    private final Pose2d delta = new Pose2d(0.01, 0.02, 0.001);
+    private final MutablePose2d mutablePose = new MutablePose2d(12.0, -4.0, 0.3);
+
+    @Benchmark
+    public Pose2d plus() {
+        pose = pose.plus(delta);
+        return pose;
+    }
+
+    @Benchmark
+    public Pose2d withHeading() {
+        return pose.withHeading(1.2);
+    }
+
+    @Benchmark
+    public MutablePose2d mutablePlus() {
+        return mutablePose.set(mutablePose.x + delta.x, mutablePose.y + delta.y, mutablePose.heading + delta.heading);
+    }
+
+    @Benchmark
+    public int hashCodeCost() {
+        return pose.hashCode();
+    }
+}
@@ -0,0 +1,62 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.vision.SleeveClassifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Java side of one sleeve frame: the three default 160x120 ROIs out of a 640-wide RGBA band, at each sample step.
+ * Rows are already copied out, so this is just the table lookups. gc.alloc.rate.norm should read 0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SleeveClassifierBenchmark {
+    private static final int WIDTH = 640;
+    private static final int ROWS = 120;
+    private static final int CHANNELS = 4;
+
+    @Param({"1", "2"})
+    public int step;
+
+    private final SleeveClassifier classifier = new SleeveClassifier(4);
+    private final byte[][] rows = new byte[ROWS][WIDTH * CHANNELS];
+
+    @Setup
+    public void setup() {
+        classifier.setRange(0, new double[] {90, 60, 50}, new double[] {140, 255, 255});
+        classifier.setRange(1, new double[] {40, 50, 50}, new double[] {85, 255, 255});
+        classifier.setRange(2, new double[] {0, 70, 50}, new double[] {10, 255, 255});
+        classifier.setRange(3, new double[] {170, 70, 50}, new double[] {180, 255, 255});
+        Random random = new Random(7);
+        for (byte[] row : rows) {
+            random.nextBytes(row);
+        }
+    }
+
+    @Benchmark
+    public int scoreFrame() {
+        int total = 0;
+        for (int row = 0; row < ROWS; row += step) {
+            total += classifier.countMatches(rows[row], 40, 160, CHANNELS, step);
+            total += classifier.countMatches(rows[row], 240, 160, CHANNELS, step);
+            total += classifier.countMatches(rows[row], 440, 160, CHANNELS, step);
+        }
+        return total;
+    }
+}
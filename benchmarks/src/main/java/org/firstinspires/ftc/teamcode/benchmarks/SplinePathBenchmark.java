@@ -0,0 +1,50 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.trajectory.spline.QuinticHermiteSpline;
+import org.firstinspires.ftc.teamcode.trajectory.spline.SplinePath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-loop spline sampling (distance -> point + curvature). gc.alloc.rate.norm should read ~0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplinePathBenchmark {
+    private SplinePath path;
+    private double distance;
+    private double step;
+
+    @Setup
+    public void setup() {
+        path = new SplinePath(Arrays.asList(
+                new QuinticHermiteSpline(0, 0, 0, 40, 0, 0, 24, 36, 30, 30, 0, 0),
+                new QuinticHermiteSpline(24, 36, 30, 30, 0, 0, 0, 48, -30, 0, 0, 0)));
+        step = path.getLength() / 997.0; // walk the path in odd-sized steps so lookups land everywhere
+    }
+
+    @Benchmark
+    public double sampleAlongPath() {
+        distance += step;
+        if (distance > path.getLength()) {
+            distance -= path.getLength();
+        }
+        double u = path.parameterAtLength(distance);
+        return path.getX(u) + path.getY(u) + path.getCurvature(u);
+    }
+}
@@ -0,0 +1,67 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.geometry.Pose2d;
+import org.firstinspires.ftc.teamcode.trajectory.Trajectory;
+import org.firstinspires.ftc.teamcode.trajectory.TrajectoryBuilder;
+import org.firstinspires.ftc.teamcode.trajectory.profile.ProfileConstraints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the paths the autos build, including the ones built mid-match.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrajectoryBuilderBenchmark {
+    private final Pose2d startPose = new Pose2d(0, 0, 0);
+    private final ProfileConstraints constraints = new ProfileConstraints(45, 70, 400);
+
+    /** same shape as the DecodeAuto_Right preload path */
+    @Benchmark
+    public Trajectory preloadPath() {
+        return new TrajectoryBuilder(startPose)
+                .lineTo(new Pose2d(0, 22, 0), 0.65)
+                .lineTo(new Pose2d(10, 22, 0), 0.6)
+                .lineTo(new Pose2d(10, 30, 0), 0.45)
+                .build();
+    }
+
+    /** what the autos build now: one pure pursuit segment through all three legs */
+    @Benchmark
+    public Trajectory pursuitPreloadPath() {
+        return new TrajectoryBuilder(startPose)
+                .lineThrough(new Pose2d(0, 22, 0), constraints)
+                .lineThrough(new Pose2d(10, 22, 0), constraints)
+                .lineThrough(new Pose2d(10, 30, 0), constraints.scaledVelocity(0.45))
+                .build();
+    }
+
+    /** real quintic splines now, so this includes filling the arc-length table */
+    @Benchmark
+    public Trajectory splinePath() {
+        return new TrajectoryBuilder(startPose)
+                .splineTo(new Pose2d(24, 36, Math.toRadians(90)), Math.toRadians(-45), constraints)
+                .splineTo(new Pose2d(0, 48, Math.toRadians(180)), Math.toRadians(90), constraints)
+                .build();
+    }
+
+    @Benchmark
+    public Trajectory strafe() {
+        return new TrajectoryBuilder(startPose)
+                .strafeTo(14, 0, 0.55)
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.auto.AutoRobot;
+import org.firstinspires.ftc.teamcode.auto.AutoRoutine;
+import org.firstinspires.ftc.teamcode.auto.CenterAutoRoutine;
+import org.firstinspires.ftc.teamcode.auto.LeftAutoRoutine;
+import org.firstinspires.ftc.teamcode.auto.RightAutoRoutine;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.trajectory.TrajectoryCache;
+import org.firstinspires.ftc.teamcode.vision.DetectedMotif;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the auto routines start-to-finish on SimRobotHardware and prints how long each one took in
+ * match time, how far the odometry drifted from the simulated truth, and how much faster than real
+ * time the run went. Usage: [right|right-mirrored|left|center|all] [A|B|C] [cycle]
+ */
+public final class HeadlessAutoRunner {
+    private static final String[] ROUTINES = {"right", "right-mirrored", "left", "center"};
+
+    private HeadlessAutoRunner() { }
+
+    public static void main(String[] args) {
+        String routine = args.length > 0 ? args[0] : "all";
+        List<DetectedMotif> motifs = new ArrayList<>();
+        boolean cycle = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equalsIgnoreCase("cycle")) {
+                cycle = true;
+            } else {
+                motifs.add(DetectedMotif.valueOf("MOTIF_" + args[i].toUpperCase()));
+            }
+        }
+        if (motifs.isEmpty()) {
+            for (DetectedMotif motif : DetectedMotif.values()) {
+                motifs.add(motif);
+            }
+        }
+
+        // built once up front like the OpModes do in init, so wall ms is only the routine itself
+        long buildStart = System.nanoTime();
+        TrajectoryCache trajectories = new TrajectoryCache();
+        RightAutoRoutine.buildTrajectories(trajectories);
+        LeftAutoRoutine.buildTrajectories(trajectories);
+        CenterAutoRoutine.buildTrajectories(trajectories);
+        System.out.printf("built %d paths in %.1f ms%n", trajectories.size(), (System.nanoTime() - buildStart) / 1e6);
+
+        System.out.printf("%-15s %-7s %-5s %8s %9s %14s %14s %7s %8s%n",
+                "routine", "motif", "cycle", "match s", "result", "odometry", "truth", "wall ms", "speedup");
+        for (String name : routine.equals("all") ? ROUTINES : new String[] {routine}) {
+            for (DetectedMotif motif : motifs) {
+                run(trajectories, name, motif, false);
+                if (cycle || (routine.equals("all") && name.startsWith("right"))) {
+                    run(trajectories, name, motif, true);
+                }
+            }
+        }
+    }
+
+    private static void run(TrajectoryCache trajectories, String name, DetectedMotif motif, boolean cycle) {
+        if (cycle && !name.startsWith("right")) {
+            return; // only the right-side routines have a cycle option
+        }
+        SimRobotHardware simHardware = new SimRobotHardware();
+        AutoRobot robot = new AutoRobot(simHardware, new SimVision(motif));
+        SimOpMode opMode = new SimOpMode(simHardware);
+        SimTelemetry telemetry = new SimTelemetry();
+        robot.gate.close();
+
+        long wallStart = System.nanoTime();
+        createRoutine(trajectories, name, robot, opMode, telemetry, cycle).run();
+        robot.drive.stop();
+        double wallMs = (System.nanoTime() - wallStart) / 1e6;
+
+        double matchSeconds = simHardware.getTimeSeconds();
+        MutablePose2d estimate = robot.drive.getPoseEstimate(new MutablePose2d());
+        MecanumDriveSim truth = simHardware.getDrive();
+        String result = !opMode.opModeIsActive() ? "TIMEOUT"
+                : robot.slides.isFaulted() ? "FAULT" : "done";
+        System.out.printf("%-15s %-7s %-5s %8.2f %9s %14s %14s %7.0f %7.0fx%n",
+                name, motif, cycle, matchSeconds, result,
+                pose(estimate.x, estimate.y, estimate.heading),
+                pose(truth.getX(), truth.getY(), truth.getHeading()),
+                wallMs, matchSeconds * 1000.0 / Math.max(wallMs, 1e-3));
+        if (!result.equals("done")) {
+            for (String line : telemetry.getLastFrame()) {
+                System.out.println("    " + line);
+            }
+        }
+    }
+
+    private static AutoRoutine createRoutine(TrajectoryCache trajectories, String name, AutoRobot robot,
+                                             SimOpMode opMode, SimTelemetry telemetry, boolean cycle) {
+        switch (name) {
+            case "right":
+                return new RightAutoRoutine(robot, trajectories, opMode, telemetry, false, cycle);
+            case "right-mirrored":
+                return new RightAutoRoutine(robot, trajectories, opMode, telemetry, true, cycle);
+            case "left":
+                return new LeftAutoRoutine(robot, trajectories, opMode, telemetry);
+            case "center":
+                return new CenterAutoRoutine(robot, trajectories, opMode, telemetry);
+            default:
+                throw new IllegalArgumentException("Unknown routine " + name
+                        + " (expected right, right-mirrored, left, center, or all)");
+        }
+    }
+
+    private static String pose(double x, double y, double heading) {
+        return String.format("%5.1f,%5.1f,%4.0fdeg", x, y, Math.toDegrees(heading));
+    }
+}
@@ -0,0 +1,212 @@
+package org.firstinspires.ftc.teamcode.sim;
+
+import org.firstinspires.ftc.teamcode.OperatorControls;
+import org.firstinspires.ftc.teamcode.RobotConstants;
+import org.firstinspires.ftc.teamcode.geometry.MutablePose2d;
+import org.firstinspires.ftc.teamcode.hardware.BatteryMonitor;
+import org.firstinspires.ftc.teamcode.hardware.HardwareSnapshot;
+import org.firstinspires.ftc.teamcode.hardware.RobotHardware;
+import org.firstinspires.ftc.teamcode.record.LoopFrame;
+import org.firstinspires.ftc.teamcode.record.LoopRecorder;
+import org.firstinspires.ftc.teamcode.record.LoopRecordingReader;
+import org.firstinspires.ftc.teamcode.record.RecordingRobotHardware;
+import org.firstinspires.ftc.teamcode.record.ReplayRobotHardware;
+import org.firstinspires.ftc.teamcode.subsystems.DriveSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.GateSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.IntakeSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.SlideSubsystem;
+import org.firstinspires.ftc.teamcode.util.GamepadState;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Feeds a TeleOp recording (pull it off the robot from RobotConstants.RECORDING_DIR) back through the drive,
+ * odometry, slides, and operator controls, and reports where the outputs and pose came out different from
+ * what the robot did. Change some code, replay last match, see what would have changed.
+ * Usage: &lt;recording.bin&gt;, or record-sim &lt;out.bin&gt; [seconds] to record a scripted TeleOp in the simulator
+ * (handy for checking that a replay with no code changes matches exactly).
+ */
+public final class ReplayRunner {
+    private static final String[] MOTOR_NAMES = {"frontLeft", "frontRight", "backLeft", "backRight",
+            "leftSlide", "rightSlide", "intake"};
+
+    private ReplayRunner() { }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("record-sim")) {
+            recordSim(new File(args[1]), args.length > 2 ? Double.parseDouble(args[2]) : 20.0);
+        } else if (args.length == 1) {
+            replay(new File(args[0]));
+        } else {
+            System.err.println("usage: <recording.bin> | record-sim <out.bin> [seconds]");
+            System.exit(1);
+        }
+    }
+
+    private static void replay(File file) throws IOException {
+        try (LoopRecordingReader reader = new LoopRecordingReader(file)) {
+            ReplayRobotHardware replayHardware = new ReplayRobotHardware(reader);
+            TeleOpRig rig = new TeleOpRig(replayHardware);
+            LoopFrame recorded = replayHardware.getRecordedFrame();
+            LoopFrame replayed = replayHardware.getReplayedFrame();
+            rig.start();
+
+            double[] maxPowerError = new double[LoopFrame.MOTOR_COUNT];
+            long[] framesOff = new long[LoopFrame.MOTOR_COUNT + 1]; // last one is the gate
+            double maxGateError = 0.0;
+            double maxPoseError = 0.0;
+            double maxHeadingError = 0.0;
+            long loops = 0;
+            long firstNanos = recorded.timestampNanos;
+            long wallStart = System.nanoTime();
+            while (true) {
+                rig.refresh();
+                if (replayHardware.isFinished()) {
+                    break;
+                }
+                rig.control(recorded.gamepad1, recorded.gamepad2, recorded.batteryVoltage);
+                loops++;
+
+                for (int i = 0; i < LoopFrame.MOTOR_COUNT; i++) {
+                    double error = Math.abs(replayed.powers[i] - recorded.powers[i]);
+                    maxPowerError[i] = Math.max(maxPowerError[i], error);
+                    if (error > 0 || replayed.targetPositions[i] != recorded.targetPositions[i]
+                            || replayed.runModes[i] != recorded.runModes[i]) {
+                        framesOff[i]++;
+                    }
+                }
+                double gateError = Math.abs(replayed.gatePosition - recorded.gatePosition);
+                maxGateError = Math.max(maxGateError, gateError);
+                if (gateError > 0) {
+                    framesOff[LoopFrame.MOTOR_COUNT]++;
+                }
+                MutablePose2d pose = rig.getPose();
+                maxPoseError = Math.max(maxPoseError, Math.hypot(pose.x - recorded.poseX, pose.y - recorded.poseY));
+                maxHeadingError = Math.max(maxHeadingError,
+                        Math.abs(Math.IEEEremainder(pose.heading - recorded.poseHeading, 2 * Math.PI)));
+            }
+            double wallMs = (System.nanoTime() - wallStart) / 1e6;
+            double matchSeconds = (recorded.timestampNanos - firstNanos) / 1e9;
+
+            System.out.printf("replayed %d loops (%.1f s on the robot) in %.0f ms, %.0fx real time%n",
+                    loops, matchSeconds, wallMs, matchSeconds * 1000.0 / Math.max(wallMs, 1e-3));
+            System.out.printf("%-11s %13s %11s%n", "output", "max |diff|", "loops off");
+            for (int i = 0; i < LoopFrame.MOTOR_COUNT; i++) {
+                System.out.printf("%-11s %13.6f %11d%n", MOTOR_NAMES[i], maxPowerError[i], framesOff[i]);
+            }
+            System.out.printf("%-11s %13.6f %11d%n", "gate", maxGateError, framesOff[LoopFrame.MOTOR_COUNT]);
+            MutablePose2d pose = rig.getPose();
+            System.out.printf("pose: max diff %.3f in, %.2f deg; end %s replayed vs %s recorded%n",
+                    maxPoseError, Math.toDegrees(maxHeadingError), pose(pose.x, pose.y, pose.heading),
+                    pose(recorded.poseX, recorded.poseY, recorded.poseHeading));
+        }
+    }
+
+    /** drives a scripted TeleOp on SimRobotHardware through the recorder, like DecodeTeleOp does on the robot */
+    private static void recordSim(File file, double seconds) throws IOException {
+        SimRobotHardware simHardware = new SimRobotHardware();
+        LoopRecorder recorder = new LoopRecorder(RobotConstants.RECORDER_CAPACITY_FRAMES,
+                RobotConstants.RECORDER_FLUSH_MS);
+        recorder.start(file);
+        TeleOpRig rig = new TeleOpRig(new RecordingRobotHardware(simHardware, recorder));
+        LoopFrame frame = recorder.getFrame();
+        GamepadState driver = new GamepadState();
+        GamepadState operator = new GamepadState();
+        rig.start();
+        while (simHardware.getTimeSeconds() < seconds) {
+            rig.refresh();
+            script(simHardware.getTimeSeconds(), driver, operator);
+            rig.control(driver, operator, simHardware.getBatteryVoltage());
+            frame.gamepad1.copyFrom(driver);
+            frame.gamepad2.copyFrom(operator);
+            frame.batteryVoltage = simHardware.getBatteryVoltage();
+            MutablePose2d pose = rig.getPose();
+            frame.poseX = pose.x;
+            frame.poseY = pose.y;
+            frame.poseHeading = pose.heading;
+            simHardware.step(SimOpMode.DEFAULT_LOOP_SECONDS);
+        }
+        recorder.stop();
+        if (recorder.getError() != null) {
+            throw recorder.getError();
+        }
+        System.out.printf("recorded %d frames (%d dropped) to %s%n",
+                recorder.getFrameCount(), recorder.getDroppedFrames(), file);
+    }
+
+    /** a bit of everything: driving, slow mode, heading hold, and each macro (one of them cancelled) */
+    private static void script(double t, GamepadState driver, GamepadState operator) {
+        driver.leftStickX = t > 2 && t < 4 ? 0.5f : 0f;
+        driver.leftStickY = t < 2 ? -0.6f : t > 5 && t < 8 ? -0.4f : 0f;
+        driver.rightStickX = t > 3 && t < 4 || t > 10 && t < 11 ? 0.4f : 0f;
+        driver.rightBumper = t > 5 && t < 8;
+        driver.x = t > 9 && t < 9.1;
+        operator.rightTrigger = t > 1 && t < 2 ? 1f : 0f;
+        operator.y = t > 2.5 && t < 2.6;
+        operator.dpadUp = t > 12 && t < 12.1;
+        operator.leftBumper = t > 14 && t < 14.1;
+        operator.leftStickY = t > 15 && t < 16 ? -0.8f : 0f;
+        operator.dpadDown = t > 17 && t < 17.1;
+    }
+
+    private static String pose(double x, double y, double heading) {
+        return String.format("(%.1f, %.1f, %.0fdeg)", x, y, Math.toDegrees(heading));
+    }
+
+    /** DecodeTeleOp's single-thread loop without the SDK, vision, or telemetry */
+    private static class TeleOpRig {
+        private final HardwareSnapshot hardware;
+        private final DriveSubsystem drive;
+        private final BatteryMonitor battery;
+        private final OperatorControls operator;
+        private final MutablePose2d pose = new MutablePose2d();
+        private boolean headingHoldToggleLatch = false;
+
+        TeleOpRig(RobotHardware robotHardware) {
+            hardware = new HardwareSnapshot(robotHardware);
+            drive = new DriveSubsystem(robotHardware, hardware);
+            IntakeSubsystem intake = new IntakeSubsystem(robotHardware);
+            SlideSubsystem slides = new SlideSubsystem(robotHardware, hardware);
+            GateSubsystem gate = new GateSubsystem(robotHardware);
+            battery = new BatteryMonitor(robotHardware); // never started, fed the voltage each loop
+            drive.setBatteryMonitor(battery);
+            intake.setBatteryMonitor(battery);
+            slides.setBatteryMonitor(battery);
+            operator = new OperatorControls(intake, slides, gate);
+            gate.close();
+        }
+
+        void start() {
+            hardware.refresh();
+            drive.resetHeading();
+            drive.enableHeadingHold(false);
+        }
+
+        void refresh() {
+            hardware.refresh();
+        }
+
+        void control(GamepadState driverPad, GamepadState operatorPad, double batteryVoltage) {
+            battery.setVoltage(batteryVoltage);
+            double y = -driverPad.leftStickY;
+            double x = driverPad.leftStickX;
+            double rotation = driverPad.rightStickX;
+            boolean toggleHeadingHold = driverPad.x && !headingHoldToggleLatch;
+            headingHoldToggleLatch = driverPad.x;
+            if (driverPad.leftBumper) {
+                drive.resetHeading();
+            }
+            if (toggleHeadingHold) {
+                drive.enableHeadingHold(!drive.isHeadingHoldEnabled());
+            }
+            drive.drive(x, y, rotation, driverPad.rightBumper);
+            operator.handleInputs(operatorPad);
+            operator.runMacros(hardware.getTimestampNanos());
+        }
+
+        MutablePose2d getPose() {
+            return drive.getPoseEstimate(pose);
+        }
+    }
+}